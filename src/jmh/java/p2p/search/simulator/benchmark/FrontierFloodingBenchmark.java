@@ -0,0 +1,86 @@
+package p2p.search.simulator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import p2p.search.simulator.simulation.FrontierFloodingEngine;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o flooding mensagem a mensagem com o flooding em massa por nível
+ * em uma topologia em lei de potência. O recurso buscado não existe, então o TTL é esgotado.
+ * Os benchmarks {@code engine*} medem só o motor, com e sem a troca top-down/bottom-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrontierFloodingBenchmark {
+
+    @Param({"100000"})
+    public int nodes;
+
+    @Param({"8"})
+    public int ttl;
+
+    /**
+     * Índice do nó que possui o recurso nos benchmarks {@code engine*}; -1 para nenhum.
+     */
+    @Param({"-1", "1"})
+    public int holder;
+
+    private SimulationManager messageMode;
+    private SimulationManager frontierMode;
+    private FrontierFloodingEngine directionOptimizing;
+    private FrontierFloodingEngine topDown;
+    private final FloodingStrategy strategy = new FloodingStrategy();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NetworkTopology topology = new NetworkTopology(SyntheticTopologies.powerLaw(nodes, 3, 42));
+        messageMode = new SimulationManager(topology);
+        frontierMode = new SimulationManager(topology);
+        frontierMode.setFrontierExpansion(true);
+
+        IndexedGraph graph = topology.getIndexedGraph();
+        directionOptimizing = new FrontierFloodingEngine(graph);
+        topDown = new FrontierFloodingEngine(graph);
+        topDown.setDirectionOptimizing(false);
+    }
+
+    @Benchmark
+    public SimulationManager.SearchResult messageByMessage() {
+        return messageMode.runSearch("p0", "missing", ttl, strategy);
+    }
+
+    @Benchmark
+    public SimulationManager.SearchResult frontier() {
+        return frontierMode.runSearch("p0", "missing", ttl, strategy);
+    }
+
+    @Benchmark
+    public FrontierFloodingEngine.Result engineDirectionOptimizing() {
+        return directionOptimizing.run(0, ttl, node -> node == holder);
+    }
+
+    @Benchmark
+    public FrontierFloodingEngine.Result engineTopDown() {
+        return topDown.run(0, ttl, node -> node == holder);
+    }
+}
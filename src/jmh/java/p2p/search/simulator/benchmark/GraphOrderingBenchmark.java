@@ -0,0 +1,71 @@
+package p2p.search.simulator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import p2p.search.simulator.simulation.FrontierFloodingEngine;
+import p2p.search.simulator.topology.GraphOrdering;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Efeito da numeração do {@link IndexedGraph} na localidade de floodings e random walks.
+ * Os ids da topologia sintética são embaralhados, como ids que caem em posições arbitrárias.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class GraphOrderingBenchmark {
+
+    private static final int WALK_STEPS = 1 << 20;
+
+    @Param({"300000"})
+    public int nodes;
+
+    @Param({"NONE", "BFS", "RCM", "DEGREE"})
+    public GraphOrdering ordering;
+
+    private IndexedGraph graph;
+    private FrontierFloodingEngine engine;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NetworkTopology topology = new NetworkTopology(
+            SyntheticTopologies.shuffled(SyntheticTopologies.powerLaw(nodes, 3, 42), 7), ordering);
+        graph = topology.getIndexedGraph();
+        engine = new FrontierFloodingEngine(graph);
+        source = graph.indexOf("p0");
+    }
+
+    @Benchmark
+    public FrontierFloodingEngine.Result flood() {
+        return engine.run(source, 12, node -> false);
+    }
+
+    @Benchmark
+    public int walk() {
+        SplittableRandom random = new SplittableRandom(1);
+        int node = source;
+        for (int step = 0; step < WALK_STEPS; step++) {
+            int degree = graph.degree(node);
+            node = graph.target(graph.edgeStart(node) + random.nextInt(degree));
+        }
+        return node;
+    }
+}
@@ -0,0 +1,77 @@
+package p2p.search.simulator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.Message;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede tempo e alocação (use {@code -prof gc}) do encaminhamento de QUERY.
+ * Compara o hop compacto ({@code forwardFrom}/{@code withTarget}) com a cópia via Builder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageForwardingBenchmark {
+
+    private static final String[] NEIGHBORS = {"n2", "n3", "n4", "n5"};
+
+    private Message arrived;
+    private SimulationManager simulationManager;
+    private FloodingStrategy strategy;
+
+    @Setup
+    public void setUp() throws Exception {
+        arrived = new Message.Builder()
+            .queryId(1)
+            .type(Message.Type.QUERY)
+            .source("n1")
+            .target("n1")
+            .resource("fileR")
+            .ttl(10)
+            .build()
+            .addToPath("n1");
+
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        simulationManager = new SimulationManager(topology);
+        strategy = new FloodingStrategy();
+    }
+
+    @Benchmark
+    public void forwardCompact(Blackhole blackhole) {
+        Message forward = arrived.forwardFrom("n1");
+        for (String neighbor : NEIGHBORS) {
+            blackhole.consume(forward.withTarget(neighbor));
+        }
+    }
+
+    @Benchmark
+    public void forwardViaBuilder(Blackhole blackhole) {
+        Message forward = arrived.decrementTTL().addToPath("n1");
+        for (String neighbor : NEIGHBORS) {
+            blackhole.consume(forward.toBuilder().target(neighbor).build());
+        }
+    }
+
+    @Benchmark
+    public SimulationManager.SearchResult floodConfigTopology() {
+        return simulationManager.runSearch("n1", "nonExistent", 10, strategy);
+    }
+}
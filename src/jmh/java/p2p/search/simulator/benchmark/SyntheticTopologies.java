@@ -0,0 +1,85 @@
+package p2p.search.simulator.benchmark;
+
+import p2p.search.simulator.model.NetworkConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Geradores de topologias grandes para os benchmarks. Cada nó "pI" tem o recurso "fI".
+ */
+final class SyntheticTopologies {
+
+    private SyntheticTopologies() {
+    }
+
+    /**
+     * Grafo de preferential attachment (Barabási–Albert): graus em lei de potência.
+     *
+     * @param nodes número de nós
+     * @param edgesPerNode arestas criadas por nó novo
+     */
+    static NetworkConfig powerLaw(int nodes, int edgesPerNode, long seed) {
+        Random random = new Random(seed);
+        List<List<String>> edges = new ArrayList<>();
+        Set<Long> existing = new HashSet<>();
+        int[] endpoints = new int[2 * nodes * edgesPerNode + 2];
+        int endpointCount = 0;
+
+        for (int i = 1; i < nodes; i++) {
+            int links = Math.min(i, edgesPerNode);
+            for (int e = 0; e < links; e++) {
+                int j = endpointCount == 0 ? 0 : endpoints[random.nextInt(endpointCount)];
+                if (j == i || !existing.add(edgeKey(i, j))) {
+                    j = random.nextInt(i);
+                    if (!existing.add(edgeKey(i, j))) {
+                        continue;
+                    }
+                }
+                edges.add(List.of("p" + j, "p" + i));
+                endpoints[endpointCount++] = i;
+                endpoints[endpointCount++] = j;
+            }
+        }
+        return config(nodes, edges);
+    }
+
+    /**
+     * Mesma topologia com as chaves de recursos embaralhadas, simulando ids sem relação com a
+     * estrutura do grafo (a numeração padrão do {@code IndexedGraph} segue essa ordem).
+     */
+    static NetworkConfig shuffled(NetworkConfig config, long seed) {
+        List<String> ids = new ArrayList<>(config.getResources().keySet());
+        Collections.shuffle(ids, new Random(seed));
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (String id : ids) {
+            resources.put(id, config.getResources().get(id));
+        }
+        config.setResources(resources);
+        return config;
+    }
+
+    private static long edgeKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    private static NetworkConfig config(int nodes, List<List<String>> edges) {
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (int i = 0; i < nodes; i++) {
+            resources.put("p" + i, List.of("f" + i));
+        }
+        NetworkConfig config = new NetworkConfig();
+        config.setNumNodes(nodes);
+        config.setMinNeighbors(1);
+        config.setMaxNeighbors(nodes);
+        config.setResources(resources);
+        config.setEdges(edges);
+        return config;
+    }
+}
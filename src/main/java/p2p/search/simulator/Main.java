@@ -1,6 +1,9 @@
 package p2p.search.simulator;
 
 import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.metrics.MetricsServer;
+import p2p.search.simulator.metrics.SearchHistograms;
+import p2p.search.simulator.metrics.SimulationMetrics;
 import p2p.search.simulator.model.NetworkConfig;
 import p2p.search.simulator.simulation.SimulationManager;
 import p2p.search.simulator.strategy.FloodingStrategy;
@@ -10,10 +13,13 @@ import p2p.search.simulator.strategy.RandomWalkStrategy;
 import p2p.search.simulator.strategy.SearchStrategy;
 import p2p.search.simulator.topology.NetworkTopology;
 import p2p.search.simulator.ui.SimulatorGUI;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.TraceReader;
 
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -68,6 +74,16 @@ public class Main {
             SimulationManager simulationManager = new SimulationManager(topology);
             simulationManager.setLogConsumer(System.out::println);
 
+            // 3b. Endpoint de métricas opcional (--metrics-port=N) para execuções longas
+            MetricsServer metricsServer = null;
+            String metricsPort = optionValue(args, "--metrics-port=");
+            if (metricsPort != null) {
+                SimulationMetrics metrics = new SimulationMetrics();
+                simulationManager.setMetrics(metrics);
+                metricsServer = MetricsServer.start(metrics, Integer.parseInt(metricsPort));
+                System.out.println("✓ Métricas em http://127.0.0.1:" + metricsServer.getPort() + "/metrics\n");
+            }
+
             // 4. Scanner para entrada do usuário
             Scanner scanner = new Scanner(System.in);
 
@@ -85,32 +101,15 @@ public class Main {
                 simulationManager.disableVisualization();
             }
 
-            // 7. Escolher parâmetros da busca
-            System.out.print("\nDigite o ID do nó de origem (ex: n1): ");
-            String sourceNodeId = scanner.nextLine().trim();
-
-            System.out.print("Digite o recurso a buscar (ex: fileA): ");
-            String resource = scanner.nextLine().trim();
-
-            System.out.print("Digite o TTL (default=" + DEFAULT_TTL + "): ");
-            String ttlInput = scanner.nextLine().trim();
-            int ttl = ttlInput.isEmpty() ? DEFAULT_TTL : Integer.parseInt(ttlInput);
-
-            // 8. Executar simulação
-            System.out.println("\n==============================================");
-            System.out.println("Iniciando busca...");
-            System.out.println("==============================================");
-            System.out.println("Origem: " + sourceNodeId);
-            System.out.println("Recurso: " + resource);
-            System.out.println("Algoritmo: " + strategy.getName());
-            System.out.println("TTL: " + ttl);
-            System.out.println("==============================================\n");
-
-            SimulationManager.SearchResult result =
-                simulationManager.runSearch(sourceNodeId, resource, ttl, strategy);
-
-            // 9. Exibir estatísticas
-            printStatistics(result, topology.getNodeCount());
+            // 7-9. Busca digitada ou replay de um trace (--trace=arquivo, --ttl=N)
+            String tracePath = optionValue(args, "--trace=");
+            if (tracePath != null) {
+                String ttlOption = optionValue(args, "--ttl=");
+                replayTrace(simulationManager, Path.of(tracePath),
+                    ttlOption != null ? Integer.parseInt(ttlOption) : DEFAULT_TTL, strategy);
+            } else {
+                runSingleSearch(args, scanner, simulationManager, strategy, topology.getNodeCount());
+            }
 
             // 10. Aguardar fechamento (se modo visual)
             if (visualMode) {
@@ -119,6 +118,9 @@ public class Main {
             }
 
             scanner.close();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
 
         } catch (Exception e) {
             System.err.println("Erro durante a execução: " + e.getMessage());
@@ -129,6 +131,68 @@ public class Main {
         System.out.println("\nSimulação finalizada.");
     }
 
+    private static void runSingleSearch(String[] args, Scanner scanner, SimulationManager simulationManager,
+                                        SearchStrategy strategy, int totalNodes) {
+        // 7. Escolher parâmetros da busca
+        System.out.print("\nDigite o ID do nó de origem (ex: n1): ");
+        String sourceNodeId = scanner.nextLine().trim();
+
+        System.out.print("Digite o recurso a buscar (ex: fileA): ");
+        String resource = scanner.nextLine().trim();
+
+        System.out.print("Digite o TTL (default=" + DEFAULT_TTL + "): ");
+        String ttlInput = scanner.nextLine().trim();
+        int ttl = ttlInput.isEmpty() ? DEFAULT_TTL : Integer.parseInt(ttlInput);
+
+        // 8. Executar simulação
+        System.out.println("\n==============================================");
+        System.out.println("Iniciando busca...");
+        System.out.println("==============================================");
+        System.out.println("Origem: " + sourceNodeId);
+        System.out.println("Recurso: " + resource);
+        System.out.println("Algoritmo: " + strategy.getName());
+        System.out.println("TTL: " + ttl);
+        System.out.println("==============================================\n");
+
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch(sourceNodeId, resource, ttl, strategy);
+
+        // 9. Exibir estatísticas
+        printStatistics(result, totalNodes);
+
+        // 9b. Execuções repetidas (--runs=N): distribuição em vez de um único valor
+        int runs = parseRuns(args);
+        if (runs > 1) {
+            SearchHistograms histograms = new SearchHistograms();
+            histograms.record(result);
+            simulationManager.setLogConsumer(msg -> {});
+            simulationManager.disableVisualization();
+            for (int i = 1; i < runs; i++) {
+                histograms.record(simulationManager.runSearch(sourceNodeId, resource, ttl, strategy));
+            }
+            printDistribution(histograms);
+        }
+    }
+
+    /**
+     * Executa todas as consultas do trace em streaming e mostra a distribuição dos resultados.
+     */
+    private static void replayTrace(SimulationManager simulationManager, Path tracePath, int ttl,
+                                    SearchStrategy strategy) throws IOException {
+        System.out.println("\nReproduzindo trace: " + tracePath + " (TTL " + ttl + ")");
+        simulationManager.setLogConsumer(msg -> {});
+        simulationManager.disableVisualization();
+        SearchHistograms histograms = new SearchHistograms();
+        try (TraceReader trace = TraceReader.open(tracePath)) {
+            Query query;
+            while ((query = trace.next()) != null) {
+                histograms.record(simulationManager.runSearch(query.source(), query.resource(), ttl, strategy));
+            }
+        }
+        System.out.println("✓ " + histograms.getCount() + " consultas reproduzidas");
+        printDistribution(histograms);
+    }
+
     /**
      * Carrega a configuração da rede.
      */
@@ -204,6 +268,28 @@ public class Main {
         return response.equals("s") || response.equals("sim") || response.equals("y") || response.equals("yes");
     }
 
+    private static int parseRuns(String[] args) {
+        String runs = optionValue(args, "--runs=");
+        return runs != null ? Integer.parseInt(runs) : 1;
+    }
+
+    private static String optionValue(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private static void printDistribution(SearchHistograms histograms) {
+        System.out.println("\n==============================================");
+        System.out.println("   DISTRIBUIÇÃO DAS EXECUÇÕES");
+        System.out.println("==============================================");
+        histograms.reportLines().forEach(System.out::println);
+        System.out.println("==============================================");
+    }
+
     private static void printStatistics(SimulationManager.SearchResult result, int totalNodes) {
         System.out.println("\n==============================================");
         System.out.println("   ESTATÍSTICAS DA BUSCA");
@@ -221,6 +307,15 @@ public class Main {
         if (!result.getPath().isEmpty()) {
             System.out.println("Caminho: " + String.join(" → ", result.getPath()));
         }
+        if (result.getHits().size() > 1) {
+            System.out.println("----------------------------------------------");
+            System.out.println("Hits: " + result.getHits().size());
+            for (SimulationManager.SearchResult.Hit hit : result.getHits()) {
+                System.out.println(String.format("  %s: %d hops, step %d, %d mensagens",
+                    hit.nodeId(), hit.hops(), hit.arrivalStep(), hit.messagesSpent()));
+            }
+            System.out.println("Mensagens por Hit Adicional: " + String.format("%.2f", result.getMessagesPerAdditionalHit()));
+        }
         System.out.println("==============================================");
     }
 }
@@ -0,0 +1,89 @@
+package p2p.search.simulator.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas pendentes por nó e recurso: a primeira consulta encaminhada abre uma entrada e as
+ * seguintes para o mesmo recurso esperam nela até a resposta passar pelo nó ou a entrada expirar.
+ *
+ * @param <W> o que o nó guarda de cada consulta retida
+ */
+final class CoalescingTable<W> {
+
+    private record Key(int node, String resource) { }
+
+    private static final class Outstanding<W> {
+        private final long id;
+        private final long owner;
+        private final List<W> waiters = new ArrayList<>();
+
+        private Outstanding(long id, long owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+    }
+
+    private final Map<Key, Outstanding<W>> entries = new HashMap<>();
+    private long nextId;
+
+    /**
+     * Retém {@code waiter} se o nó já encaminhou outra consulta pelo recurso.
+     *
+     * @return {@code false} se não há entrada aberta por outra consulta
+     */
+    boolean hold(int node, String resource, long query, W waiter) {
+        Outstanding<W> outstanding = entries.get(new Key(node, resource));
+        if (outstanding == null || outstanding.owner == query) {
+            return false;
+        }
+        outstanding.waiters.add(waiter);
+        return true;
+    }
+
+    /**
+     * Abre uma entrada para a consulta que o nó está encaminhando.
+     *
+     * @return id da entrada, para {@link #expire}; -1 se já havia uma aberta
+     */
+    long open(int node, String resource, long query) {
+        Key key = new Key(node, resource);
+        if (entries.containsKey(key)) {
+            return -1;
+        }
+        long id = nextId++;
+        entries.put(key, new Outstanding<>(id, query));
+        return id;
+    }
+
+    /**
+     * A resposta passou pelo nó: fecha a entrada.
+     *
+     * @return consultas que esperavam por ela
+     */
+    List<W> resolve(int node, String resource) {
+        Outstanding<W> outstanding = entries.remove(new Key(node, resource));
+        return outstanding != null ? outstanding.waiters : List.of();
+    }
+
+    /**
+     * Fim do tempo de espera da entrada {@code id}; não faz nada se ela já foi resolvida.
+     *
+     * @return consultas a liberar
+     */
+    List<W> expire(int node, String resource, long id) {
+        Key key = new Key(node, resource);
+        Outstanding<W> outstanding = entries.get(key);
+        if (outstanding == null || outstanding.id != id) {
+            return List.of();
+        }
+        entries.remove(key);
+        return outstanding.waiters;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
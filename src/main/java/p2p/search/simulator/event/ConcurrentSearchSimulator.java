@@ -0,0 +1,704 @@
+package p2p.search.simulator.event;
+
+import p2p.search.simulator.link.LinkModel;
+import p2p.search.simulator.link.MessageSizeModel;
+import p2p.search.simulator.metrics.LogLinearHistogram;
+import p2p.search.simulator.model.Message;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.QueryStream;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Simulação por eventos discretos de muitas buscas simultâneas. Diferente do
+ * {@link p2p.search.simulator.simulation.SimulationManager}, que executa uma busca por vez, aqui as
+ * consultas chegam nos instantes do {@link QueryStream} e as mensagens de todas elas se
+ * intercalam no tempo simulado: cada hop por um enlace leva {@link #setHopLatency(double)}.
+ * <p>
+ * Com um {@link LinkModel}, o hop passa a custar a serialização da mensagem na banda do enlace
+ * mais a latência de propagação; mensagens no mesmo sentido de um enlace são serializadas uma
+ * após a outra. O tamanho de cada mensagem vem do {@link MessageSizeModel} e os bytes
+ * transferidos entram no relatório junto com a contagem de mensagens.
+ * <p>
+ * Com coalescência ligada ({@link #setHoldTimeout(double)}), um nó que já encaminhou uma
+ * consulta pelo recurso R retém as consultas seguintes por R em vez de encaminhá-las; quando a
+ * resposta de R passa pelo nó, ele a repassa a cada consulta retida pelo caminho reverso dela.
+ * Se a resposta não vier dentro do tempo de espera, as consultas retidas seguem normalmente.
+ * <p>
+ * Por padrão os nós processam mensagens instantaneamente. Com {@link #setServiceRate(double)}
+ * cada nó atende uma mensagem por vez, a essa taxa, e as que chegam enquanto ele está ocupado
+ * esperam numa fila de entrada limitada por {@link #setQueueCapacity(int)}; quando a fila
+ * enche, a {@link DropPolicy} escolhe a mensagem descartada. Cópias duplicadas de um flooding
+ * também ocupam o nó até serem reconhecidas e descartadas.
+ * <p>
+ * Só a topologia é lida; caches e réplicas do {@code SimulationManager} não participam.
+ * Uma instância não é thread-safe.
+ */
+public class ConcurrentSearchSimulator {
+
+    /**
+     * Valor de {@link #setHoldTimeout(double)} que desliga a coalescência.
+     */
+    public static final double NO_COALESCING = 0;
+
+    /**
+     * Taxa de serviço de um nó sem limite: mensagens são processadas no instante da chegada.
+     */
+    public static final double UNLIMITED = Double.POSITIVE_INFINITY;
+
+    public static final int UNBOUNDED_QUEUE = Integer.MAX_VALUE;
+
+    private static final double LATENCY_SCALE = 1000;
+    private static final double MIN_PROXIMITY_LATENCY = 1e-6;
+
+    private final NetworkTopology topology;
+    private final IndexedGraph graph;
+    private final Map<String, BitSet> holders = new HashMap<>();
+    private Forwarding forwarding = Forwarding.FLOODING;
+    private double hopLatency = 1.0;
+    private double holdTimeout = NO_COALESCING;
+    private long seed = 1;
+    private double defaultServiceRate = UNLIMITED;
+    private final Map<String, Double> serviceRateOverrides = new HashMap<>();
+    private int queueCapacity = UNBOUNDED_QUEUE;
+    private DropPolicy dropPolicy = DropPolicy.TAIL_DROP;
+    private LinkModel linkModel;
+    private MessageSizeModel sizeModel = MessageSizeModel.DEFAULT;
+
+    // Estado de uma execução
+    private EventQueue events;
+    private CoalescingTable<Held> coalescing;
+    private SplittableRandom random;
+    private QueryStream stream;
+    private int ttl;
+    private long nextQueryId;
+    private Report report;
+    private double[] serviceRates;
+    private ArrayDeque<Delivery>[] queues;
+    private boolean[] busy;
+    private double[] linkFreeAt;
+
+    public ConcurrentSearchSimulator(NetworkTopology topology) {
+        this.topology = Objects.requireNonNull(topology, "Topology cannot be null");
+        this.graph = topology.getIndexedGraph();
+    }
+
+    public void setForwarding(Forwarding forwarding) {
+        this.forwarding = Objects.requireNonNull(forwarding, "Forwarding cannot be null");
+    }
+
+    /**
+     * Tempo simulado de um hop por enlace (padrão 1).
+     */
+    public void setHopLatency(double latency) {
+        if (!(latency > 0)) {
+            throw new IllegalArgumentException("Hop latency must be positive: " + latency);
+        }
+        this.hopLatency = latency;
+    }
+
+    /**
+     * Por quanto tempo um nó retém consultas repetidas esperando a resposta da primeira;
+     * {@link #NO_COALESCING} (padrão) encaminha todas.
+     */
+    public void setHoldTimeout(double timeout) {
+        if (!(timeout >= 0)) {
+            throw new IllegalArgumentException("Hold timeout must be >= 0: " + timeout);
+        }
+        this.holdTimeout = timeout;
+    }
+
+    public double getHoldTimeout() {
+        return holdTimeout;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Latência e banda por aresta; {@code null} (padrão) usa {@link #setHopLatency(double)} em todos os hops.
+     */
+    public void setLinkModel(LinkModel linkModel) {
+        this.linkModel = linkModel;
+    }
+
+    public void setMessageSizeModel(MessageSizeModel sizeModel) {
+        this.sizeModel = Objects.requireNonNull(sizeModel, "Size model cannot be null");
+    }
+
+    /**
+     * Mensagens por unidade de tempo que cada nó processa; {@link #UNLIMITED} (padrão) não enfileira.
+     */
+    public void setServiceRate(double rate) {
+        this.defaultServiceRate = checkRate(rate);
+    }
+
+    /**
+     * Taxa de serviço própria de um nó, no lugar da padrão.
+     */
+    public void setServiceRate(String nodeId, double rate) {
+        if (graph.indexOf(nodeId) < 0) {
+            throw new IllegalArgumentException("Nó inexistente: " + nodeId);
+        }
+        serviceRateOverrides.put(nodeId, checkRate(rate));
+    }
+
+    public void clearServiceRates() {
+        serviceRateOverrides.clear();
+    }
+
+    /**
+     * Mensagens que esperam na fila de entrada de um nó além da que está em atendimento.
+     */
+    public void setQueueCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must be >= 0: " + capacity);
+        }
+        this.queueCapacity = capacity;
+    }
+
+    public void setDropPolicy(DropPolicy policy) {
+        this.dropPolicy = Objects.requireNonNull(policy, "Drop policy cannot be null");
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Service rate must be positive: " + rate);
+        }
+        return rate;
+    }
+
+    /**
+     * Executa o fluxo inteiro até não restar mensagem em trânsito. As consultas são lidas uma a
+     * uma conforme o relógio alcança o instante de chegada delas, que deve ser não decrescente.
+     */
+    public Report run(QueryStream queries, int ttl) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException("TTL must be >= 0: " + ttl);
+        }
+        this.events = new EventQueue();
+        this.coalescing = holdTimeout > 0 ? new CoalescingTable<>() : null;
+        this.random = new SplittableRandom(seed);
+        this.stream = Objects.requireNonNull(queries, "Query stream cannot be null");
+        this.ttl = ttl;
+        this.nextQueryId = 0;
+        this.report = new Report();
+        this.serviceRates = new double[graph.size()];
+        Arrays.fill(serviceRates, defaultServiceRate);
+        serviceRateOverrides.forEach((nodeId, rate) -> serviceRates[graph.indexOf(nodeId)] = rate);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayDeque<Delivery>[] nodeQueues = new ArrayDeque[graph.size()];
+        this.queues = nodeQueues;
+        this.busy = new boolean[graph.size()];
+        this.linkFreeAt = linkModel != null ? new double[graph.edgeSlots()] : null;
+        try {
+            scheduleNextArrival();
+            while (events.runNext()) {
+                // Cada evento agenda os seguintes
+            }
+            report.simulatedTime = events.now();
+            return report;
+        } finally {
+            events = null;
+            coalescing = null;
+            stream = null;
+            queues = null;
+            busy = null;
+            linkFreeAt = null;
+        }
+    }
+
+    private void scheduleNextArrival() {
+        Query query = stream.next();
+        if (query == null) {
+            return;
+        }
+        int source = graph.indexOf(query.source());
+        if (source < 0) {
+            throw new IllegalArgumentException("Nó inexistente: " + query.source());
+        }
+        ActiveQuery active = new ActiveQuery(nextQueryId++, source, query.resource(), query.time());
+        events.schedule(Math.max(events.now(), query.time()), () -> {
+            report.queries++;
+            scheduleNextArrival();
+            active.parent.put(source, -1);
+            arrive(source, new Delivery(ttl, false, () -> receiveQuery(active, source, -1, ttl)));
+        });
+    }
+
+    /**
+     * Uma cópia da consulta chegou a {@code node} vinda de {@code from} (-1 na origem).
+     */
+    private void receiveQuery(ActiveQuery query, int node, int from, int remainingTtl) {
+        if (isHolder(node, query.resource)) {
+            report.holderHits++;
+            respond(query, node, ttl - remainingTtl);
+            return;
+        }
+        if (coalescing != null
+            && coalescing.hold(node, query.resource, query.id, new Held(query, from, remainingTtl))) {
+            report.heldQueries++;
+            return;
+        }
+        forward(query, node, from, remainingTtl);
+    }
+
+    private void forward(ActiveQuery query, int node, int from, int remainingTtl) {
+        if (remainingTtl <= 0) {
+            return;
+        }
+        if (coalescing != null) {
+            long entry = coalescing.open(node, query.resource, query.id);
+            if (entry >= 0) {
+                events.schedule(events.now() + holdTimeout, () -> release(node, query.resource, entry));
+            }
+        }
+
+        if (forwarding == Forwarding.FLOODING) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                if (graph.target(edge) != from) {
+                    sendQuery(query, node, edge, remainingTtl - 1);
+                }
+            }
+        } else {
+            int edge = forwarding == Forwarding.PROXIMITY_WALK && linkModel != null
+                ? nearbyEdge(node, from)
+                : randomEdge(node, from);
+            if (edge >= 0) {
+                sendQuery(query, node, edge, remainingTtl - 1);
+            }
+        }
+    }
+
+    /**
+     * Aresta uniforme entre as do nó, evitando voltar ao remetente quando há alternativa.
+     */
+    private int randomEdge(int node, int from) {
+        int degree = graph.degree(node);
+        if (degree == 0) {
+            return -1;
+        }
+        int offset = random.nextInt(degree);
+        if (graph.target(graph.edgeStart(node) + offset) == from && degree > 1) {
+            // Sorteia entre os demais vizinhos, sem voltar ao remetente
+            offset = (offset + 1 + random.nextInt(degree - 1)) % degree;
+        }
+        return graph.edgeStart(node) + offset;
+    }
+
+    /**
+     * Aresta sorteada com peso inversamente proporcional à latência, sem voltar ao remetente
+     * quando há alternativa.
+     */
+    private int nearbyEdge(int node, int from) {
+        double total = 0;
+        for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+            if (graph.target(edge) != from) {
+                total += proximityWeight(edge);
+            }
+        }
+        if (total == 0) {
+            return randomEdge(node, from);
+        }
+        double target = random.nextDouble() * total;
+        int chosen = -1;
+        for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+            if (graph.target(edge) != from) {
+                chosen = edge;
+                target -= proximityWeight(edge);
+                if (target < 0) {
+                    break;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    private double proximityWeight(int edge) {
+        return 1 / Math.max(linkModel.latency(edge), MIN_PROXIMITY_LATENCY);
+    }
+
+    private void sendQuery(ActiveQuery query, int from, int edge, int remainingTtl) {
+        int to = graph.target(edge);
+        // A consulta carrega o caminho da origem até o remetente
+        int bytes = sizeModel.sizeOf(Message.Type.QUERY, query.resource, ttl - remainingTtl);
+        report.queryMessages++;
+        report.queryBytes += bytes;
+        events.schedule(transmit(edge, bytes), () -> arrive(to, new Delivery(remainingTtl, false, () -> {
+            if (forwarding == Forwarding.FLOODING && query.parent.containsKey(to)) {
+                return;
+            }
+            query.parent.putIfAbsent(to, from);
+            receiveQuery(query, to, from, remainingTtl);
+        })));
+    }
+
+    /**
+     * Envia a resposta de {@code query} a partir de {@code node} pelo caminho reverso da consulta.
+     *
+     * @param depth hops da origem até {@code node}; a resposta carrega essa parte do caminho
+     */
+    private void respond(ActiveQuery query, int node, int depth) {
+        if (node == query.source) {
+            complete(query);
+            return;
+        }
+        int next = query.parent.get(node);
+        int bytes = sizeModel.sizeOf(Message.Type.RESPONSE, query.resource, depth + 1);
+        report.responseMessages++;
+        report.responseBytes += bytes;
+        int nextDepth = Math.max(0, depth - 1);
+        events.schedule(transmit(LinkModel.findEdge(graph, node, next), bytes), () -> arrive(next,
+            new Delivery(Integer.MAX_VALUE, true, () -> receiveResponse(query, next, nextDepth))));
+    }
+
+    /**
+     * @return instante em que a mensagem chega ao outro lado da aresta
+     */
+    private double transmit(int edge, int bytes) {
+        if (linkModel == null || edge < 0) {
+            report.linkDelay += hopLatency;
+            return events.now() + hopLatency;
+        }
+        double start = Math.max(events.now(), linkFreeAt[edge]);
+        double sent = start + linkModel.serializationDelay(edge, bytes);
+        linkFreeAt[edge] = sent;
+        double arrival = sent + linkModel.latency(edge);
+        report.linkDelay += arrival - events.now();
+        return arrival;
+    }
+
+    /**
+     * Uma mensagem chegou ao nó: é processada agora, entra em atendimento ou espera na fila.
+     */
+    private void arrive(int node, Delivery delivery) {
+        double rate = serviceRates[node];
+        if (rate == UNLIMITED) {
+            report.processedMessages++;
+            delivery.action().run();
+            return;
+        }
+        if (!busy[node]) {
+            busy[node] = true;
+            report.queueDepths.record(0);
+            serve(node, delivery, rate);
+            return;
+        }
+
+        ArrayDeque<Delivery> queue = queues[node];
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues[node] = queue;
+        }
+        report.queueDepths.record(queue.size());
+        if (queue.size() >= queueCapacity) {
+            Delivery victim = victim(queue, delivery);
+            report.recordDrop(graph.idOf(node), victim.response());
+            if (victim == delivery) {
+                return;
+            }
+            queue.remove(victim);
+        }
+        queue.add(delivery);
+    }
+
+    private void serve(int node, Delivery delivery, double rate) {
+        events.schedule(events.now() + 1 / rate, () -> {
+            report.processedMessages++;
+            delivery.action().run();
+            ArrayDeque<Delivery> queue = queues[node];
+            Delivery next = queue != null ? queue.poll() : null;
+            if (next != null) {
+                serve(node, next, rate);
+            } else {
+                busy[node] = false;
+            }
+        });
+    }
+
+    private Delivery victim(ArrayDeque<Delivery> queue, Delivery arriving) {
+        if (queue.isEmpty()) {
+            return arriving;
+        }
+        switch (dropPolicy) {
+            case DROP_HEAD:
+                return queue.peekFirst();
+            case DROP_LOWEST_TTL:
+                Delivery lowest = arriving;
+                for (Delivery waiting : queue) {
+                    if (waiting.ttl() < lowest.ttl()) {
+                        lowest = waiting;
+                    }
+                }
+                return lowest;
+            default:
+                return arriving;
+        }
+    }
+
+    private void receiveResponse(ActiveQuery query, int node, int depth) {
+        if (coalescing != null) {
+            List<Held> waiters = coalescing.resolve(node, query.resource);
+            for (Held held : waiters) {
+                report.coalescedResponses++;
+                respond(held.query(), node, ttl - held.ttl());
+            }
+        }
+        respond(query, node, depth);
+    }
+
+    /**
+     * Tempo de espera esgotado sem resposta: as consultas retidas seguem como se não houvesse coalescência.
+     */
+    private void release(int node, String resource, long entry) {
+        for (Held held : coalescing.expire(node, resource, entry)) {
+            report.releasedQueries++;
+            forward(held.query(), node, held.from(), held.ttl());
+        }
+    }
+
+    private void complete(ActiveQuery query) {
+        if (query.answered) {
+            return;
+        }
+        query.answered = true;
+        report.successes++;
+        report.latencies.record(Math.round((events.now() - query.arrival) * LATENCY_SCALE));
+    }
+
+    private boolean isHolder(int node, String resource) {
+        return holders.computeIfAbsent(resource, r -> {
+            BitSet owners = new BitSet(graph.size());
+            for (int i = 0; i < graph.size(); i++) {
+                if (topology.getNode(graph.idOf(i)).map(n -> n.hasResource(r)).orElse(false)) {
+                    owners.set(i);
+                }
+            }
+            return owners;
+        }).get(node);
+    }
+
+    private static final class ActiveQuery {
+        private final long id;
+        private final int source;
+        private final String resource;
+        private final double arrival;
+        // Primeiro remetente de cada nó alcançado: o caminho reverso das respostas
+        private final Map<Integer, Integer> parent = new HashMap<>();
+        private boolean answered;
+
+        private ActiveQuery(long id, int source, String resource, double arrival) {
+            this.id = id;
+            this.source = source;
+            this.resource = resource;
+            this.arrival = arrival;
+        }
+    }
+
+    /**
+     * Mensagem a ser processada por um nó. Respostas levam TTL máximo para ficarem por último
+     * em {@link DropPolicy#DROP_LOWEST_TTL}.
+     */
+    private record Delivery(int ttl, boolean response, Runnable action) { }
+
+    /**
+     * Consulta retida em um nó, com o que é preciso para encaminhá-la se a espera expirar.
+     */
+    private record Held(ActiveQuery query, int from, int ttl) { }
+
+    /**
+     * Totais de uma execução. Mensagens contam hops por enlace; a entrega local na origem não conta.
+     */
+    public static final class Report {
+        private long queries;
+        private long successes;
+        private long queryMessages;
+        private long responseMessages;
+        private long queryBytes;
+        private long responseBytes;
+        private double linkDelay;
+        private long holderHits;
+        private long heldQueries;
+        private long coalescedResponses;
+        private long releasedQueries;
+        private double simulatedTime;
+        private long processedMessages;
+        private long droppedQueries;
+        private long droppedResponses;
+        private final Map<String, Long> dropsByNode = new HashMap<>();
+        private final LogLinearHistogram latencies = new LogLinearHistogram();
+        private final LogLinearHistogram queueDepths = new LogLinearHistogram();
+
+        private void recordDrop(String nodeId, boolean response) {
+            if (response) {
+                droppedResponses++;
+            } else {
+                droppedQueries++;
+            }
+            dropsByNode.merge(nodeId, 1L, Long::sum);
+        }
+
+        public long getQueries() {
+            return queries;
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public double getSuccessRate() {
+            return queries == 0 ? 0 : (double) successes / queries;
+        }
+
+        public long getQueryMessages() {
+            return queryMessages;
+        }
+
+        public long getResponseMessages() {
+            return responseMessages;
+        }
+
+        public long getTotalMessages() {
+            return queryMessages + responseMessages;
+        }
+
+        public long getQueryBytes() {
+            return queryBytes;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        /**
+         * Tempo médio de uma mensagem num enlace, incluindo a espera por outras no mesmo sentido.
+         */
+        public double getMeanHopDelay() {
+            long messages = getTotalMessages();
+            return messages == 0 ? 0 : linkDelay / messages;
+        }
+
+        /**
+         * Bytes que atravessaram enlaces, pelo {@link MessageSizeModel} da execução.
+         */
+        public long getTotalBytes() {
+            return queryBytes + responseBytes;
+        }
+
+        /**
+         * Cópias da consulta que alcançaram um dono do recurso.
+         */
+        public long getHolderHits() {
+            return holderHits;
+        }
+
+        /**
+         * Consultas retidas em algum nó por coalescência.
+         */
+        public long getHeldQueries() {
+            return heldQueries;
+        }
+
+        /**
+         * Consultas retidas que receberam a resposta de outra consulta.
+         */
+        public long getCoalescedResponses() {
+            return coalescedResponses;
+        }
+
+        /**
+         * Consultas retidas encaminhadas porque a espera expirou.
+         */
+        public long getReleasedQueries() {
+            return releasedQueries;
+        }
+
+        /**
+         * Instante do último evento.
+         */
+        public double getSimulatedTime() {
+            return simulatedTime;
+        }
+
+        /**
+         * Latência média, em tempo simulado, entre a chegada da consulta e a primeira resposta na origem.
+         */
+        public double getMeanLatency() {
+            return latencies.getMean() / LATENCY_SCALE;
+        }
+
+        public double getLatencyPercentile(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / LATENCY_SCALE;
+        }
+
+        /**
+         * Mensagens atendidas pelos nós, inclusive cópias duplicadas descartadas no atendimento.
+         */
+        public long getProcessedMessages() {
+            return processedMessages;
+        }
+
+        public long getDroppedMessages() {
+            return droppedQueries + droppedResponses;
+        }
+
+        public long getDroppedQueries() {
+            return droppedQueries;
+        }
+
+        public long getDroppedResponses() {
+            return droppedResponses;
+        }
+
+        /**
+         * Descartes por nó de fila cheia; só aparecem nós que descartaram.
+         */
+        public Map<String, Long> getDropsByNode() {
+            return Collections.unmodifiableMap(dropsByNode);
+        }
+
+        /**
+         * Profundidade da fila vista por cada mensagem que chegou a um nó com taxa limitada.
+         */
+        public long getQueueDepthPercentile(double percentile) {
+            return queueDepths.getValueAtPercentile(percentile);
+        }
+
+        public long getMaxQueueDepth() {
+            return queueDepths.getTotalCount() == 0 ? 0 : queueDepths.getMax();
+        }
+
+        /**
+         * Mensagens atendidas por unidade de tempo simulado.
+         */
+        public double getThroughput() {
+            return simulatedTime > 0 ? processedMessages / simulatedTime : 0;
+        }
+
+        /**
+         * Consultas respondidas por unidade de tempo simulado, até a última mensagem.
+         */
+        public double getGoodput() {
+            return simulatedTime > 0 ? successes / simulatedTime : successes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Report[queries=%d, success=%.3f, messages=%d (query %d, response %d), "
+                    + "bytes=%d, held=%d, coalesced=%d, released=%d, dropped=%d, meanLatency=%.2f]",
+                queries, getSuccessRate(), getTotalMessages(), queryMessages, responseMessages, getTotalBytes(),
+                heldQueries, coalescedResponses, releasedQueries, getDroppedMessages(), getMeanLatency());
+        }
+    }
+}
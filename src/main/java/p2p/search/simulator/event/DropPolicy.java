@@ -0,0 +1,21 @@
+package p2p.search.simulator.event;
+
+/**
+ * Qual mensagem um nó descarta quando a fila de entrada está cheia.
+ */
+public enum DropPolicy {
+    /**
+     * Descarta a mensagem que acabou de chegar.
+     */
+    TAIL_DROP,
+    /**
+     * Descarta a mensagem que espera há mais tempo e enfileira a nova.
+     */
+    DROP_HEAD,
+    /**
+     * Descarta a consulta com menor TTL restante, entre as da fila e a que chegou: a que já
+     * andou mais e tem menos chance de alcançar um dono. Respostas só são descartadas quando
+     * não há consulta na disputa.
+     */
+    DROP_LOWEST_TTL
+}
@@ -0,0 +1,48 @@
+package p2p.search.simulator.event;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Agenda de eventos em tempo simulado. Eventos com o mesmo instante saem na ordem em que
+ * foram agendados, então uma execução com a mesma seed é sempre reproduzível.
+ */
+final class EventQueue {
+
+    private record Entry(double time, long sequence, Runnable action) { }
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(
+        Comparator.comparingDouble(Entry::time).thenComparingLong(Entry::sequence));
+    private long sequence;
+    private double now;
+
+    void schedule(double time, Runnable action) {
+        if (time < now) {
+            throw new IllegalArgumentException("Cannot schedule in the past: " + time + " < " + now);
+        }
+        heap.add(new Entry(time, sequence++, action));
+    }
+
+    /**
+     * Avança o relógio até o próximo evento e o executa.
+     *
+     * @return {@code false} se a agenda está vazia
+     */
+    boolean runNext() {
+        Entry entry = heap.poll();
+        if (entry == null) {
+            return false;
+        }
+        now = entry.time();
+        entry.action().run();
+        return true;
+    }
+
+    double now() {
+        return now;
+    }
+
+    int size() {
+        return heap.size();
+    }
+}
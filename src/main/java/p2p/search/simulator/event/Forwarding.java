@@ -0,0 +1,20 @@
+package p2p.search.simulator.event;
+
+/**
+ * Como um nó repassa uma consulta no {@link ConcurrentSearchSimulator}.
+ */
+public enum Forwarding {
+    /**
+     * Para todos os vizinhos exceto o remetente; cópias repetidas da consulta são descartadas.
+     */
+    FLOODING,
+    /**
+     * Para um vizinho aleatório, evitando voltar ao remetente; o walker para no primeiro dono.
+     */
+    RANDOM_WALK,
+    /**
+     * Walker que prefere vizinhos próximos: cada aresta é sorteada com peso inverso à latência
+     * do {@link p2p.search.simulator.link.LinkModel}. Sem modelo de enlaces, igual ao {@link #RANDOM_WALK}.
+     */
+    PROXIMITY_WALK
+}
@@ -0,0 +1,74 @@
+package p2p.search.simulator.event;
+
+import p2p.search.simulator.workload.QueryStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.function.DoubleFunction;
+
+/**
+ * Varredura de carga oferecida para planejamento de capacidade: a mesma simulação é executada
+ * com taxas de chegada crescentes e o ponto de colapso é a primeira taxa, depois do pico, em
+ * que a vazão útil (consultas respondidas por unidade de tempo) cai abaixo do pico.
+ */
+public final class LoadSweep {
+
+    /**
+     * Uma taxa de chegada e o relatório da execução com ela.
+     */
+    public record Point(double arrivalRate, ConcurrentSearchSimulator.Report report) {
+
+        public double goodput() {
+            return report.getGoodput();
+        }
+    }
+
+    private final List<Point> points;
+
+    private LoadSweep(List<Point> points) {
+        this.points = List.copyOf(points);
+    }
+
+    /**
+     * @param workload fluxo de consultas para uma taxa de chegada (consultas por unidade de tempo)
+     * @param rates taxas em ordem crescente
+     */
+    public static LoadSweep run(ConcurrentSearchSimulator simulator, DoubleFunction<QueryStream> workload,
+                                int ttl, double... rates) {
+        List<Point> points = new ArrayList<>();
+        double previous = 0;
+        for (double rate : rates) {
+            if (!(rate > previous)) {
+                throw new IllegalArgumentException("Rates must be positive and increasing: " + rate);
+            }
+            previous = rate;
+            points.add(new Point(rate, simulator.run(workload.apply(rate), ttl)));
+        }
+        return new LoadSweep(points);
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public double getPeakGoodput() {
+        return points.stream().mapToDouble(Point::goodput).max().orElse(0);
+    }
+
+    /**
+     * @param tolerance queda relativa em relação ao pico que caracteriza o colapso (ex.: 0.1)
+     * @return a taxa de chegada do colapso, ou vazio se a vazão útil nunca caiu tanto
+     */
+    public OptionalDouble getCollapseRate(double tolerance) {
+        double peak = 0;
+        for (Point point : points) {
+            double goodput = point.goodput();
+            if (goodput < peak * (1 - tolerance)) {
+                return OptionalDouble.of(point.arrivalRate());
+            }
+            peak = Math.max(peak, goodput);
+        }
+        return OptionalDouble.empty();
+    }
+}
@@ -0,0 +1,69 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de uma célula do grid: quantas repetições rodaram, se o IC convergiu e o resumo de cada métrica.
+ */
+public final class CellResult {
+
+    private final ParameterGrid.Point point;
+    private final Map<Metric, MetricSummary> summaries = new EnumMap<>(Metric.class);
+    private int trials;
+    private boolean converged;
+
+    CellResult(ParameterGrid.Point point) {
+        this.point = point;
+        for (Metric metric : Metric.values()) {
+            summaries.put(metric, new MetricSummary());
+        }
+    }
+
+    void add(SearchResult result) {
+        trials++;
+        for (Metric metric : Metric.values()) {
+            summaries.get(metric).add(metric.of(result));
+        }
+    }
+
+    void markConverged() {
+        converged = true;
+    }
+
+    public ParameterGrid.Point getPoint() {
+        return point;
+    }
+
+    public int getTrials() {
+        return trials;
+    }
+
+    /**
+     * Indica se a célula parou pelo critério de precisão, e não por {@code maxTrials}.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public MetricSummary getSummary(Metric metric) {
+        return summaries.get(metric);
+    }
+
+    public Map<Metric, MetricSummary> getSummaries() {
+        return Collections.unmodifiableMap(summaries);
+    }
+
+    public double getSuccessRate() {
+        return summaries.get(Metric.SUCCESS).getMean();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d trials%s, success=%.1f%%, messages=%s", point, trials,
+            converged ? "" : " (sem convergir)", getSuccessRate() * 100, summaries.get(Metric.MESSAGES));
+    }
+}
@@ -0,0 +1,224 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Varredura de um {@link ParameterGrid}: cada célula roda repetições independentes em paralelo,
+ * em lotes, e para assim que o IC de 95% da métrica de parada fica estreito o bastante
+ * (ou ao atingir {@code maxTrials}). As estatísticas são acumuladas na ordem das repetições,
+ * então o resultado não depende do paralelismo, desde que o {@link Trial} dependa só da seed.
+ */
+public final class Experiment {
+
+    private final ParameterGrid grid;
+    private final Trial trial;
+    private final int minTrials;
+    private final int maxTrials;
+    private final int batchSize;
+    private final int parallelism;
+    private final Metric stopMetric;
+    private final double relativeHalfWidth;
+    private final double absoluteHalfWidth;
+    private final long seed;
+
+    private Experiment(Builder builder) {
+        this.grid = builder.grid;
+        this.trial = builder.trial;
+        this.minTrials = builder.minTrials;
+        this.maxTrials = builder.maxTrials;
+        this.batchSize = builder.batchSize > 0 ? builder.batchSize : builder.parallelism;
+        this.parallelism = builder.parallelism;
+        this.stopMetric = builder.stopMetric;
+        this.relativeHalfWidth = builder.relativeHalfWidth;
+        this.absoluteHalfWidth = builder.absoluteHalfWidth;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(ParameterGrid grid, Trial trial) {
+        return new Builder(grid, trial);
+    }
+
+    public List<CellResult> run() {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "experiment-trial");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<ParameterGrid.Point> points = grid.points();
+            List<CellResult> results = new ArrayList<>(points.size());
+            for (int cell = 0; cell < points.size(); cell++) {
+                results.add(runCell(executor, points.get(cell), cell));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CellResult runCell(ExecutorService executor, ParameterGrid.Point point, int cell) {
+        CellResult result = new CellResult(point);
+        while (result.getTrials() < maxTrials) {
+            int first = result.getTrials();
+            int count = Math.min(batchSize, maxTrials - first);
+            List<Future<SearchResult>> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long trialSeed = trialSeed(cell, first + i);
+                batch.add(executor.submit(() -> trial.run(point, trialSeed)));
+            }
+            for (Future<SearchResult> future : batch) {
+                result.add(await(future));
+            }
+            if (result.getTrials() >= minTrials && precise(result.getSummary(stopMetric))) {
+                result.markConverged();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean precise(MetricSummary summary) {
+        double halfWidth = summary.getConfidenceHalfWidth();
+        if (halfWidth == 0) {
+            return true;
+        }
+        return halfWidth <= absoluteHalfWidth || halfWidth <= relativeHalfWidth * Math.abs(summary.getMean());
+    }
+
+    long trialSeed(int cell, int trialIndex) {
+        return mix(mix(seed + cell) + trialIndex);
+    }
+
+    // Finalizador do SplitMix64: seeds vizinhas viram streams sem correlação
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for trial", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Trial failed", e.getCause());
+        }
+    }
+
+    /**
+     * CSV com uma linha por célula: eixos, repetições, convergência e média, IC e quantis (até p99.9) de cada métrica.
+     */
+    public static String toCsv(List<CellResult> results) {
+        StringBuilder csv = new StringBuilder();
+        if (results.isEmpty()) {
+            return csv.toString();
+        }
+        List<String> axes = new ArrayList<>(results.get(0).getPoint().asMap().keySet());
+        csv.append(String.join(",", axes)).append(",trials,converged");
+        for (Metric metric : Metric.values()) {
+            String name = metric.name().toLowerCase(Locale.ROOT);
+            csv.append(',').append(name).append("_mean,").append(name).append("_ci95,")
+                .append(name).append("_p50,").append(name).append("_p90,").append(name).append("_p99,")
+                .append(name).append("_p999");
+        }
+        csv.append('\n');
+        for (CellResult result : results) {
+            for (String axis : axes) {
+                csv.append(result.getPoint().getString(axis)).append(',');
+            }
+            csv.append(result.getTrials()).append(',').append(result.isConverged());
+            for (Metric metric : Metric.values()) {
+                MetricSummary summary = result.getSummary(metric);
+                csv.append(String.format(Locale.ROOT, ",%.4f,%.4f,%.4f,%.4f,%.4f,%.4f", summary.getMean(),
+                    summary.getConfidenceHalfWidth(), summary.getP50(), summary.getP90(), summary.getP99(),
+                    summary.getP999()));
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    public static final class Builder {
+        private final ParameterGrid grid;
+        private final Trial trial;
+        private int minTrials = 10;
+        private int maxTrials = 1000;
+        private int batchSize;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private Metric stopMetric = Metric.MESSAGES;
+        private double relativeHalfWidth = 0.05;
+        private double absoluteHalfWidth = 0;
+        private long seed = 1;
+
+        private Builder(ParameterGrid grid, Trial trial) {
+            this.grid = Objects.requireNonNull(grid, "Grid cannot be null");
+            this.trial = Objects.requireNonNull(trial, "Trial cannot be null");
+        }
+
+        public Builder trials(int min, int max) {
+            if (min < 2 || max < min) {
+                throw new IllegalArgumentException("Expected 2 <= min <= max");
+            }
+            this.minTrials = min;
+            this.maxTrials = max;
+            return this;
+        }
+
+        /**
+         * Repetições submetidas de uma vez antes de reavaliar o critério de parada; o padrão é o paralelismo.
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be >= 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Para a célula quando a meia largura do IC de 95% da métrica fica abaixo de
+         * {@code relative * |média|}.
+         */
+        public Builder stopWhenRelativeHalfWidth(Metric metric, double relative) {
+            this.stopMetric = metric;
+            this.relativeHalfWidth = relative;
+            this.absoluteHalfWidth = 0;
+            return this;
+        }
+
+        /**
+         * Para a célula quando a meia largura do IC de 95% da métrica fica abaixo de {@code absolute}.
+         */
+        public Builder stopWhenHalfWidth(Metric metric, double absolute) {
+            this.stopMetric = metric;
+            this.absoluteHalfWidth = absolute;
+            this.relativeHalfWidth = 0;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Experiment build() {
+            return new Experiment(this);
+        }
+    }
+}
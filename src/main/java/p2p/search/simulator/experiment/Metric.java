@@ -0,0 +1,28 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Grandezas extraídas de cada busca de um experimento.
+ */
+public enum Metric {
+    /**
+     * 1 para sucesso e 0 para falha: a média é a taxa de sucesso.
+     */
+    SUCCESS(result -> result.isSuccess() ? 1 : 0),
+    MESSAGES(SearchResult::getTotalMessages),
+    HOPS(SearchResult::getHops),
+    VISITED_NODES(SearchResult::getVisitedNodes);
+
+    private final ToDoubleFunction<SearchResult> extractor;
+
+    Metric(ToDoubleFunction<SearchResult> extractor) {
+        this.extractor = extractor;
+    }
+
+    public double of(SearchResult result) {
+        return extractor.applyAsDouble(result);
+    }
+}
@@ -0,0 +1,62 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.metrics.LogLinearHistogram;
+
+/**
+ * Resumo online de uma métrica: média com IC de 95%, os quantis p50, p90 e p99 por P² e um
+ * {@link LogLinearHistogram} com a distribuição completa (p99.9 e exportação).
+ */
+public final class MetricSummary {
+
+    private final OnlineStatistics statistics = new OnlineStatistics();
+    private final P2Quantile p50 = new P2Quantile(0.5);
+    private final P2Quantile p90 = new P2Quantile(0.9);
+    private final P2Quantile p99 = new P2Quantile(0.99);
+    private final LogLinearHistogram histogram = new LogLinearHistogram();
+
+    void add(double value) {
+        statistics.add(value);
+        p50.add(value);
+        p90.add(value);
+        p99.add(value);
+        histogram.record(Math.max(0, Math.round(value)));
+    }
+
+    public OnlineStatistics getStatistics() {
+        return statistics;
+    }
+
+    public double getMean() {
+        return statistics.getMean();
+    }
+
+    public double getConfidenceHalfWidth() {
+        return statistics.getConfidenceHalfWidth();
+    }
+
+    public double getP50() {
+        return p50.getEstimate();
+    }
+
+    public double getP90() {
+        return p90.getEstimate();
+    }
+
+    public double getP99() {
+        return p99.getEstimate();
+    }
+
+    public double getP999() {
+        return histogram.getValueAtPercentile(99.9);
+    }
+
+    public LogLinearHistogram getHistogram() {
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, p50=%.1f, p90=%.1f, p99=%.1f, p99.9=%.1f", statistics,
+            getP50(), getP90(), getP99(), getP999());
+    }
+}
@@ -0,0 +1,98 @@
+package p2p.search.simulator.experiment;
+
+/**
+ * Média e variância em uma passada (Welford), com intervalo de confiança de 95% pela t de Student.
+ * Duas instâncias podem ser combinadas com {@link #merge(OnlineStatistics)} (Chan et al.).
+ */
+public final class OnlineStatistics {
+
+    // Quantis 0,975 da t de Student para 1..30 graus de liberdade
+    private static final double[] T_975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_975 = 1.959964;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(OnlineStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Variância amostral (divisor n - 1); NaN com menos de duas amostras.
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Meia largura do intervalo de confiança de 95% para a média; infinita com menos de duas amostras.
+     */
+    public double getConfidenceHalfWidth() {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return tQuantile975(count - 1) * Math.sqrt(getVariance() / count);
+    }
+
+    static double tQuantile975(long degreesOfFreedom) {
+        return degreesOfFreedom <= T_975.length ? T_975[(int) degreesOfFreedom - 1] : Z_975;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f ± %.3f (n=%d)", getMean(), getConfidenceHalfWidth(), count);
+    }
+}
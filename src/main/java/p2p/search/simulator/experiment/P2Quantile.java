@@ -0,0 +1,110 @@
+package p2p.search.simulator.experiment;
+
+import java.util.Arrays;
+
+/**
+ * Estimador P² de um quantil (Jain e Chlamtac, 1985): cinco marcadores, memória constante,
+ * sem guardar as amostras. Exato até a quinta amostra.
+ */
+public final class P2Quantile {
+
+    private final double p;
+    private final double[] heights = new double[5];
+    private final double[] positions = {1, 2, 3, 4, 5};
+    private final double[] desired;
+    private final double[] increments;
+    private long count;
+
+    public P2Quantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1)");
+        }
+        this.p = p;
+        this.desired = new double[] {1, 1 + 2 * p, 1 + 4 * p, 3 + 2 * p, 5};
+        this.increments = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    public void add(double value) {
+        if (count < 5) {
+            heights[(int) count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = Math.max(heights[4], value);
+            cell = 3;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                    heights[i] = candidate;
+                } else {
+                    heights[i] = linear(i, step);
+                }
+                positions[i] += step;
+            }
+        }
+    }
+
+    private double parabolic(int i, int step) {
+        double below = positions[i] - positions[i - 1];
+        double above = positions[i + 1] - positions[i];
+        double span = positions[i + 1] - positions[i - 1];
+        return heights[i] + step / span
+            * ((below + step) * (heights[i + 1] - heights[i]) / above
+            + (above - step) * (heights[i] - heights[i - 1]) / below);
+    }
+
+    private double linear(int i, int step) {
+        return heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+    }
+
+    public double getQuantile() {
+        return p;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimativa atual; com menos de cinco amostras usa o quantil exato das amostras vistas.
+     */
+    public double getEstimate() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] sorted = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.max(0, Math.ceil(p * count) - 1));
+            return sorted[index];
+        }
+        return heights[2];
+    }
+}
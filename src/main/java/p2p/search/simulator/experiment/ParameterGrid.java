@@ -0,0 +1,109 @@
+package p2p.search.simulator.experiment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Produto cartesiano de eixos nomeados (estratégia, TTL, grau, replicação, tamanho de cache...).
+ * A ordem dos pontos segue a ordem de declaração dos eixos, com o último variando mais rápido.
+ */
+public final class ParameterGrid {
+
+    public static final String STRATEGY = "strategy";
+    public static final String TTL = "ttl";
+    public static final String DEGREE = "degree";
+    public static final String REPLICATION = "replication";
+    public static final String CACHE_SIZE = "cacheSize";
+    public static final String NODES = "nodes";
+    public static final String TERMINATION = "termination";
+
+    private final Map<String, List<?>> axes = new LinkedHashMap<>();
+
+    public ParameterGrid axis(String name, List<?> values) {
+        Objects.requireNonNull(name, "Axis name cannot be null");
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Axis '" + name + "' has no values");
+        }
+        axes.put(name, List.copyOf(values));
+        return this;
+    }
+
+    public ParameterGrid axis(String name, Object... values) {
+        return axis(name, List.of(values));
+    }
+
+    public List<Point> points() {
+        List<Point> points = new ArrayList<>();
+        points.add(new Point(Map.of()));
+        for (Map.Entry<String, List<?>> axis : axes.entrySet()) {
+            List<Point> expanded = new ArrayList<>(points.size() * axis.getValue().size());
+            for (Point point : points) {
+                for (Object value : axis.getValue()) {
+                    Map<String, Object> values = new LinkedHashMap<>(point.values);
+                    values.put(axis.getKey(), value);
+                    expanded.add(new Point(values));
+                }
+            }
+            points = expanded;
+        }
+        return points;
+    }
+
+    /**
+     * Uma célula do grid: valor de cada eixo.
+     */
+    public static final class Point {
+        private final Map<String, Object> values;
+
+        Point(Map<String, Object> values) {
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        public Object get(String axis) {
+            Object value = values.get(axis);
+            if (value == null && !values.containsKey(axis)) {
+                throw new IllegalArgumentException("Unknown axis: " + axis);
+            }
+            return value;
+        }
+
+        public int getInt(String axis) {
+            return ((Number) get(axis)).intValue();
+        }
+
+        public int getInt(String axis, int defaultValue) {
+            return values.containsKey(axis) ? getInt(axis) : defaultValue;
+        }
+
+        public String getString(String axis) {
+            return String.valueOf(get(axis));
+        }
+
+        public String getString(String axis, String defaultValue) {
+            return values.containsKey(axis) ? getString(axis) : defaultValue;
+        }
+
+        public Map<String, Object> asMap() {
+            return values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Point other && values.equals(other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return values.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return values.toString();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.model.NetworkConfig;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Redes aleatórias para experimentos: anel (garante conectividade) mais cordas aleatórias até
+ * o grau médio pedido, e um catálogo de recursos {@code r0..rK-1} com réplicas em nós distintos.
+ */
+public final class RandomNetworks {
+
+    private RandomNetworks() {
+    }
+
+    public static String catalogResource(int index) {
+        return "r" + index;
+    }
+
+    /**
+     * @param degree grau médio desejado (mínimo 2, o do anel)
+     * @param replication réplicas de cada recurso do catálogo
+     */
+    public static NetworkConfig generate(int nodes, int degree, int catalogSize, int replication, long seed) {
+        if (nodes < 3) {
+            throw new IllegalArgumentException("nodes must be >= 3");
+        }
+        if (replication < 1 || replication > nodes) {
+            throw new IllegalArgumentException("replication must be in [1, nodes]");
+        }
+        Random random = new Random(seed);
+
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (int i = 0; i < nodes; i++) {
+            resources.put(id(i), new ArrayList<>(List.of("f" + i)));
+        }
+        for (int r = 0; r < catalogSize; r++) {
+            Set<Integer> holders = new HashSet<>();
+            while (holders.size() < replication) {
+                holders.add(random.nextInt(nodes));
+            }
+            for (int holder : holders) {
+                resources.get(id(holder)).add(catalogResource(r));
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<List<String>> edges = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            addEdge(edges, seen, i, (i + 1) % nodes);
+        }
+        long chords = (long) nodes * Math.max(0, degree - 2) / 2;
+        long maxEdges = (long) nodes * (nodes - 1) / 2;
+        while (chords > 0 && edges.size() < maxEdges) {
+            int a = random.nextInt(nodes);
+            int b = random.nextInt(nodes);
+            if (a != b && addEdge(edges, seen, a, b)) {
+                chords--;
+            }
+        }
+
+        NetworkConfig config = new NetworkConfig();
+        config.setNumNodes(nodes);
+        config.setMinNeighbors(1);
+        config.setMaxNeighbors(nodes - 1);
+        config.setResources(resources);
+        config.setEdges(edges);
+        return config;
+    }
+
+    private static boolean addEdge(List<List<String>> edges, Set<Long> seen, int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        if (!seen.add(((long) low << 32) | high)) {
+            return false;
+        }
+        edges.add(List.of(id(low), id(high)));
+        return true;
+    }
+
+    private static String id(int index) {
+        return "p" + index;
+    }
+}
@@ -0,0 +1,100 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.metrics.SimulationMetrics;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.TerminationMode;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.strategy.InformedRandomWalkStrategy;
+import p2p.search.simulator.strategy.RandomWalkStrategy;
+import p2p.search.simulator.strategy.SearchStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Repetição padrão: gera uma rede com {@link RandomNetworks} a partir da seed, faz algumas
+ * buscas de aquecimento (que enchem os caches) e mede uma busca de origem e recurso aleatórios.
+ * A mesma seed alimenta o {@link SimulationManager#setSeed(long)}, então os walks também são
+ * reproduzíveis.
+ *
+ * <p>Eixos lidos do ponto: {@link ParameterGrid#STRATEGY} (nome ou {@code Supplier<SearchStrategy>}),
+ * {@link ParameterGrid#TTL}, e opcionalmente {@link ParameterGrid#NODES}, {@link ParameterGrid#DEGREE},
+ * {@link ParameterGrid#REPLICATION}, {@link ParameterGrid#CACHE_SIZE} (0 = sem limite) e
+ * {@link ParameterGrid#TERMINATION} (nome de um {@link TerminationMode}).</p>
+ */
+public final class SearchTrial implements Trial {
+
+    private final int catalogSize;
+    private final int warmupQueries;
+    private final SimulationMetrics metrics;
+
+    public SearchTrial() {
+        this(10, 0);
+    }
+
+    public SearchTrial(int catalogSize, int warmupQueries) {
+        this(catalogSize, warmupQueries, null);
+    }
+
+    /**
+     * @param metrics contadores alimentados por todas as repetições (por exemplo os de um
+     *                {@link p2p.search.simulator.metrics.MetricsServer}); pode ser {@code null}
+     */
+    public SearchTrial(int catalogSize, int warmupQueries, SimulationMetrics metrics) {
+        this.catalogSize = catalogSize;
+        this.warmupQueries = warmupQueries;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SearchResult run(ParameterGrid.Point point, long seed) {
+        int nodes = point.getInt(ParameterGrid.NODES, 200);
+        int ttl = point.getInt(ParameterGrid.TTL);
+        NetworkTopology topology = new NetworkTopology(RandomNetworks.generate(nodes,
+            point.getInt(ParameterGrid.DEGREE, 4), catalogSize,
+            point.getInt(ParameterGrid.REPLICATION, 1), seed));
+        int cacheSize = point.getInt(ParameterGrid.CACHE_SIZE, 0);
+        for (Node node : topology.getAllNodes()) {
+            node.setCacheCapacity(cacheSize);
+        }
+
+        Supplier<SearchStrategy> strategy = strategy(point.get(ParameterGrid.STRATEGY));
+        try (SimulationManager simulationManager = new SimulationManager(topology)) {
+            simulationManager.setMetrics(metrics);
+            simulationManager.setSeed(seed);
+            simulationManager.setTerminationMode(TerminationMode.valueOf(
+                point.getString(ParameterGrid.TERMINATION, TerminationMode.ORACLE.name()).toUpperCase(Locale.ROOT)));
+            Random random = new Random(~seed);
+            for (int i = 0; i < warmupQueries; i++) {
+                simulationManager.runSearch(randomSource(random, nodes),
+                    RandomNetworks.catalogResource(random.nextInt(catalogSize)), ttl, strategy.get());
+            }
+            return simulationManager.runSearch(randomSource(random, nodes),
+                RandomNetworks.catalogResource(random.nextInt(catalogSize)), ttl, strategy.get());
+        }
+    }
+
+    private static String randomSource(Random random, int nodes) {
+        return "p" + random.nextInt(nodes);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<SearchStrategy> strategy(Object value) {
+        if (value instanceof Supplier<?> supplier) {
+            return (Supplier<SearchStrategy>) supplier;
+        }
+        String name = String.valueOf(value).toLowerCase(Locale.ROOT).replace(" ", "-");
+        return switch (name) {
+            case "flooding" -> FloodingStrategy::new;
+            case "random-walk", "randomwalk" -> RandomWalkStrategy::new;
+            case "informed-flooding" -> InformedFloodingStrategy::new;
+            case "informed-random-walk", "informedrandomwalk" -> InformedRandomWalkStrategy::new;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + value);
+        };
+    }
+}
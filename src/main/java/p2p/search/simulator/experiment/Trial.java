@@ -0,0 +1,13 @@
+package p2p.search.simulator.experiment;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+/**
+ * Uma repetição independente de um ponto do grid. Deve depender só dos parâmetros e da seed:
+ * repetições rodam em paralelo, cada uma em sua própria thread.
+ */
+@FunctionalInterface
+public interface Trial {
+
+    SearchResult run(ParameterGrid.Point point, long seed);
+}
@@ -0,0 +1,43 @@
+package p2p.search.simulator.link;
+
+import p2p.search.simulator.topology.IndexedGraph;
+
+/**
+ * Enlaces cuja latência é a do {@link LatencySpace} entre as pontas, calculada a cada consulta.
+ * Guarda só a origem de cada aresta, já que o {@link IndexedGraph} indexa pelo destino.
+ */
+final class CoordinateLinks implements LinkModel {
+
+    private final IndexedGraph graph;
+    private final LatencySpace space;
+    private final int[] sources;
+    private final double bandwidth;
+
+    CoordinateLinks(IndexedGraph graph, LatencySpace space, double bandwidth) {
+        if (space.size() != graph.size()) {
+            throw new IllegalArgumentException("Latency space has " + space.size() + " nodes, graph has " + graph.size());
+        }
+        if (!(bandwidth > 0)) {
+            throw new IllegalArgumentException("Bandwidth must be positive: " + bandwidth);
+        }
+        this.graph = graph;
+        this.space = space;
+        this.bandwidth = bandwidth;
+        this.sources = new int[graph.edgeSlots()];
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                sources[edge] = node;
+            }
+        }
+    }
+
+    @Override
+    public double latency(int edge) {
+        return space.latency(sources[edge], graph.target(edge));
+    }
+
+    @Override
+    public double bandwidth(int edge) {
+        return bandwidth;
+    }
+}
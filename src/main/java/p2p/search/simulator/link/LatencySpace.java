@@ -0,0 +1,142 @@
+package p2p.search.simulator.link;
+
+import p2p.search.simulator.topology.IndexedGraph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Posições dos nós num espaço de latência (coordenadas de rede, como no Vivaldi): a latência
+ * entre dois nós é a distância euclidiana mais a "altura" de cada um, que modela o atraso do
+ * enlace de acesso e não obedece à geometria. Coordenadas e alturas ficam em arrays primitivos
+ * indexados pelo {@link IndexedGraph}; distâncias são calculadas sob demanda, sem matriz N×N.
+ */
+public final class LatencySpace {
+
+    private final int dimensions;
+    private final double[] coordinates;
+    private final double[] heights;
+
+    private LatencySpace(int dimensions, double[] coordinates, double[] heights) {
+        this.dimensions = dimensions;
+        this.coordinates = coordinates;
+        this.heights = heights;
+    }
+
+    /**
+     * Pontos uniformes num hipercubo de lado {@code extent}, com alturas exponenciais de média {@code jitter}.
+     */
+    public static LatencySpace synthetic(IndexedGraph graph, int dimensions, double extent, double jitter, long seed) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("dimensions must be >= 1");
+        }
+        if (!(extent > 0) || !(jitter >= 0)) {
+            throw new IllegalArgumentException("extent must be > 0 and jitter >= 0");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] coordinates = new double[graph.size() * dimensions];
+        double[] heights = new double[graph.size()];
+        for (int node = 0; node < graph.size(); node++) {
+            for (int axis = 0; axis < dimensions; axis++) {
+                coordinates[node * dimensions + axis] = extent * random.nextDouble();
+            }
+            heights[node] = jitter > 0 ? -jitter * Math.log(1 - random.nextDouble()) : 0;
+        }
+        return new LatencySpace(dimensions, coordinates, heights);
+    }
+
+    /**
+     * Lê um arquivo com uma linha por nó: {@code id x1 x2 ... xd}, separados por espaço ou vírgula.
+     * Todas as linhas têm a mesma dimensão; alturas são zero. Linhas vazias e iniciadas por
+     * {@code #} são ignoradas.
+     *
+     * @throws IllegalArgumentException se uma linha é inválida ou falta algum nó do grafo
+     */
+    public static LatencySpace load(Path file, IndexedGraph graph) throws IOException {
+        double[] coordinates = null;
+        boolean[] seen = new boolean[graph.size()];
+        int dimensions = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("[\\s,]+");
+                int node = graph.indexOf(fields[0]);
+                if (node < 0 || fields.length < 2 || (dimensions > 0 && fields.length - 1 != dimensions)) {
+                    throw new IllegalArgumentException("Linha " + lineNumber + " inválida nas coordenadas: " + line);
+                }
+                if (coordinates == null) {
+                    dimensions = fields.length - 1;
+                    coordinates = new double[graph.size() * dimensions];
+                }
+                try {
+                    for (int axis = 0; axis < dimensions; axis++) {
+                        coordinates[node * dimensions + axis] = Double.parseDouble(fields[axis + 1]);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Linha " + lineNumber + " inválida nas coordenadas: " + line, e);
+                }
+                seen[node] = true;
+            }
+        }
+        for (int node = 0; node < seen.length; node++) {
+            if (!seen[node]) {
+                throw new IllegalArgumentException("Nó sem coordenadas: " + graph.idOf(node));
+            }
+        }
+        return new LatencySpace(dimensions, coordinates, new double[graph.size()]);
+    }
+
+    public double distance(int from, int to) {
+        double sum = 0;
+        int a = from * dimensions;
+        int b = to * dimensions;
+        for (int axis = 0; axis < dimensions; axis++) {
+            double delta = coordinates[a + axis] - coordinates[b + axis];
+            sum += delta * delta;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Latência de ida entre dois nós distintos; 0 para o próprio nó.
+     */
+    public double latency(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        return distance(from, to) + heights[from] + heights[to];
+    }
+
+    public double coordinate(int node, int axis) {
+        return coordinates[node * dimensions + axis];
+    }
+
+    public double height(int node) {
+        return heights[node];
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return heights.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencySpace[nodes=%d, dimensions=%d, maxHeight=%.2f]",
+            size(), dimensions, Arrays.stream(heights).max().orElse(0));
+    }
+}
@@ -0,0 +1,142 @@
+package p2p.search.simulator.link;
+
+import p2p.search.simulator.model.LinkConfig;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.topology.IndexedGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Custo de cada enlace, indexado pela posição da aresta no {@link IndexedGraph}: atraso de
+ * propagação e banda. Uma mensagem de {@code b} bytes leva {@code b / banda} para ser
+ * serializada no enlace e mais a latência para chegar ao outro lado.
+ */
+public interface LinkModel {
+
+    /**
+     * Atraso de propagação da aresta, em unidades de tempo da simulação.
+     */
+    double latency(int edge);
+
+    /**
+     * Bytes por unidade de tempo; {@link Double#POSITIVE_INFINITY} serializa instantaneamente.
+     */
+    double bandwidth(int edge);
+
+    default double serializationDelay(int edge, int bytes) {
+        return bytes / bandwidth(edge);
+    }
+
+    /**
+     * Tempo de uma mensagem isolada no enlace, sem disputa com outras.
+     */
+    default double delay(int edge, int bytes) {
+        return latency(edge) + serializationDelay(edge, bytes);
+    }
+
+    static LinkModel uniform(IndexedGraph graph, double latency, double bandwidth) {
+        return sampled(graph, ValueDistribution.constant(latency), ValueDistribution.constant(bandwidth), 0);
+    }
+
+    /**
+     * Sorteia latência e banda de cada aresta; os dois sentidos de uma aresta recebem os mesmos valores.
+     */
+    static LinkModel sampled(IndexedGraph graph, ValueDistribution latency, ValueDistribution bandwidth, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        EdgeTable table = new EdgeTable(graph.edgeSlots());
+        for (int edge = 0; edge < graph.edgeSlots(); edge++) {
+            int reverse = graph.reverseEdge(edge);
+            if (reverse >= 0 && reverse < edge) {
+                table.set(edge, table.latency(reverse), table.bandwidth(reverse));
+            } else {
+                table.set(edge, latency.sample(random), bandwidth.sample(random));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Enlaces da seção {@code links} da configuração; arestas sem entrada usam os valores padrão.
+     *
+     * @throws IllegalArgumentException se um enlace não corresponde a uma aresta da topologia
+     */
+    static LinkModel fromConfig(IndexedGraph graph, NetworkConfig config, double defaultLatency,
+                                double defaultBandwidth) {
+        EdgeTable table = new EdgeTable(graph.edgeSlots());
+        for (int edge = 0; edge < graph.edgeSlots(); edge++) {
+            table.set(edge, defaultLatency, defaultBandwidth);
+        }
+        if (config.getLinks() == null) {
+            return table;
+        }
+        for (LinkConfig link : config.getLinks()) {
+            int edge = findEdge(graph, graph.indexOf(link.getFrom()), graph.indexOf(link.getTo()));
+            if (edge < 0) {
+                throw new IllegalArgumentException("Enlace sem aresta na topologia: " + link.getFrom()
+                    + " -> " + link.getTo());
+            }
+            table.set(edge, link.getLatency(), link.getBandwidth());
+            int reverse = graph.reverseEdge(edge);
+            if (reverse >= 0) {
+                table.set(reverse, link.getLatency(), link.getBandwidth());
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Latência de cada aresta derivada da distância entre as pontas no espaço de coordenadas.
+     */
+    static LinkModel fromCoordinates(IndexedGraph graph, LatencySpace space, double bandwidth) {
+        return new CoordinateLinks(graph, space, bandwidth);
+    }
+
+    /**
+     * @return a posição da aresta {@code from -> to}, ou -1 se não existe
+     */
+    static int findEdge(IndexedGraph graph, int from, int to) {
+        if (from < 0 || to < 0) {
+            return -1;
+        }
+        for (int edge = graph.edgeStart(from); edge < graph.edgeEnd(from); edge++) {
+            if (graph.target(edge) == to) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Latência e banda em arrays primitivos, uma posição por aresta.
+     */
+    final class EdgeTable implements LinkModel {
+        private final double[] latencies;
+        private final double[] bandwidths;
+
+        private EdgeTable(int edges) {
+            this.latencies = new double[edges];
+            this.bandwidths = new double[edges];
+            Arrays.fill(bandwidths, Double.POSITIVE_INFINITY);
+        }
+
+        private void set(int edge, double latency, double bandwidth) {
+            if (!(latency >= 0) || !(bandwidth > 0)) {
+                throw new IllegalArgumentException(
+                    "Link needs latency >= 0 and bandwidth > 0: " + latency + ", " + bandwidth);
+            }
+            latencies[edge] = latency;
+            bandwidths[edge] = bandwidth;
+        }
+
+        @Override
+        public double latency(int edge) {
+            return latencies[edge];
+        }
+
+        @Override
+        public double bandwidth(int edge) {
+            return bandwidths[edge];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package p2p.search.simulator.link;
+
+import p2p.search.simulator.model.Message;
+import p2p.search.simulator.model.MessagePath;
+
+/**
+ * Tamanho em bytes de uma mensagem no fio: cabeçalho fixo, nome do recurso terminado em zero
+ * e uma entrada por nó do caminho carregado (o {@code pathHistory} cresce a cada hop da
+ * consulta e a resposta carrega o que falta percorrer). Respostas levam ainda o endereço do dono.
+ */
+public final class MessageSizeModel {
+
+    /**
+     * Cabeçalho de descritor do Gnutella (23 bytes) e endereços IPv4 com porta (6 bytes).
+     */
+    public static final MessageSizeModel DEFAULT = new MessageSizeModel(23, 6, 6);
+
+    private final int headerBytes;
+    private final int pathEntryBytes;
+    private final int responseBytes;
+
+    public MessageSizeModel(int headerBytes, int pathEntryBytes, int responseBytes) {
+        if (headerBytes < 0 || pathEntryBytes < 0 || responseBytes < 0) {
+            throw new IllegalArgumentException("Sizes must be >= 0");
+        }
+        this.headerBytes = headerBytes;
+        this.pathEntryBytes = pathEntryBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    public int sizeOf(Message.Type type, String resource, int pathLength) {
+        int size = headerBytes + utf8Length(resource) + 1 + pathLength * pathEntryBytes;
+        if (type == Message.Type.RESPONSE) {
+            size += responseBytes;
+        }
+        return size;
+    }
+
+    public int sizeOf(Message message) {
+        return sizeOf(message.getType(), message.getResource(), MessagePath.lengthOf(message.getPath()));
+    }
+
+    public int getHeaderBytes() {
+        return headerBytes;
+    }
+
+    public int getPathEntryBytes() {
+        return pathEntryBytes;
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
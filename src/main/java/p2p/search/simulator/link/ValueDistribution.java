@@ -0,0 +1,40 @@
+package p2p.search.simulator.link;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribuição de onde são sorteados os parâmetros de cada enlace.
+ */
+@FunctionalInterface
+public interface ValueDistribution {
+
+    double sample(RandomGenerator random);
+
+    static ValueDistribution constant(double value) {
+        return random -> value;
+    }
+
+    static ValueDistribution uniform(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("min must be <= max");
+        }
+        return random -> min + (max - min) * random.nextDouble();
+    }
+
+    static ValueDistribution exponential(double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException("mean must be > 0");
+        }
+        return random -> -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * Log-normal com a mediana dada: cauda longa típica de RTTs e de banda de acesso.
+     */
+    static ValueDistribution logNormal(double median, double sigma) {
+        if (median <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("median must be > 0 and sigma >= 0");
+        }
+        return random -> median * Math.exp(sigma * random.nextGaussian());
+    }
+}
@@ -0,0 +1,262 @@
+package p2p.search.simulator.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores inteiros não negativos com buckets log-lineares, no estilo do HdrHistogram:
+ * valores abaixo de {@code 2^precisionBits} têm bucket próprio e, acima disso, cada potência de dois
+ * é dividida em {@code 2^(precisionBits-1)} buckets, com erro relativo máximo de
+ * {@code 2^-(precisionBits-1)}. O registro é lock-free e histogramas com o mesmo layout podem
+ * ser combinados com {@link #add(LogLinearHistogram)}.
+ */
+public final class LogLinearHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 8;
+    public static final long DEFAULT_HIGHEST_VALUE = 1L << 40;
+
+    private final int precisionBits;
+    private final long highestTrackableValue;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public LogLinearHistogram() {
+        this(DEFAULT_HIGHEST_VALUE, DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param highestTrackableValue maior valor aceito por {@link #record(long)}
+     * @param precisionBits bits de sub-bucket (2 a 16); 8 dá erro relativo abaixo de 1%
+     */
+    public LogLinearHistogram(long highestTrackableValue, int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be in [2, 16]");
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("highestTrackableValue must be >= 2");
+        }
+        this.precisionBits = precisionBits;
+        this.highestTrackableValue = highestTrackableValue;
+        this.subBucketCount = 1 << precisionBits;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+    }
+
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    public void record(long value, long count) {
+        if (value < 0 || value > highestTrackableValue) {
+            throw new IllegalArgumentException(
+                "Value " + value + " outside [0, " + highestTrackableValue + "]");
+        }
+        counts.addAndGet(indexOf(value), count);
+        totalCount.add(count);
+        totalSum.add(value * count);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Soma as contagens de {@code other} neste histograma.
+     */
+    public void add(LogLinearHistogram other) {
+        if (other.precisionBits != precisionBits || other.counts.length() != counts.length()) {
+            throw new IllegalArgumentException("Histograms have different bucket layouts");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalSum.add(other.totalSum.sum());
+        if (other.getTotalCount() > 0) {
+            min.accumulateAndGet(other.min.get(), Math::min);
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+    }
+
+    public LogLinearHistogram copy() {
+        LogLinearHistogram copy = new LogLinearHistogram(highestTrackableValue, precisionBits);
+        copy.add(this);
+        return copy;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (precisionBits - 1);
+        int subBucket = (int) (value >>> shift);
+        return subBucketCount + (shift - 1) * subBucketHalfCount + (subBucket - subBucketHalfCount);
+    }
+
+    long lowestValueAt(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int offset = index - subBucketCount;
+        int shift = offset / subBucketHalfCount + 1;
+        long subBucket = subBucketHalfCount + offset % subBucketHalfCount;
+        return subBucket << shift;
+    }
+
+    long highestValueAt(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index - subBucketCount) / subBucketHalfCount + 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMin() {
+        return getTotalCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return getTotalCount() == 0 ? 0 : max.get();
+    }
+
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? Double.NaN : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Desvio padrão estimado pelos pontos médios dos buckets.
+     */
+    public double getStandardDeviation() {
+        long count = getTotalCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = getMean();
+        double squares = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long bucketCount = counts.get(i);
+            if (bucketCount != 0) {
+                double deviation = middleValueAt(i) - mean;
+                squares += deviation * deviation * bucketCount;
+            }
+        }
+        return Math.sqrt(squares / count);
+    }
+
+    private double middleValueAt(int index) {
+        return (lowestValueAt(index) + highestValueAt(index)) / 2.0;
+    }
+
+    /**
+     * Menor valor v tal que {@code percentile}% das amostras são ≤ v (maior valor equivalente do
+     * bucket, limitado ao máximo registrado).
+     *
+     * @param percentile de 0 a 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getTotalCount();
+        if (count == 0) {
+            return 0;
+        }
+        double clamped = Math.min(100, Math.max(0, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Número de amostras com valor no mesmo bucket de {@code value} ou abaixo.
+     */
+    public long getCountAtOrBelow(long value) {
+        int last = indexOf(Math.min(value, highestTrackableValue));
+        long seen = 0;
+        for (int i = 0; i <= last; i++) {
+            seen += counts.get(i);
+        }
+        return seen;
+    }
+
+    /**
+     * Exporta a distribuição no formato de percentis do HdrHistogram
+     * ({@code outputPercentileDistribution}), legível pelo HistogramLogAnalyzer e plotters.
+     *
+     * @param ticksPerHalfDistance linhas por metade da distância até 100%
+     * @param valueScale divisor aplicado aos valores na saída
+     */
+    public void exportPercentiles(Appendable out, int ticksPerHalfDistance, double valueScale) {
+        try {
+            out.append(String.format(Locale.ROOT, "%12s %14s %10s %14s%n%n",
+                "Value", "Percentile", "TotalCount", "1/(1-Percentile)"));
+            long count = getTotalCount();
+            if (count > 0) {
+                double percentile = 0;
+                while (true) {
+                    long value = getValueAtPercentile(percentile);
+                    long cumulative = getCountAtOrBelow(value);
+                    double fraction = percentile / 100;
+                    if (cumulative >= count || percentile >= 100) {
+                        out.append(String.format(Locale.ROOT, "%12.3f %1.12f %10d%n",
+                            getMax() / valueScale, 1.0, count));
+                        break;
+                    }
+                    out.append(String.format(Locale.ROOT, "%12.3f %1.12f %10d %14.2f%n",
+                        value / valueScale, fraction, cumulative, 1 / (1 - fraction)));
+                    double halfDistances = Math.floor(Math.log(100 / (100 - percentile)) / Math.log(2)) + 1;
+                    percentile += 100 / (ticksPerHalfDistance * Math.pow(2, halfDistances));
+                }
+            }
+            out.append(String.format(Locale.ROOT, "#[Mean    = %12.3f, StdDeviation   = %12.3f]%n",
+                getMean() / valueScale, getStandardDeviation() / valueScale));
+            out.append(String.format(Locale.ROOT, "#[Max     = %12.3f, Total count    = %12d]%n",
+                getMax() / valueScale, count));
+            out.append(String.format(Locale.ROOT, "#[Buckets = %12d, SubBuckets     = %12d]%n",
+                counts.length(), subBucketCount));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String exportPercentiles() {
+        StringBuilder out = new StringBuilder();
+        exportPercentiles(out, 5, 1.0);
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d, p50=%d, p90=%d, p99=%d, p99.9=%d, max=%d",
+            getTotalCount(), getValueAtPercentile(50), getValueAtPercentile(90),
+            getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+    }
+}
@@ -0,0 +1,131 @@
+package p2p.search.simulator.metrics;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribuições das buscas de várias execuções: um {@link LogLinearHistogram} por grandeza.
+ * Pode ser alimentado por várias threads e combinado com {@link #add(SearchHistograms)}.
+ */
+public final class SearchHistograms {
+
+    /**
+     * Grandezas registradas de cada {@link SearchResult}.
+     */
+    public enum Measure {
+        HOPS("Hops"),
+        MESSAGES("Mensagens"),
+        VISITED_NODES("Nós Visitados"),
+        /**
+         * Latência simulada: passos de simulação (entregas) até o primeiro hit. Só as buscas com
+         * hit entram nesta distribuição; o tempo de parede da busca não é registrado.
+         */
+        LATENCY_STEPS("Latência (passos)");
+
+        private final String label;
+
+        Measure(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        long of(SearchResult result) {
+            return switch (this) {
+                case HOPS -> result.getHops();
+                case MESSAGES -> result.getTotalMessages();
+                case VISITED_NODES -> result.getVisitedNodes();
+                case LATENCY_STEPS -> result.getHits().get(0).arrivalStep();
+            };
+        }
+
+        boolean appliesTo(SearchResult result) {
+            return this != LATENCY_STEPS || !result.getHits().isEmpty();
+        }
+    }
+
+    /**
+     * Percentis mostrados nos relatórios.
+     */
+    public static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Measure, LogLinearHistogram> histograms = new EnumMap<>(Measure.class);
+    private final LongAdder successes = new LongAdder();
+
+    public SearchHistograms() {
+        for (Measure measure : Measure.values()) {
+            histograms.put(measure, new LogLinearHistogram());
+        }
+    }
+
+    public void record(SearchResult result) {
+        for (Measure measure : Measure.values()) {
+            if (measure.appliesTo(result)) {
+                histograms.get(measure).record(Math.max(0, measure.of(result)));
+            }
+        }
+        if (result.isSuccess()) {
+            successes.increment();
+        }
+    }
+
+    public void add(SearchHistograms other) {
+        for (Measure measure : Measure.values()) {
+            histograms.get(measure).add(other.histograms.get(measure));
+        }
+        successes.add(other.successes.sum());
+    }
+
+    public void reset() {
+        histograms.values().forEach(LogLinearHistogram::reset);
+        successes.reset();
+    }
+
+    public LogLinearHistogram get(Measure measure) {
+        return histograms.get(measure);
+    }
+
+    public long getCount() {
+        return histograms.get(Measure.MESSAGES).getTotalCount();
+    }
+
+    public double getSuccessRate() {
+        long count = getCount();
+        return count == 0 ? Double.NaN : (double) successes.sum() / count;
+    }
+
+    /**
+     * Uma linha por grandeza com média e os percentis de {@link #REPORTED_PERCENTILES}.
+     */
+    public List<String> reportLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Execuções: %d, Taxa de Sucesso: %.1f%%",
+            getCount(), getSuccessRate() * 100));
+        for (Measure measure : Measure.values()) {
+            LogLinearHistogram histogram = histograms.get(measure);
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%s: média=%.2f",
+                measure.getLabel(), histogram.getMean()));
+            for (double percentile : REPORTED_PERCENTILES) {
+                line.append(String.format(Locale.ROOT, ", p%s=%d",
+                    formatPercentile(percentile), histogram.getValueAtPercentile(percentile)));
+            }
+            line.append(", max=").append(histogram.getMax());
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile)
+            ? String.valueOf((long) percentile)
+            : String.valueOf(percentile);
+    }
+}
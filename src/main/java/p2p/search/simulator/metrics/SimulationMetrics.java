@@ -0,0 +1,168 @@
+package p2p.search.simulator.metrics;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de execução alimentados pelos {@code SimulationManager}s (vários podem compartilhar a
+ * mesma instância) e exportados no formato texto do Prometheus por {@link #toPrometheus()}.
+ * Os contadores são {@link LongAdder}s: registrar não bloqueia nem disputa cache line entre threads.
+ */
+public final class SimulationMetrics {
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final Map<String, StrategyCounters> strategies = new ConcurrentHashMap<>();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private volatile long queueDepth;
+
+    // Amostra anterior para a taxa de mensagens por segundo entre scrapes
+    private long lastSampleNanos = System.nanoTime();
+    private long lastSampleMessages;
+    private double messagesPerSecond;
+
+    public void recordSearch(String strategy, SearchResult result) {
+        searches.increment();
+        messages.add(result.getTotalMessages());
+        StrategyCounters counters = strategies.computeIfAbsent(strategy, name -> new StrategyCounters());
+        counters.searches.increment();
+        if (result.isSuccess()) {
+            counters.successes.increment();
+        }
+    }
+
+    public void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public void setQueueDepth(long depth) {
+        this.queueDepth = depth;
+    }
+
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public double getSuccessRate(String strategy) {
+        StrategyCounters counters = strategies.get(strategy);
+        return counters == null ? Double.NaN : counters.successRate();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public double getCacheHitRate() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+
+    /**
+     * Mensagens por segundo desde a amostra anterior; amostras com menos de 1 s de distância
+     * repetem a última taxa para não oscilar com scrapes próximos.
+     */
+    public synchronized double sampleMessagesPerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        if (elapsed >= 1_000_000_000L) {
+            long total = messages.sum();
+            messagesPerSecond = (total - lastSampleMessages) * 1e9 / elapsed;
+            lastSampleMessages = total;
+            lastSampleNanos = now;
+        }
+        return messagesPerSecond;
+    }
+
+    /**
+     * Exposição no formato texto 0.0.4 do Prometheus.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        counter(out, "p2p_searches_completed_total", "Buscas concluídas.", searches.sum());
+        counter(out, "p2p_messages_total", "Mensagens trocadas pelas buscas concluídas.", messages.sum());
+        gauge(out, "p2p_messages_per_second", "Taxa de mensagens desde a amostra anterior.",
+            sampleMessagesPerSecond());
+        gauge(out, "p2p_queue_depth", "Mensagens pendentes na fila (ou em trânsito entre atores).", queueDepth);
+        gauge(out, "p2p_heap_used_bytes", "Heap em uso pela JVM.", memory.getHeapMemoryUsage().getUsed());
+
+        Map<String, StrategyCounters> sorted = new TreeMap<>(strategies);
+        header(out, "p2p_strategy_searches_total", "Buscas concluídas por estratégia.", "counter");
+        sorted.forEach((name, counters) -> sample(out, "p2p_strategy_searches_total",
+            "strategy", name, counters.searches.sum()));
+        header(out, "p2p_strategy_success_rate", "Fração de buscas com sucesso por estratégia.", "gauge");
+        sorted.forEach((name, counters) -> sample(out, "p2p_strategy_success_rate",
+            "strategy", name, counters.successRate()));
+
+        header(out, "p2p_cache_lookups_total", "Consultas ao cache de localização.", "counter");
+        sample(out, "p2p_cache_lookups_total", "result", "hit", cacheHits.sum());
+        sample(out, "p2p_cache_lookups_total", "result", "miss", cacheMisses.sum());
+        gauge(out, "p2p_cache_hit_rate", "Fração das consultas ao cache que acharam o recurso.", getCacheHitRate());
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "counter");
+        out.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, double value) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(labelValue)).append("\"} ")
+            .append(format(value)).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6g", value);
+    }
+
+    private static final class StrategyCounters {
+        private final LongAdder searches = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+
+        double successRate() {
+            long total = searches.sum();
+            return total == 0 ? Double.NaN : (double) successes.sum() / total;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package p2p.search.simulator.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Parâmetros de um enlace no JSON de configuração. Vale para os dois sentidos da aresta.
+ */
+public class LinkConfig {
+
+    @JsonProperty("from")
+    private String from;
+
+    @JsonProperty("to")
+    private String to;
+
+    @JsonProperty("latency")
+    private double latency;
+
+    @JsonProperty("bandwidth")
+    private double bandwidth;
+
+    public LinkConfig() {}
+
+    public LinkConfig(String from, String to, double latency, double bandwidth) {
+        this.from = from;
+        this.to = to;
+        this.latency = latency;
+        this.bandwidth = bandwidth;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    /**
+     * Atraso de propagação, em unidades de tempo da simulação.
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    public void setLatency(double latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Bytes por unidade de tempo da simulação.
+     */
+    public double getBandwidth() {
+        return bandwidth;
+    }
+
+    public void setBandwidth(double bandwidth) {
+        this.bandwidth = bandwidth;
+    }
+}
@@ -3,249 +3,263 @@ package p2p.search.simulator.model;
 import java.util.*;
 
 public class Message {
-    
+
     public enum Type {
         QUERY,
-        RESPONSE
+        RESPONSE,
+        CANCEL
     }
-    
-    private final String id;
+
+    private final QueryHeader header;
     private final Type type;
-    private final String source;
     private final String target;
-    private final String resource;
     private final int ttl;
-    private final List<String> pathHistory;
+    private final MessagePath path;
     private final boolean success;
-    private final Map<String, Set<String>> triedNeighbors;
-    
-    private Message(String id, Type type, String source, String target, 
-                   String resource, int ttl, List<String> pathHistory, boolean success,
-                   Map<String, Set<String>> triedNeighbors) {
-        this.id = id;
+    private final WalkerState walker;
+
+    private Message(QueryHeader header, Type type, String target, int ttl, MessagePath path,
+                    boolean success, WalkerState walker) {
+        this.header = header;
         this.type = type;
-        this.source = source;
         this.target = target;
-        this.resource = resource;
         this.ttl = ttl;
-        this.pathHistory = new ArrayList<>(pathHistory);
+        this.path = path;
         this.success = success;
-        this.triedNeighbors = new HashMap<>();
-        for (Map.Entry<String, Set<String>> entry : triedNeighbors.entrySet()) {
-            this.triedNeighbors.put(entry.getKey(), new HashSet<>(entry.getValue()));
-        }
+        this.walker = walker;
     }
-    
+
     public Message decrementTTL() {
-        return new Builder()
-            .id(this.id)
-            .type(this.type)
-            .source(this.source)
-            .target(this.target)
-            .resource(this.resource)
-            .ttl(this.ttl - 1)
-            .pathHistory(this.pathHistory)
-            .success(this.success)
-            .triedNeighbors(this.triedNeighbors)
-            .build();
+        return new Message(header, type, target, ttl - 1, path, success, walker);
     }
-    
+
     public Message addToPath(String nodeId) {
-        List<String> newPath = new ArrayList<>(this.pathHistory);
-        newPath.add(nodeId);
-        
-        return new Builder()
-            .id(this.id)
-            .type(this.type)
-            .source(this.source)
-            .target(this.target)
-            .resource(this.resource)
-            .ttl(this.ttl)
-            .pathHistory(newPath)
-            .success(this.success)
-            .triedNeighbors(this.triedNeighbors)
-            .build();
+        return new Message(header, type, target, ttl, MessagePath.append(path, nodeId), success, walker);
+    }
+
+    /**
+     * Equivalente a {@code decrementTTL().addToPath(nodeId)} sem a mensagem intermediária.
+     */
+    public Message forwardFrom(String nodeId) {
+        return new Message(header, type, target, ttl - 1, MessagePath.append(path, nodeId), success, walker);
     }
-    
+
+    /**
+     * Cria o hop para um novo destino compartilhando cabeçalho e caminho com esta mensagem.
+     */
+    public Message withTarget(String target) {
+        return new Message(header, type, target, ttl, path, success, walker);
+    }
+
+    /**
+     * Cria a RESPONSE no nó que encontrou o recurso. A resposta aponta para o mesmo caminho
+     * da consulta (sem cópia) e volta por ele um predecessor por vez via {@link #toPredecessor()}.
+     */
     public Message createResponse(String responderNodeId, boolean success) {
-        List<String> reversePath = new ArrayList<>(this.pathHistory);
-        Collections.reverse(reversePath);
-        
-        return new Builder()
-            .id(this.id)
-            .type(Type.RESPONSE)
-            .source(responderNodeId)
-            .target(this.source)
-            .resource(this.resource)
-            .ttl(reversePath.size())
-            .pathHistory(reversePath)
-            .success(success)
-            .triedNeighbors(this.triedNeighbors)
-            .build();
+        MessagePath responsePath = path;
+        if (responsePath == null || !responsePath.nodeId().equals(responderNodeId)) {
+            responsePath = MessagePath.append(responsePath, responderNodeId);
+        }
+
+        return new Message(
+            new QueryHeader(header.id(), responderNodeId, header.resource()),
+            Type.RESPONSE,
+            responderNodeId,
+            responsePath.length(),
+            responsePath,
+            success,
+            walker
+        );
+    }
+
+    /**
+     * Próximo hop de uma RESPONSE: o predecessor do nó atual no caminho da consulta.
+     *
+     * @return a mensagem para o predecessor, ou {@code null} se o nó atual é a origem
+     */
+    public Message toPredecessor() {
+        MessagePath previous = path.parent();
+        while (previous != null && previous.nodeId().equals(target)) {
+            previous = previous.parent();
+        }
+        if (previous == null) {
+            return null;
+        }
+        return new Message(header, type, previous.nodeId(), ttl - 1, previous, success, walker);
     }
-    
+
     public Builder toBuilder() {
-        return new Builder()
-            .id(this.id)
-            .type(this.type)
-            .source(this.source)
-            .target(this.target)
-            .resource(this.resource)
-            .ttl(this.ttl)
-            .pathHistory(this.pathHistory)
-            .success(this.success)
-            .triedNeighbors(this.triedNeighbors);
+        return new Builder(this);
+    }
+
+    public QueryHeader getHeader() {
+        return header;
+    }
+
+    public long getQueryId() {
+        return header.id();
     }
-    
+
     public String getId() {
-        return id;
+        return header.displayId();
     }
-    
+
     public Type getType() {
         return type;
     }
-    
+
     public String getSource() {
-        return source;
+        return header.source();
     }
-    
+
     public String getTarget() {
         return target;
     }
-    
+
     public String getResource() {
-        return resource;
+        return header.resource();
     }
-    
+
     public int getTtl() {
         return ttl;
     }
-    
+
+    public MessagePath getPath() {
+        return path;
+    }
+
     public List<String> getPathHistory() {
-        return Collections.unmodifiableList(pathHistory);
+        return MessagePath.toList(path);
     }
-    
+
     public boolean isSuccess() {
         return success;
     }
-    
+
     public int getHops() {
-        return pathHistory.size();
+        return MessagePath.lengthOf(path);
     }
-    
-    public Map<String, Set<String>> getTriedNeighbors() {
-        Map<String, Set<String>> copy = new HashMap<>();
-        for (Map.Entry<String, Set<String>> entry : triedNeighbors.entrySet()) {
-            copy.put(entry.getKey(), new HashSet<>(entry.getValue()));
-        }
-        return copy;
-    }
-    
-    public Set<String> getTriedNeighborsFor(String nodeId) {
-        return triedNeighbors.getOrDefault(nodeId, Collections.emptySet());
+
+    public WalkerState getWalker() {
+        return walker;
     }
-    
-    public Message markNeighborTried(String nodeId, String neighborId) {
-        Map<String, Set<String>> updated = getTriedNeighbors();
-        updated.computeIfAbsent(nodeId, k -> new HashSet<>()).add(neighborId);
-        
-        return new Builder()
-            .id(this.id)
-            .type(this.type)
-            .source(this.source)
-            .target(this.target)
-            .resource(this.resource)
-            .ttl(this.ttl)
-            .pathHistory(this.pathHistory)
-            .success(this.success)
-            .triedNeighbors(updated)
-            .build();
+
+    /**
+     * Associa o estado mutável do walker à mensagem; os hops seguintes apenas copiam a referência.
+     */
+    public Message withWalker(WalkerState walker) {
+        return new Message(header, type, target, ttl, path, success, walker);
     }
-    
+
     @Override
     public String toString() {
         return String.format("Message[id=%s, type=%s, source=%s, target=%s, resource=%s, ttl=%d, hops=%d, success=%s]",
-            id, type, source, target, resource, ttl, pathHistory.size(), success);
+            header.displayId(), type, header.source(), target, header.resource(), ttl, getHops(), success);
     }
-    
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Message message = (Message) o;
-        return Objects.equals(id, message.id);
+        return header.id() == message.header.id();
     }
-    
+
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(header.id());
     }
-    
+
     public static class Builder {
-        private String id = UUID.randomUUID().toString();
+        private final QueryHeader template;
+        private long queryId = UNASSIGNED;
         private Type type;
         private String source;
         private String target;
         private String resource;
         private int ttl;
-        private List<String> pathHistory = new ArrayList<>();
+        private MessagePath path;
         private boolean success = false;
-        private Map<String, Set<String>> triedNeighbors = new HashMap<>();
-        
-        public Builder id(String id) {
-            this.id = id;
+        private WalkerState walker;
+
+        private static final long UNASSIGNED = 0;
+
+        public Builder() {
+            this.template = null;
+        }
+
+        private Builder(Message message) {
+            this.template = message.header;
+            this.queryId = message.header.id();
+            this.type = message.type;
+            this.source = message.header.source();
+            this.target = message.target;
+            this.resource = message.header.resource();
+            this.ttl = message.ttl;
+            this.path = message.path;
+            this.success = message.success;
+            this.walker = message.walker;
+        }
+
+        /**
+         * @param queryId id alocado pelo {@link QueryIdAllocator} da simulação; deve ser positivo
+         */
+        public Builder queryId(long queryId) {
+            if (queryId <= UNASSIGNED) {
+                throw new IllegalArgumentException("Query id must be positive: " + queryId);
+            }
+            this.queryId = queryId;
             return this;
         }
-        
+
         public Builder type(Type type) {
             this.type = type;
             return this;
         }
-        
+
         public Builder source(String source) {
             this.source = source;
             return this;
         }
-        
+
         public Builder target(String target) {
             this.target = target;
             return this;
         }
-        
+
         public Builder resource(String resource) {
             this.resource = resource;
             return this;
         }
-        
+
         public Builder ttl(int ttl) {
             this.ttl = ttl;
             return this;
         }
-        
+
         public Builder pathHistory(List<String> pathHistory) {
-            this.pathHistory = new ArrayList<>(pathHistory);
+            this.path = MessagePath.fromList(pathHistory);
             return this;
         }
-        
+
         public Builder success(boolean success) {
             this.success = success;
             return this;
         }
-        
-        public Builder triedNeighbors(Map<String, Set<String>> triedNeighbors) {
-            this.triedNeighbors = new HashMap<>();
-            for (Map.Entry<String, Set<String>> entry : triedNeighbors.entrySet()) {
-                this.triedNeighbors.put(entry.getKey(), new HashSet<>(entry.getValue()));
-            }
-            return this;
-        }
-        
+
         public Builder addToPath(String nodeId) {
-            this.pathHistory.add(nodeId);
+            this.path = MessagePath.append(path, nodeId);
             return this;
         }
-        
+
+        /**
+         * Exige um {@link #queryId(long)}: não há alocador global, então cada simulação numera as
+         * próprias consultas e os ids são reproduzíveis entre execuções.
+         */
         public Message build() {
+            if (queryId == UNASSIGNED) {
+                throw new IllegalStateException("Message query id must be assigned");
+            }
             if (type == null) {
                 throw new IllegalStateException("Message type cannot be null");
             }
@@ -255,12 +269,21 @@ public class Message {
             if (resource == null) {
                 throw new IllegalStateException("Message resource cannot be null");
             }
-            
-            if (pathHistory.isEmpty()) {
-                pathHistory.add(source);
+
+            if (path == null) {
+                path = MessagePath.of(source);
+            }
+            return new Message(header(), type, target, ttl, path, success, walker);
+        }
+
+        private QueryHeader header() {
+            if (template != null
+                && template.id() == queryId
+                && Objects.equals(template.source(), source)
+                && Objects.equals(template.resource(), resource)) {
+                return template;
             }
-            
-            return new Message(id, type, source, target, resource, ttl, pathHistory, success, triedNeighbors);
+            return new QueryHeader(queryId, source, resource);
         }
     }
 }
@@ -0,0 +1,67 @@
+package p2p.search.simulator.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caminho persistente (lista ligada ao contrário) percorrido por uma mensagem.
+ * Acrescentar um nó é O(1) e todos os hops derivados compartilham o mesmo prefixo.
+ */
+public final class MessagePath {
+
+    private final String nodeId;
+    private final MessagePath parent;
+    private final int length;
+
+    private MessagePath(String nodeId, MessagePath parent) {
+        this.nodeId = nodeId;
+        this.parent = parent;
+        this.length = parent == null ? 1 : parent.length + 1;
+    }
+
+    public static MessagePath of(String nodeId) {
+        return new MessagePath(nodeId, null);
+    }
+
+    public static MessagePath fromList(List<String> nodeIds) {
+        MessagePath path = null;
+        for (String nodeId : nodeIds) {
+            path = new MessagePath(nodeId, path);
+        }
+        return path;
+    }
+
+    public static MessagePath append(MessagePath path, String nodeId) {
+        return new MessagePath(nodeId, path);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public MessagePath parent() {
+        return parent;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public static int lengthOf(MessagePath path) {
+        return path == null ? 0 : path.length;
+    }
+
+    public static List<String> toList(MessagePath path) {
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        String[] ids = new String[path.length];
+        for (MessagePath current = path; current != null; current = current.parent) {
+            ids[current.length - 1] = current.nodeId;
+        }
+        List<String> list = new ArrayList<>(ids.length);
+        Collections.addAll(list, ids);
+        return list;
+    }
+}
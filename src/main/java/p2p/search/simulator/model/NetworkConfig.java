@@ -20,6 +20,9 @@ public class NetworkConfig {
     
     @JsonProperty("edges")
     private List<List<String>> edges;
+
+    @JsonProperty("links")
+    private List<LinkConfig> links;
     
     public NetworkConfig() {}
     
@@ -62,6 +65,17 @@ public class NetworkConfig {
     public void setEdges(List<List<String>> edges) {
         this.edges = edges;
     }
+
+    /**
+     * Latência e banda por aresta; opcional.
+     */
+    public List<LinkConfig> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<LinkConfig> links) {
+        this.links = links;
+    }
     
     @Override
     public String toString() {
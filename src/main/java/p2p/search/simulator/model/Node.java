@@ -1,5 +1,6 @@
 package p2p.search.simulator.model;
 
+import p2p.search.simulator.profiling.CacheLookupEvent;
 import p2p.search.simulator.simulation.SimulationManager;
 import p2p.search.simulator.strategy.SearchStrategy;
 
@@ -12,6 +13,8 @@ public class Node {
     private final Set<String> resources;
     private final Set<String> neighbors;
     private final Map<String, String> cache;
+    private final Deque<String> cacheOrder = new ArrayDeque<>();
+    private int cacheCapacity;
     private SearchStrategy searchStrategy;
     
     public Node(String id, List<String> resources) {
@@ -29,16 +32,55 @@ public class Node {
         return resources.contains(resource);
     }
     
-    public void addToCache(String resource, String nodeId) {
-        cache.put(resource, nodeId);
+    public synchronized void addToCache(String resource, String nodeId) {
+        if (cache.put(resource, nodeId) == null && cacheCapacity > 0) {
+            cacheOrder.addLast(resource);
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Limita o cache a {@code capacity} entradas, descartando as mais antigas (FIFO).
+     * Zero (padrão) deixa o cache sem limite.
+     */
+    public synchronized void setCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must be >= 0");
+        }
+        this.cacheCapacity = capacity;
+        cacheOrder.clear();
+        if (capacity > 0) {
+            cacheOrder.addAll(cache.keySet());
+            evictOverflow();
+        }
+    }
+
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    private void evictOverflow() {
+        while (cache.size() > cacheCapacity) {
+            cache.remove(cacheOrder.pollFirst());
+        }
     }
     
     public Optional<String> getCachedLocation(String resource) {
-        return Optional.ofNullable(cache.get(resource));
+        String location = cache.get(resource);
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.isEnabled()) {
+            event.node = id;
+            event.resource = resource;
+            event.hit = location != null;
+            event.location = location;
+            event.commit();
+        }
+        return Optional.ofNullable(location);
     }
     
-    public void clearCache() {
+    public synchronized void clearCache() {
         cache.clear();
+        cacheOrder.clear();
     }
     
     public void setSearchStrategy(SearchStrategy strategy) {
@@ -55,18 +97,30 @@ public class Node {
                 "No search strategy configured for node " + id
             );
         }
-        
+        receiveMessage(message, searchStrategy, simulationManager, senderId);
+    }
+
+    /**
+     * Entrega com a estratégia resolvida pelo simulador para esta busca, sem depender do
+     * estado compartilhado do nó.
+     */
+    public void receiveMessage(Message message, SearchStrategy strategy,
+                               SimulationManager simulationManager, String senderId) {
         switch (message.getType()) {
             case QUERY:
-                searchStrategy.processQuery(this, message, simulationManager, senderId);
+                strategy.processQuery(this, message, simulationManager, senderId);
                 break;
                 
             case RESPONSE:
                 if (message.isSuccess()) {
-                    addToCache(message.getResource(), message.getSource());
+                    simulationManager.addToCache(this, message.getResource(), message.getSource());
                 }
                 simulationManager.continueResponse(this, message);
                 break;
+
+            case CANCEL:
+                simulationManager.receiveCancel(this, message, senderId);
+                break;
         }
     }
     
@@ -0,0 +1,12 @@
+package p2p.search.simulator.model;
+
+/**
+ * Cabeçalho imutável de uma consulta, compartilhado por todos os hops de uma mesma mensagem.
+ * Cada hop carrega apenas os campos primitivos (alvo, TTL e ponteiro para o caminho).
+ */
+public record QueryHeader(long id, String source, String resource) {
+
+    public String displayId() {
+        return QueryIdAllocator.format(id);
+    }
+}
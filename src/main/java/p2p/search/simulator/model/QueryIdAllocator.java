@@ -0,0 +1,20 @@
+package p2p.search.simulator.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera identificadores sequenciais de consulta.
+ * Cada simulação mantém sua própria instância; a formatação em texto fica restrita à exibição.
+ */
+public final class QueryIdAllocator {
+
+    private final AtomicLong next = new AtomicLong(1);
+
+    public long next() {
+        return next.getAndIncrement();
+    }
+
+    public static String format(long queryId) {
+        return "q-" + queryId;
+    }
+}
@@ -0,0 +1,121 @@
+package p2p.search.simulator.model;
+
+import java.util.Arrays;
+
+/**
+ * Estado mutável de um walker (random walk com backtracking).
+ * As mensagens apenas apontam para este objeto; nada é copiado a cada hop.
+ *
+ * <p>Guarda as arestas já tentadas (índices de aresta do grafo CSR) em um conjunto
+ * de inteiros com endereçamento aberto e a trilha atual de nós para o backtracking.</p>
+ */
+public final class WalkerState {
+
+    private static final int EMPTY = -1;
+
+    private int[] triedEdges = new int[16];
+    private int triedCount;
+    private int[] trail = new int[16];
+    private int depth;
+    private int returningTo = EMPTY;
+
+    public WalkerState() {
+        Arrays.fill(triedEdges, EMPTY);
+    }
+
+    public boolean isTried(int edge) {
+        int mask = triedEdges.length - 1;
+        for (int slot = mix(edge) & mask; ; slot = (slot + 1) & mask) {
+            int value = triedEdges[slot];
+            if (value == EMPTY) {
+                return false;
+            }
+            if (value == edge) {
+                return true;
+            }
+        }
+    }
+
+    public void markTried(int edge) {
+        if ((triedCount + 1) * 2 > triedEdges.length) {
+            rehash(triedEdges.length * 2);
+        }
+        if (insert(triedEdges, edge)) {
+            triedCount++;
+        }
+    }
+
+    public int triedCount() {
+        return triedCount;
+    }
+
+    public void push(int node) {
+        if (depth == trail.length) {
+            trail = Arrays.copyOf(trail, depth * 2);
+        }
+        trail[depth++] = node;
+    }
+
+    /**
+     * Remove o nó atual da trilha e retorna o nó anterior, ou -1 se a trilha acabou.
+     */
+    public int pop() {
+        if (depth > 0) {
+            depth--;
+        }
+        return depth > 0 ? trail[depth - 1] : EMPTY;
+    }
+
+    /**
+     * Nó imediatamente anterior ao atual na trilha, ou -1 se o atual é a origem.
+     */
+    public int parent() {
+        return depth >= 2 ? trail[depth - 2] : EMPTY;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public void returnTo(int node) {
+        this.returningTo = node;
+    }
+
+    public boolean isReturningTo(int node) {
+        return returningTo == node;
+    }
+
+    public void arrived() {
+        this.returningTo = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        for (int value : triedEdges) {
+            if (value != EMPTY) {
+                insert(table, value);
+            }
+        }
+        triedEdges = table;
+    }
+
+    private static boolean insert(int[] table, int edge) {
+        int mask = table.length - 1;
+        for (int slot = mix(edge) & mask; ; slot = (slot + 1) & mask) {
+            int value = table[slot];
+            if (value == EMPTY) {
+                table[slot] = edge;
+                return true;
+            }
+            if (value == edge) {
+                return false;
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
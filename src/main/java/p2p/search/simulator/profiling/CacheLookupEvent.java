@@ -0,0 +1,30 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("p2p.search.CacheLookup")
+@Label("Cache Lookup")
+@Description("Consulta ao cache de localização de um nó")
+@Category({"P2P Search Simulator", "Cache"})
+@Enabled(false)
+@StackTrace(false)
+public final class CacheLookupEvent extends Event {
+
+    @Label("Node")
+    public String node;
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Hit")
+    public boolean hit;
+
+    @Label("Location")
+    public String location;
+}
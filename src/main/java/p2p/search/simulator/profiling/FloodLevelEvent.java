@@ -0,0 +1,37 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("p2p.search.FloodLevel")
+@Label("Flood Level Expansion")
+@Description("Expansão de um nível de TTL pelos engines de flooding por nível")
+@Category({"P2P Search Simulator", "Flooding"})
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public final class FloodLevelEvent extends Event {
+
+    @Label("Level")
+    public int level;
+
+    @Label("Frontier Size")
+    @Description("Nós na fronteira gerada pelo nível")
+    public int frontierSize;
+
+    @Label("Messages")
+    @Description("Mensagens QUERY enviadas no nível")
+    public int messages;
+
+    @Label("Bottom-Up")
+    public boolean bottomUp;
+
+    @Label("Shards")
+    public int shards;
+}
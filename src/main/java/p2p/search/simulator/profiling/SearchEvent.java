@@ -0,0 +1,47 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("p2p.search.Search")
+@Label("Search")
+@Description("Uma chamada de SimulationManager.runSearch, do envio da consulta ao fim da simulação")
+@Category({"P2P Search Simulator", "Search"})
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public final class SearchEvent extends Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Execution Mode")
+    public String executionMode;
+
+    @Label("TTL")
+    public int ttl;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Messages")
+    public int messages;
+
+    @Label("Visited Nodes")
+    public int visitedNodes;
+
+    @Label("Hops")
+    public int hops;
+}
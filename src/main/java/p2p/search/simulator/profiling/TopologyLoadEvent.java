@@ -0,0 +1,29 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("p2p.search.TopologyLoad")
+@Label("Topology Load")
+@Description("Construção da NetworkTopology a partir da configuração, incluindo o grafo indexado")
+@Category({"P2P Search Simulator", "Topology"})
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public final class TopologyLoadEvent extends Event {
+
+    @Label("Nodes")
+    public int nodes;
+
+    @Label("Edges")
+    public int edges;
+
+    @Label("Ordering")
+    public String ordering;
+}
@@ -0,0 +1,29 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("p2p.search.TopologyValidate")
+@Label("Topology Validate")
+@Description("Validação de conectividade, grau, recursos e self-loops")
+@Category({"P2P Search Simulator", "Topology"})
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public final class TopologyValidateEvent extends Event {
+
+    @Label("Nodes")
+    public int nodes;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,7 @@
+/**
+ * Eventos do Java Flight Recorder com o contexto da simulação (carga e validação da topologia,
+ * buscas, níveis do flooding e consultas ao cache). Todos vêm desabilitados: sem uma gravação
+ * que os habilite explicitamente (as configurações em {@code jfr/p2p.jfc} nos resources ou
+ * {@code Recording.enable}), o custo nos caminhos quentes é só a checagem de {@code isEnabled}.
+ */
+package p2p.search.simulator.profiling;
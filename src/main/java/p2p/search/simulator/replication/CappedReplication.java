@@ -0,0 +1,39 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationState;
+
+/**
+ * Base das políticas com limite de armazenamento: cada nó guarda no máximo {@code capacity}
+ * réplicas e descarta as mais antigas (0 = sem limite).
+ */
+public abstract class CappedReplication implements ReplicationPolicy {
+
+    private final int capacity;
+    private long replicasCreated;
+
+    protected CappedReplication(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0");
+        }
+        this.capacity = capacity;
+    }
+
+    protected boolean place(SimulationState state, String nodeId, String resource) {
+        boolean created = state.addReplica(nodeId, resource, capacity);
+        if (created) {
+            replicasCreated++;
+        }
+        return created;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Réplicas criadas desde a construção, incluindo as descartadas depois pelo limite.
+     */
+    public long getReplicasCreated() {
+        return replicasCreated;
+    }
+}
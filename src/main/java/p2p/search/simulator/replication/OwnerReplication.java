@@ -0,0 +1,26 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+
+/**
+ * Replicação no solicitante: quem encontrou o recurso passa a guardar uma cópia.
+ */
+public class OwnerReplication extends CappedReplication {
+
+    public OwnerReplication(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public void replicate(SearchResult result, SimulationState state) {
+        if (result.isSuccess()) {
+            place(state, result.getSourceNode(), result.getResource());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Owner";
+    }
+}
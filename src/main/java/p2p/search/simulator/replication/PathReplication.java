@@ -0,0 +1,32 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Replicação no caminho: todos os nós entre a origem e o dono recebem uma cópia.
+ */
+public class PathReplication extends CappedReplication {
+
+    public PathReplication(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public void replicate(SearchResult result, SimulationState state) {
+        if (!result.isSuccess()) {
+            return;
+        }
+        // O caminho repete nós (chegada e encaminhamento); cada nó recebe uma única cópia
+        for (String nodeId : new LinkedHashSet<>(result.getPath())) {
+            place(state, nodeId, result.getResource());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Path";
+    }
+}
@@ -0,0 +1,43 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+import p2p.search.simulator.topology.IndexedGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Replicação aleatória: a cada busca com sucesso, {@code k} nós sorteados recebem uma cópia.
+ * Tem o mesmo número de cópias da replicação no caminho quando {@code k} é o comprimento médio
+ * do caminho, mas sem concentrá-las perto das origens. Não é thread-safe.
+ */
+public class RandomReplication extends CappedReplication {
+
+    private final int copies;
+    private final SplittableRandom random;
+
+    public RandomReplication(int copies, int capacity, long seed) {
+        super(capacity);
+        if (copies < 1) {
+            throw new IllegalArgumentException("copies must be >= 1");
+        }
+        this.copies = copies;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void replicate(SearchResult result, SimulationState state) {
+        if (!result.isSuccess()) {
+            return;
+        }
+        IndexedGraph graph = state.getTopology().getIndexedGraph();
+        for (int i = 0; i < copies; i++) {
+            place(state, graph.idOf(random.nextInt(graph.size())), result.getResource());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Random(" + copies + ")";
+    }
+}
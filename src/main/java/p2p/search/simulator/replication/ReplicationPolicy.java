@@ -0,0 +1,15 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+
+/**
+ * Decide, a partir do resultado de uma busca, onde criar réplicas do recurso. Chamada pelo
+ * {@code SimulationManager} ao fim de cada busca (ver {@code setReplicationPolicy}).
+ */
+public interface ReplicationPolicy {
+
+    void replicate(SearchResult result, SimulationState state);
+
+    String getName();
+}
@@ -0,0 +1,82 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+import p2p.search.simulator.strategy.SearchStrategy;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.QueryStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evolução do custo das buscas enquanto a replicação age: média de mensagens, taxa de sucesso
+ * e réplicas existentes a cada janela de {@code window} buscas.
+ */
+public final class ReplicationTimeline {
+
+    /**
+     * Uma janela fechada da linha do tempo.
+     */
+    public record Window(int index, double meanMessages, double successRate, long replicas) { }
+
+    private final int window;
+    private final SimulationState state;
+    private final List<Window> windows = new ArrayList<>();
+    private long messages;
+    private int successes;
+    private int searches;
+
+    public ReplicationTimeline(int window, SimulationState state) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be >= 1");
+        }
+        this.window = window;
+        this.state = state;
+    }
+
+    /**
+     * Executa até {@code limit} consultas do fluxo no gerenciador (com a política já configurada)
+     * e registra cada resultado.
+     */
+    public static ReplicationTimeline run(SimulationManager simulationManager, QueryStream queries, long limit,
+                                          int ttl, SearchStrategy strategy, int window) {
+        ReplicationTimeline timeline = new ReplicationTimeline(window, simulationManager.getState());
+        Query query;
+        for (long i = 0; i < limit && (query = queries.next()) != null; i++) {
+            timeline.record(simulationManager.runSearch(query.source(), query.resource(), ttl, strategy));
+        }
+        return timeline;
+    }
+
+    public void record(SearchResult result) {
+        messages += result.getTotalMessages();
+        if (result.isSuccess()) {
+            successes++;
+        }
+        if (++searches == window) {
+            windows.add(new Window(windows.size(), (double) messages / searches, (double) successes / searches,
+                state != null ? state.replicaEntries() : 0));
+            messages = 0;
+            successes = 0;
+            searches = 0;
+        }
+    }
+
+    public List<Window> getWindows() {
+        return List.copyOf(windows);
+    }
+
+    /**
+     * Redução relativa da média de mensagens da primeira para a última janela
+     * ({@code NaN} com menos de duas janelas).
+     */
+    public double getMessageReduction() {
+        if (windows.size() < 2) {
+            return Double.NaN;
+        }
+        double first = windows.get(0).meanMessages();
+        return 1 - windows.get(windows.size() - 1).meanMessages() / first;
+    }
+}
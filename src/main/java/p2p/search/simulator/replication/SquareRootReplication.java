@@ -0,0 +1,79 @@
+package p2p.search.simulator.replication;
+
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+import p2p.search.simulator.simulation.SimulationState;
+import p2p.search.simulator.topology.IndexedGraph;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Alocação raiz quadrada (Cohen e Shenker): com um orçamento total de réplicas, o recurso
+ * {@code i} deve ter cópias proporcionais a {@code sqrt(q_i)}, onde {@code q_i} é a sua taxa
+ * de consultas. A popularidade é estimada pelas buscas observadas; a cada busca com sucesso
+ * abaixo da cota atual o recurso ganha uma cópia em um nó aleatório. Crescer uma cópia por
+ * vez evita que as cotas infladas do início (poucas consultas observadas) estourem o
+ * orçamento. Não é thread-safe.
+ */
+public class SquareRootReplication extends CappedReplication {
+
+    /**
+     * Limite de sorteios por busca, para nós cheios ou que já têm o recurso não travarem a alocação.
+     */
+    private static final int ATTEMPTS = 4;
+
+    private final int budget;
+    private final SplittableRandom random;
+    private final Map<String, Integer> queries = new HashMap<>();
+    private double sqrtSum;
+
+    /**
+     * @param budget total de réplicas a distribuir entre os recursos
+     */
+    public SquareRootReplication(int budget, int capacity, long seed) {
+        super(capacity);
+        if (budget < 1) {
+            throw new IllegalArgumentException("budget must be >= 1");
+        }
+        this.budget = budget;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void replicate(SearchResult result, SimulationState state) {
+        String resource = result.getResource();
+        int previous = queries.getOrDefault(resource, 0);
+        queries.put(resource, previous + 1);
+        sqrtSum += Math.sqrt(previous + 1) - Math.sqrt(previous);
+        if (!result.isSuccess()) {
+            return;
+        }
+
+        if (state.replicaCount(resource) >= targetReplicas(resource)) {
+            return;
+        }
+        IndexedGraph graph = state.getTopology().getIndexedGraph();
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            if (place(state, graph.idOf(random.nextInt(graph.size())), resource)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cota atual do recurso: {@code budget * sqrt(q_i) / sum_j sqrt(q_j)}.
+     */
+    public int targetReplicas(String resource) {
+        int count = queries.getOrDefault(resource, 0);
+        if (count == 0) {
+            return 0;
+        }
+        return (int) Math.round(budget * Math.sqrt(count) / sqrtSum);
+    }
+
+    @Override
+    public String getName() {
+        return "Square-root";
+    }
+}
@@ -0,0 +1,151 @@
+package p2p.search.simulator.simulation;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Atores identificados por id de nó, cada um com sua mailbox. Um ator só processa uma mensagem
+ * por vez; atores diferentes rodam em paralelo, exceto no modo determinístico, em que uma única
+ * thread ativa os atores na ordem em que as mensagens foram enviadas.
+ *
+ * @param <M> tipo das mensagens
+ */
+final class ActorRuntime<M> implements AutoCloseable {
+
+    private final BiConsumer<String, M> handler;
+    private final boolean deterministic;
+    private final ExecutorService executor;
+    private final Map<String, Actor<M>> actors = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final Object idle = new Object();
+    private volatile Throwable failure;
+
+    ActorRuntime(boolean deterministic, BiConsumer<String, M> handler) {
+        this.handler = handler;
+        this.deterministic = deterministic;
+        this.executor = deterministic
+            ? Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "node-actors");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : concurrentExecutor();
+    }
+
+    /**
+     * Uma virtual thread por ativação quando a JVM oferece ({@code Executors.newVirtualThreadPerTaskExecutor},
+     * Java 21+); senão um {@link ForkJoinPool} em modo FIFO.
+     */
+    static ExecutorService concurrentExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        }
+    }
+
+    /**
+     * Coloca a mensagem na mailbox do ator e agenda sua ativação.
+     */
+    void deliver(String actorId, M message) {
+        Actor<M> actor = actors.computeIfAbsent(actorId, Actor::new);
+        inFlight.incrementAndGet();
+        actor.mailbox.add(message);
+        if (deterministic) {
+            executor.execute(() -> processNext(actor));
+        } else if (actor.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(actor));
+        }
+    }
+
+    /**
+     * Bloqueia até nenhuma mensagem estar em trânsito ou em processamento.
+     *
+     * @throws IllegalStateException se algum ator falhou durante a execução
+     */
+    void awaitQuiescence() {
+        synchronized (idle) {
+            while (inFlight.get() != 0) {
+                try {
+                    idle.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for node actors", e);
+                }
+            }
+        }
+        Throwable failed = failure;
+        if (failed != null) {
+            failure = null;
+            throw new IllegalStateException("Node actor failed", failed);
+        }
+    }
+
+    /**
+     * Mensagens entregues e ainda não processadas.
+     */
+    long inFlight() {
+        return inFlight.get();
+    }
+
+    private void processNext(Actor<M> actor) {
+        M message = actor.mailbox.poll();
+        if (message != null) {
+            process(actor, message);
+        }
+    }
+
+    private void drain(Actor<M> actor) {
+        while (true) {
+            M message;
+            while ((message = actor.mailbox.poll()) != null) {
+                process(actor, message);
+            }
+            actor.scheduled.set(false);
+            // Uma entrega pode ter chegado entre o último poll e a liberação do ator
+            if (actor.mailbox.isEmpty() || !actor.scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void process(Actor<M> actor, M message) {
+        try {
+            handler.accept(actor.id, message);
+        } catch (Throwable t) {
+            if (failure == null) {
+                failure = t;
+            }
+        } finally {
+            if (inFlight.decrementAndGet() == 0) {
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static final class Actor<M> {
+        private final String id;
+        private final Queue<M> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Actor(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package p2p.search.simulator.simulation;
+
+/**
+ * Como o {@link SimulationManager} entrega as mensagens aos nós.
+ */
+public enum ExecutionMode {
+    /**
+     * Fila global processada em uma única thread (padrão).
+     */
+    QUEUE,
+    /**
+     * Cada nó é um ator com mailbox própria, ativado em virtual threads (Java 21+) ou, em JVMs
+     * anteriores, num pool work-stealing. Estratégias podem bloquear (sleep, espera por resposta)
+     * sem travar os outros nós; a ordem de entrega entre nós não é determinística.
+     */
+    ACTORS,
+    /**
+     * Atores ativados um por vez, na ordem global de envio: mesmo resultado do modo {@link #QUEUE}.
+     * Para testes de estratégias escritas como atores; esperar por outro nó aqui trava a simulação.
+     */
+    DETERMINISTIC_ACTORS
+}
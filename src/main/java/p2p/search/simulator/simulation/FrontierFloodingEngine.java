@@ -0,0 +1,567 @@
+package p2p.search.simulator.simulation;
+
+import p2p.search.simulator.profiling.FloodLevelEvent;
+import p2p.search.simulator.topology.AdjacencyGraph;
+import p2p.search.simulator.topology.IndexedGraph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Flooding em massa (BFS síncrona por nível) sobre um {@link AdjacencyGraph}, no heap
+ * ({@link IndexedGraph}) ou fora dele.
+ *
+ * <p>Cada nível de TTL expande a fronteira inteira com arrays de int e um bitmap de visitados,
+ * em vez de uma {@code Message} por hop. O resultado reproduz exatamente a semântica mensagem a
+ * mensagem do {@code FloodingStrategy} com fila FIFO: mensagens duplicadas também são contadas,
+ * o pai de cada nó é o remetente da primeira mensagem que chega a ele, e no primeiro hit a busca
+ * para: as mensagens pendentes são descartadas e o nó que possui o recurso não encaminha.</p>
+ *
+ * <p>Fronteiras grandes são expandidas em paralelo no {@link ForkJoinPool}: cada mensagem do nível
+ * tem uma posição (soma de prefixos dos graus de saída) e o vencedor de cada nó é a menor posição,
+ * o que equivale à ordem da fila. Uma instância não é thread-safe.</p>
+ *
+ * <p>Em grafos não direcionados a expansão alterna entre top-down e bottom-up (Beamer): quando as
+ * arestas da fronteira superam as arestas ainda não visitadas, cada nó não visitado procura
+ * vizinhos na fronteira. O pai precisa ser o da menor posição (o vizinho com menor índice na
+ * fronteira), então todos os vizinhos são examinados. A contagem de mensagens vem da soma dos
+ * graus de saída, então o resultado não depende da direção.</p>
+ */
+public final class FrontierFloodingEngine {
+
+    /**
+     * Número mínimo de mensagens em um nível para a expansão paralela.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Tamanho mínimo de fronteira para calcular os graus de saída em paralelo.
+     */
+    static final int PARALLEL_FRONTIER = 1 << 10;
+
+    /**
+     * Bottom-up volta para top-down quando a fronteira tem menos de 1/BETA dos nós.
+     */
+    static final int BETA = 24;
+
+    private static final int UNCLAIMED = Integer.MAX_VALUE;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final VarHandle CLAIMS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final AdjacencyGraph graph;
+    private final ForkJoinPool pool;
+    private final long[] visited;
+    private final int[] parent;
+    private final int[] claim;
+    private final boolean symmetric;
+    private final int[] senderSlot;
+    private final int[] frontierIndex;
+    private int visitedCount;
+    private long visitedDegrees;
+    private boolean directionOptimizing = true;
+    private boolean bottomUp;
+    private int bottomUpLevels;
+
+    public FrontierFloodingEngine(AdjacencyGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public FrontierFloodingEngine(AdjacencyGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.visited = new long[(graph.size() + 63) >>> 6];
+        this.parent = new int[graph.size()];
+        this.claim = new int[graph.size()];
+        Arrays.fill(claim, UNCLAIMED);
+        this.symmetric = graph.isSymmetric();
+        this.senderSlot = new int[graph.size()];
+        this.frontierIndex = new int[graph.size()];
+        Arrays.fill(frontierIndex, -1);
+    }
+
+    /**
+     * Habilita a troca entre expansão top-down e bottom-up (padrão). Sem efeito em grafos direcionados.
+     */
+    public void setDirectionOptimizing(boolean enabled) {
+        this.directionOptimizing = enabled;
+    }
+
+    /**
+     * Executa um flooding com parada no primeiro hit.
+     *
+     * @param source índice do nó de origem
+     * @param ttl TTL inicial da consulta
+     * @param holder indica se um nó possui o recurso buscado
+     */
+    public Result run(int source, int ttl, IntPredicate holder) {
+        Arrays.fill(visited, 0L);
+        visitedCount = 0;
+        visitedDegrees = 0;
+        bottomUp = false;
+        bottomUpLevels = 0;
+        if (ttl <= 0) {
+            return new Result(0, 0, -1, -1, 0, new int[0], 0);
+        }
+
+        visit(source);
+        parent[source] = -1;
+        senderSlot[source] = -1;
+        Frontier frontier = new Frontier(new int[] {source}, new int[] {0}, 1, 1);
+
+        int messages = 1;
+        int messagesBeforeLevel = 0;
+        int hit = -1;
+        int hitLevel = -1;
+        int messagesAtHit = 0;
+
+        for (int level = 0; frontier.size > 0; level++) {
+            int k = firstHolder(frontier, holder);
+            if (k >= 0) {
+                hit = frontier.nodes[k];
+                hitLevel = level;
+                messagesAtHit = messagesBeforeLevel + frontier.positions[k] + 1;
+                // A fila é descartada no hit e o dono não encaminha: o resto do nível nunca é processado
+                for (int i = k + 1; i < frontier.size; i++) {
+                    unvisit(frontier.nodes[i]);
+                }
+                messages = messagesAtHit;
+                break;
+            }
+
+            if (ttl - level - 1 <= 0) {
+                break;
+            }
+
+            FloodLevelEvent event = new FloodLevelEvent();
+            event.begin();
+            int bottomUpBefore = bottomUpLevels;
+            frontier = expand(frontier);
+            if (event.shouldCommit()) {
+                event.level = level + 1;
+                event.frontierSize = frontier.size;
+                event.messages = frontier.messages;
+                event.bottomUp = bottomUpLevels > bottomUpBefore;
+                event.shards = 1;
+                event.commit();
+            }
+            messagesBeforeLevel = messages;
+            messages += frontier.messages;
+        }
+
+        return new Result(messages, visitedCount, hit, hitLevel, messagesAtHit, chainTo(hit), bottomUpLevels);
+    }
+
+    private int firstHolder(Frontier frontier, IntPredicate holder) {
+        for (int i = 0; i < frontier.size; i++) {
+            if (holder.test(frontier.nodes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int[] chainTo(int hit) {
+        if (hit < 0) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int node = hit; node >= 0; node = parent[node]) {
+            length++;
+        }
+        int[] chain = new int[length];
+        for (int node = hit, i = length - 1; node >= 0; node = parent[node], i--) {
+            chain[i] = node;
+        }
+        return chain;
+    }
+
+    private Frontier expand(Frontier frontier) {
+        int n = frontier.size;
+        int[] offsets = new int[n + 1];
+        boolean parallel = pool.getParallelism() > 1;
+
+        if (parallel && n >= PARALLEL_FRONTIER) {
+            forEachRange(n, chunkCount(n), (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    offsets[i + 1] = outDegree(frontier.nodes[i]);
+                }
+            });
+        } else {
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] = outDegree(frontier.nodes[i]);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int total = offsets[n];
+        if (chooseBottomUp(n, total)) {
+            bottomUpLevels++;
+            return expandBottomUp(frontier, offsets, parallel && graph.size() >= PARALLEL_THRESHOLD);
+        }
+        if (parallel && total >= PARALLEL_THRESHOLD) {
+            return expandParallel(frontier, offsets);
+        }
+        return expandSequential(frontier, offsets);
+    }
+
+    private Frontier expandSequential(Frontier frontier, int[] offsets) {
+        int[] nodes = new int[Math.min(offsets[frontier.size], graph.size())];
+        int[] positions = new int[nodes.length];
+        int size = 0;
+        for (int i = 0; i < frontier.size; i++) {
+            int u = frontier.nodes[i];
+            int sender = parent[u];
+            int position = offsets[i];
+            for (int edge = graph.edgeStart(u); edge < graph.edgeEnd(u); edge++) {
+                int v = graph.target(edge);
+                if (v == sender) {
+                    continue;
+                }
+                if (!isVisited(v)) {
+                    visit(v);
+                    parent[v] = u;
+                    senderSlot[v] = symmetric ? graph.reverseEdge(edge) : -1;
+                    nodes[size] = v;
+                    positions[size] = position;
+                    size++;
+                }
+                position++;
+            }
+        }
+        return new Frontier(nodes, positions, size, offsets[frontier.size]);
+    }
+
+    private Frontier expandParallel(Frontier frontier, int[] offsets) {
+        int n = frontier.size;
+        int total = offsets[n];
+        int chunks = chunkCount(n);
+        int[] bounds = new int[chunks + 1];
+        for (int c = 1; c < chunks; c++) {
+            // Divide pelo número de mensagens, não de nós: graus em lei de potência desbalanceiam
+            int key = (int) ((long) total * c / chunks);
+            bounds[c] = Math.max(bounds[c - 1], lowerBound(offsets, n, key));
+        }
+        bounds[chunks] = n;
+
+        forEachChunk(chunks, c -> claimRange(frontier, offsets, bounds[c], bounds[c + 1]));
+
+        int[][] chunkNodes = new int[chunks][];
+        int[][] chunkPositions = new int[chunks][];
+        int[] chunkSizes = new int[chunks];
+        forEachChunk(chunks, c -> collectWinners(frontier, offsets, bounds[c], bounds[c + 1],
+            c, chunkNodes, chunkPositions, chunkSizes));
+
+        int size = 0;
+        for (int c = 0; c < chunks; c++) {
+            size += chunkSizes[c];
+        }
+        int[] nodes = new int[size];
+        int[] positions = new int[size];
+        int at = 0;
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(chunkNodes[c], 0, nodes, at, chunkSizes[c]);
+            System.arraycopy(chunkPositions[c], 0, positions, at, chunkSizes[c]);
+            at += chunkSizes[c];
+        }
+        for (int i = 0; i < size; i++) {
+            visit(nodes[i]);
+            claim[nodes[i]] = UNCLAIMED;
+        }
+        return new Frontier(nodes, positions, size, total);
+    }
+
+    private boolean chooseBottomUp(int frontierSize, int frontierEdges) {
+        if (!directionOptimizing || !symmetric) {
+            return false;
+        }
+        if (bottomUp) {
+            bottomUp = (long) frontierSize * BETA >= graph.size();
+        } else {
+            long unvisitedEdges = graph.edgeSlots() - visitedDegrees;
+            bottomUp = frontierEdges > unvisitedEdges;
+        }
+        return bottomUp;
+    }
+
+    /**
+     * Expansão bottom-up: cada nó não visitado escolhe, entre os vizinhos na fronteira, a
+     * mensagem de menor posição. A nova fronteira é ordenada por essa posição.
+     */
+    private Frontier expandBottomUp(Frontier frontier, int[] offsets, boolean parallel) {
+        for (int i = 0; i < frontier.size; i++) {
+            frontierIndex[frontier.nodes[i]] = i;
+        }
+
+        int words = visited.length;
+        int chunks = parallel ? chunkCount(words) : 1;
+        long[][] chunkFound = new long[chunks][];
+        int[] chunkSizes = new int[chunks];
+        IntConsumer scan = c -> scanUnvisited(offsets,
+            (int) ((long) words * c / chunks), (int) ((long) words * (c + 1) / chunks),
+            c, chunkFound, chunkSizes);
+        if (parallel) {
+            forEachChunk(chunks, scan);
+        } else {
+            scan.accept(0);
+        }
+
+        int size = 0;
+        for (int c = 0; c < chunks; c++) {
+            size += chunkSizes[c];
+        }
+        long[] found = new long[size];
+        int at = 0;
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(chunkFound[c], 0, found, at, chunkSizes[c]);
+            at += chunkSizes[c];
+        }
+        if (parallel) {
+            Arrays.parallelSort(found);
+        } else {
+            Arrays.sort(found);
+        }
+
+        int[] nodes = new int[size];
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = (int) found[i];
+            positions[i] = (int) (found[i] >>> 32);
+            visit(nodes[i]);
+        }
+        for (int i = 0; i < frontier.size; i++) {
+            frontierIndex[frontier.nodes[i]] = -1;
+        }
+        return new Frontier(nodes, positions, size, offsets[frontier.size]);
+    }
+
+    private void scanUnvisited(int[] offsets, int fromWord, int toWord, int chunk,
+                               long[][] chunkFound, int[] chunkSizes) {
+        long[] found = new long[16];
+        int size = 0;
+        for (int word = fromWord; word < toWord; word++) {
+            long unvisited = ~visited[word];
+            while (unvisited != 0) {
+                int v = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+                unvisited &= unvisited - 1;
+                if (v >= graph.size()) {
+                    break;
+                }
+
+                // As posições de cada nó da fronteira formam um intervalo próprio, crescente com o
+                // índice: a menor posição é a do vizinho de menor índice na fronteira
+                int bestIndex = UNCLAIMED;
+                int bestSlot = -1;
+                for (int slot = graph.edgeStart(v); slot < graph.edgeEnd(v); slot++) {
+                    int i = frontierIndex[graph.target(slot)];
+                    if (i >= 0 && i < bestIndex) {
+                        bestIndex = i;
+                        bestSlot = slot;
+                    }
+                }
+
+                if (bestSlot >= 0) {
+                    int u = graph.target(bestSlot);
+                    int edge = graph.reverseEdge(bestSlot);
+                    int sender = senderSlot[u];
+                    int position = offsets[bestIndex] + edge - graph.edgeStart(u) - (sender >= 0 && sender < edge ? 1 : 0);
+                    parent[v] = u;
+                    senderSlot[v] = bestSlot;
+                    if (size == found.length) {
+                        found = Arrays.copyOf(found, size * 2);
+                    }
+                    found[size++] = ((long) position << 32) | v;
+                }
+            }
+        }
+        chunkFound[chunk] = found;
+        chunkSizes[chunk] = size;
+    }
+
+    private static int lowerBound(int[] offsets, int n, int key) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void claimRange(Frontier frontier, int[] offsets, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int u = frontier.nodes[i];
+            int sender = parent[u];
+            int position = offsets[i];
+            for (int edge = graph.edgeStart(u); edge < graph.edgeEnd(u); edge++) {
+                int v = graph.target(edge);
+                if (v == sender) {
+                    continue;
+                }
+                if (!isVisited(v)) {
+                    claimMin(v, position);
+                }
+                position++;
+            }
+        }
+    }
+
+    private void collectWinners(Frontier frontier, int[] offsets, int from, int to, int chunk,
+                                int[][] chunkNodes, int[][] chunkPositions, int[] chunkSizes) {
+        int[] nodes = new int[Math.min(offsets[to] - offsets[from], graph.size())];
+        int[] positions = new int[nodes.length];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int u = frontier.nodes[i];
+            int sender = parent[u];
+            int position = offsets[i];
+            for (int edge = graph.edgeStart(u); edge < graph.edgeEnd(u); edge++) {
+                int v = graph.target(edge);
+                if (v == sender) {
+                    continue;
+                }
+                if (claim[v] == position) {
+                    parent[v] = u;
+                    senderSlot[v] = symmetric ? graph.reverseEdge(edge) : -1;
+                    nodes[size] = v;
+                    positions[size] = position;
+                    size++;
+                }
+                position++;
+            }
+        }
+        chunkNodes[chunk] = nodes;
+        chunkPositions[chunk] = positions;
+        chunkSizes[chunk] = size;
+    }
+
+    private void claimMin(int node, int position) {
+        int current = (int) CLAIMS.getVolatile(claim, node);
+        while (position < current) {
+            int witness = (int) CLAIMS.compareAndExchange(claim, node, current, position);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    private int outDegree(int node) {
+        int degree = graph.degree(node);
+        if (symmetric) {
+            return senderSlot[node] >= 0 ? degree - 1 : degree;
+        }
+        int sender = parent[node];
+        if (sender < 0) {
+            return degree;
+        }
+        for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+            if (graph.target(edge) == sender) {
+                return degree - 1;
+            }
+        }
+        return degree;
+    }
+
+    private int chunkCount(int items) {
+        return Math.max(1, Math.min(items, pool.getParallelism() * CHUNKS_PER_THREAD));
+    }
+
+    private void forEachRange(int items, int chunks, RangeBody body) {
+        forEachChunk(chunks, c -> body.run(
+            (int) ((long) items * c / chunks),
+            (int) ((long) items * (c + 1) / chunks)));
+    }
+
+    private void forEachChunk(int chunks, IntConsumer body) {
+        pool.invoke(new ChunkTask(0, chunks, body));
+    }
+
+    private boolean isVisited(int node) {
+        return (visited[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private void visit(int node) {
+        visited[node >>> 6] |= 1L << node;
+        visitedCount++;
+        visitedDegrees += graph.degree(node);
+    }
+
+    private void unvisit(int node) {
+        visited[node >>> 6] &= ~(1L << node);
+        visitedCount--;
+        visitedDegrees -= graph.degree(node);
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        ChunkTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, mid, body), new ChunkTask(mid, to, body));
+        }
+    }
+
+    private static final class Frontier {
+        private final int[] nodes;
+        private final int[] positions;
+        private final int size;
+        private final int messages;
+
+        Frontier(int[] nodes, int[] positions, int size, int messages) {
+            this.nodes = nodes;
+            this.positions = positions;
+            this.size = size;
+            this.messages = messages;
+        }
+    }
+
+    /**
+     * Resultado de um flooding em massa.
+     *
+     * @param messages total de mensagens QUERY processadas
+     * @param visitedNodes nós alcançados por alguma mensagem
+     * @param hitNode índice do primeiro nó com o recurso, ou -1
+     * @param hitLevel nível (hops de BFS) do hit, ou -1
+     * @param messagesAtHit mensagens processadas até o hit, inclusive
+     * @param hitChain nós da origem até o hit, seguindo o remetente da primeira mensagem
+     * @param bottomUpLevels níveis expandidos de baixo para cima
+     */
+    public record Result(int messages, int visitedNodes, int hitNode, int hitLevel,
+                         int messagesAtHit, int[] hitChain, int bottomUpLevels) {
+
+        public boolean found() {
+            return hitNode >= 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package p2p.search.simulator.simulation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de localização de um nó dentro de um {@link SimulationState}. Pertence a uma única
+ * geração do estado; depois de um fork é copiado antes da primeira escrita.
+ */
+final class LocationCache {
+
+    private final Object owner;
+    private final LinkedHashMap<String, String> entries;
+
+    LocationCache(Object owner) {
+        this.owner = owner;
+        this.entries = new LinkedHashMap<>();
+    }
+
+    private LocationCache(Object owner, LocationCache source) {
+        this.owner = owner;
+        synchronized (source) {
+            this.entries = new LinkedHashMap<>(source.entries);
+        }
+    }
+
+    boolean ownedBy(Object generation) {
+        return owner == generation;
+    }
+
+    LocationCache copyFor(Object generation) {
+        return new LocationCache(generation, this);
+    }
+
+    synchronized String get(String resource) {
+        return entries.get(resource);
+    }
+
+    /**
+     * Inserção com descarte FIFO; atualizar um recurso já presente não muda sua posição.
+     */
+    synchronized void put(String resource, String location, int capacity) {
+        entries.put(resource, location);
+        if (capacity > 0) {
+            Iterator<String> oldest = entries.keySet().iterator();
+            while (entries.size() > capacity) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    synchronized Map<String, String> snapshot() {
+        return Map.copyOf(entries);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
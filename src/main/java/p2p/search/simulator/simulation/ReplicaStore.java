@@ -0,0 +1,67 @@
+package p2p.search.simulator.simulation;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Réplicas guardadas por um nó dentro de um {@link SimulationState}, com o mesmo esquema de
+ * posse por geração do {@link LocationCache}.
+ */
+final class ReplicaStore {
+
+    private final Object owner;
+    private final LinkedHashSet<String> resources;
+
+    ReplicaStore(Object owner) {
+        this.owner = owner;
+        this.resources = new LinkedHashSet<>();
+    }
+
+    private ReplicaStore(Object owner, ReplicaStore source) {
+        this.owner = owner;
+        synchronized (source) {
+            this.resources = new LinkedHashSet<>(source.resources);
+        }
+    }
+
+    boolean ownedBy(Object generation) {
+        return owner == generation;
+    }
+
+    ReplicaStore copyFor(Object generation) {
+        return new ReplicaStore(generation, this);
+    }
+
+    synchronized boolean contains(String resource) {
+        return resources.contains(resource);
+    }
+
+    /**
+     * Inserção com descarte FIFO das réplicas mais antigas acima da capacidade.
+     *
+     * @return {@code false} se o nó já tinha a réplica
+     */
+    synchronized boolean add(String resource, int capacity, Consumer<String> evicted) {
+        if (!resources.add(resource)) {
+            return false;
+        }
+        if (capacity > 0) {
+            Iterator<String> oldest = resources.iterator();
+            while (resources.size() > capacity) {
+                evicted.accept(oldest.next());
+                oldest.remove();
+            }
+        }
+        return true;
+    }
+
+    synchronized Set<String> snapshot() {
+        return Set.copyOf(resources);
+    }
+
+    synchronized int size() {
+        return resources.size();
+    }
+}
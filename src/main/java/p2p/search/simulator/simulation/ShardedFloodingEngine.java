@@ -0,0 +1,553 @@
+package p2p.search.simulator.simulation;
+
+import p2p.search.simulator.profiling.FloodLevelEvent;
+import p2p.search.simulator.topology.AdjacencyGraph;
+import p2p.search.simulator.topology.GraphPartition;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+
+/**
+ * Flooding particionado: cada shard de um {@link GraphPartition} tem sua própria thread e seu
+ * laço de eventos sobre os nós que possui. Mensagens para nós de outro shard passam por
+ * {@link SpscMailbox} (uma por par de shards), e os níveis de TTL são sincronizados de forma
+ * conservadora por barreiras: nenhum shard começa o nível L+1 antes de todos terminarem o L.
+ *
+ * <p>O resultado é o mesmo do {@link FrontierFloodingEngine}: as posições globais das mensagens
+ * vêm de uma soma de prefixos paralela sobre os graus de saída da fronteira, e cada shard escolhe
+ * para os seus nós a mensagem de menor posição, sem atomics. Exige grafo não direcionado.
+ * Uma instância executa uma busca por vez; {@link #close()} encerra as threads. Se um shard falha,
+ * as barreiras são quebradas para que os outros também parem, e a instância continua utilizável.</p>
+ */
+public final class ShardedFloodingEngine implements AutoCloseable {
+
+    static final int DEFAULT_MAILBOX_CAPACITY = 1 << 14;
+
+    private static final int UNCLAIMED = Integer.MAX_VALUE;
+    private static final long FAILURE_POLL_MS = 10;
+
+    private final AdjacencyGraph graph;
+    private final GraphPartition partition;
+    private final int shards;
+    private final ExecutorService workers;
+    private final SpscMailbox[][] mailboxes;
+    private final Shard[] shardStates;
+
+    // Estado por nó: cada posição só é escrita pelo shard dono do nó
+    private final byte[] visited;
+    private final int[] parent;
+    private final int[] senderSlot;
+    private final int[] claim;
+    private final int[] claimSlot;
+
+    // Graus de saída da fronteira indexados pela posição da mensagem, depois soma de prefixos
+    private final int[] levelOut;
+    private final long[] partialSums;
+    private final int[] chunkBase;
+    private final AtomicInteger producersDone = new AtomicInteger();
+
+    private final CyclicBarrier zeroed;
+    private final CyclicBarrier outDegrees;
+    private final CyclicBarrier summed;
+    private final CyclicBarrier prefixed;
+    private final CyclicBarrier expanded;
+    private final CyclicBarrier collected;
+
+    // Estado do coordenador, alterado só nas ações das barreiras
+    private int ttl;
+    private IntPredicate holder;
+    private int level;
+    private int levelMessages;
+    private int nextMessages;
+    private int messages;
+    private int messagesBeforeLevel;
+    private int hit;
+    private int hitLevel;
+    private int hitPosition;
+    private int messagesAtHit;
+    private boolean truncate;
+    private volatile boolean done;
+    private volatile boolean failed;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private FloodLevelEvent levelEvent;
+
+    public ShardedFloodingEngine(AdjacencyGraph graph, GraphPartition partition) {
+        this(graph, partition, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * @param mailboxCapacity registros por mailbox; produtores com a mailbox cheia drenam a própria entrada
+     */
+    public ShardedFloodingEngine(AdjacencyGraph graph, GraphPartition partition, int mailboxCapacity) {
+        if (!graph.isSymmetric()) {
+            throw new IllegalArgumentException("Sharded flooding requires an undirected graph");
+        }
+        this.graph = graph;
+        this.partition = partition;
+        this.shards = partition.shards();
+
+        int n = graph.size();
+        this.visited = new byte[n];
+        this.parent = new int[n];
+        this.senderSlot = new int[n];
+        this.claim = new int[n];
+        this.claimSlot = new int[n];
+        Arrays.fill(claim, UNCLAIMED);
+        this.levelOut = new int[graph.edgeSlots() + 1];
+        this.partialSums = new long[shards];
+        this.chunkBase = new int[shards];
+
+        this.mailboxes = new SpscMailbox[shards][shards];
+        for (int from = 0; from < shards; from++) {
+            for (int to = 0; to < shards; to++) {
+                if (from != to) {
+                    mailboxes[from][to] = new SpscMailbox(mailboxCapacity);
+                }
+            }
+        }
+        this.shardStates = new Shard[shards];
+        for (int s = 0; s < shards; s++) {
+            shardStates[s] = new Shard(s);
+        }
+
+        this.zeroed = new CyclicBarrier(shards);
+        this.outDegrees = new CyclicBarrier(shards);
+        this.summed = new CyclicBarrier(shards, this::scanPartialSums);
+        this.prefixed = new CyclicBarrier(shards);
+        this.expanded = new CyclicBarrier(shards);
+        this.collected = new CyclicBarrier(shards, this::finishLevel);
+
+        this.workers = Executors.newFixedThreadPool(shards, runnable -> {
+            Thread thread = new Thread(runnable, "flood-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executa um flooding com parada no primeiro hit, com a mesma semântica de
+     * {@link FrontierFloodingEngine#run(int, int, IntPredicate)}. O predicado é chamado
+     * pelas threads dos shards.
+     */
+    public FrontierFloodingEngine.Result run(int source, int ttl, IntPredicate holder) {
+        if (ttl <= 0) {
+            return new FrontierFloodingEngine.Result(0, 0, -1, -1, 0, new int[0], 0);
+        }
+
+        Arrays.fill(visited, (byte) 0);
+        this.ttl = ttl;
+        this.holder = holder;
+        level = 0;
+        levelMessages = 1;
+        messages = 1;
+        messagesBeforeLevel = 0;
+        hit = -1;
+        hitLevel = -1;
+        hitPosition = -1;
+        messagesAtHit = 0;
+        truncate = false;
+        for (Shard shard : shardStates) {
+            shard.reset();
+        }
+
+        Shard owner = shardStates[partition.ownerOf(source)];
+        visited[source] = 1;
+        parent[source] = -1;
+        senderSlot[source] = -1;
+        owner.visitedCount = 1;
+        owner.frontierNodes[0] = source;
+        owner.frontierPositions[0] = 0;
+        owner.frontierSize = 1;
+        if (holder.test(source)) {
+            hit = source;
+            hitLevel = 0;
+            hitPosition = 0;
+            messagesAtHit = 1;
+        }
+        done = hit >= 0 || ttl - 1 <= 0;
+        levelEvent = new FloodLevelEvent();
+        levelEvent.begin();
+
+        failed = false;
+        failure.set(null);
+        List<Future<?>> futures = new java.util.ArrayList<>(shards);
+        for (Shard shard : shardStates) {
+            futures.add(workers.submit(shard::runLevels));
+        }
+        for (Future<?> future : futures) {
+            awaitShard(future);
+        }
+        if (failed) {
+            discardLevelState();
+            throw new IllegalStateException("Shard failed", failure.get());
+        }
+
+        int visitedCount = 0;
+        for (Shard shard : shardStates) {
+            visitedCount += shard.visitedCount;
+        }
+        return new FrontierFloodingEngine.Result(messages, visitedCount, hit, hitLevel, messagesAtHit,
+            chainTo(hit), 0);
+    }
+
+    private void awaitShard(Future<?> future) {
+        while (true) {
+            try {
+                future.get(FAILURE_POLL_MS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // Um shard pode ter chegado a uma barreira depois de ela ser reiniciada pela falha
+                if (failed) {
+                    breakBarriers();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            } catch (ExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marca a busca como falha e libera os shards parados nas barreiras.
+     */
+    private void abort(Throwable cause) {
+        if (!(cause instanceof Aborted)) {
+            failure.compareAndSet(null, cause);
+        }
+        failed = true;
+        breakBarriers();
+    }
+
+    private void breakBarriers() {
+        for (CyclicBarrier barrier : new CyclicBarrier[] {zeroed, outDegrees, summed, prefixed, expanded, collected}) {
+            barrier.reset();
+        }
+    }
+
+    /**
+     * Depois de uma falha, descarta o que os shards deixaram no meio de um nível.
+     */
+    private void discardLevelState() {
+        Arrays.fill(claim, UNCLAIMED);
+        for (int from = 0; from < shards; from++) {
+            for (int to = 0; to < shards; to++) {
+                if (from != to) {
+                    mailboxes[from][to].drain((node, position, reverseEdge) -> { });
+                }
+            }
+        }
+        producersDone.set(0);
+        breakBarriers();
+    }
+
+    private int[] chainTo(int node) {
+        if (node < 0) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int current = node; current >= 0; current = parent[current]) {
+            length++;
+        }
+        int[] chain = new int[length];
+        for (int current = node, i = length - 1; current >= 0; current = parent[current], i--) {
+            chain[i] = current;
+        }
+        return chain;
+    }
+
+    /**
+     * Ação da barreira de somas: base de cada pedaço e total de mensagens do próximo nível.
+     */
+    private void scanPartialSums() {
+        long running = 0;
+        for (int s = 0; s < shards; s++) {
+            chunkBase[s] = (int) running;
+            running += partialSums[s];
+        }
+        nextMessages = Math.toIntExact(running);
+        producersDone.set(0);
+    }
+
+    /**
+     * Ação da barreira de coleta: contabiliza o nível, detecta o primeiro hit e decide se continua
+     * (o hit encerra a busca).
+     */
+    private void finishLevel() {
+        level++;
+        messagesBeforeLevel = messages;
+        messages += nextMessages;
+        levelMessages = nextMessages;
+
+        truncate = false;
+        if (hit < 0) {
+            int bestPosition = UNCLAIMED;
+            int bestNode = -1;
+            for (Shard shard : shardStates) {
+                if (shard.candidateNode >= 0 && shard.candidatePosition < bestPosition) {
+                    bestPosition = shard.candidatePosition;
+                    bestNode = shard.candidateNode;
+                }
+            }
+            if (bestNode >= 0) {
+                hit = bestNode;
+                hitLevel = level;
+                hitPosition = bestPosition;
+                messagesAtHit = messagesBeforeLevel + bestPosition + 1;
+                messages = messagesAtHit;
+                truncate = true;
+            }
+        }
+
+        int frontier = 0;
+        for (Shard shard : shardStates) {
+            frontier += shard.frontierSize;
+        }
+        done = truncate || frontier == 0 || ttl - level - 1 <= 0;
+
+        if (levelEvent.shouldCommit()) {
+            levelEvent.level = level;
+            levelEvent.frontierSize = frontier;
+            levelEvent.messages = levelMessages;
+            levelEvent.shards = shards;
+            levelEvent.commit();
+        }
+        levelEvent = new FloodLevelEvent();
+        levelEvent.begin();
+    }
+
+    private void await(CyclicBarrier barrier) {
+        checkNotFailed();
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted at level barrier", e);
+        } catch (BrokenBarrierException e) {
+            throw new Aborted();
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failed) {
+            throw new Aborted();
+        }
+    }
+
+    /**
+     * Um shard parou porque outro falhou; não substitui a causa original.
+     */
+    private static final class Aborted extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        Aborted() {
+            super("Another shard failed");
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private final class Shard {
+        private final int id;
+        private int[] frontierNodes = new int[16];
+        private int[] frontierPositions = new int[16];
+        private int frontierSize;
+        private int[] touched = new int[16];
+        private int touchedSize;
+        private int visitedCount;
+        private int candidateNode;
+        private int candidatePosition;
+        private final SpscMailbox.Receiver receiver = this::claim;
+
+        Shard(int id) {
+            this.id = id;
+        }
+
+        void reset() {
+            frontierSize = 0;
+            touchedSize = 0;
+            visitedCount = 0;
+            candidateNode = -1;
+        }
+
+        void runLevels() {
+            try {
+                runLevelsUntilDone();
+            } catch (RuntimeException | Error e) {
+                abort(e);
+                throw e;
+            }
+        }
+
+        private void runLevelsUntilDone() {
+            while (!done) {
+                int from = chunkStart(levelMessages, id);
+                int to = chunkStart(levelMessages, id + 1);
+
+                Arrays.fill(levelOut, from, to, 0);
+                await(zeroed);
+
+                for (int i = 0; i < frontierSize; i++) {
+                    levelOut[frontierPositions[i]] = outDegree(frontierNodes[i]);
+                }
+                await(outDegrees);
+
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += levelOut[i];
+                }
+                partialSums[id] = sum;
+                await(summed);
+
+                int running = chunkBase[id];
+                for (int i = from; i < to; i++) {
+                    int out = levelOut[i];
+                    levelOut[i] = running;
+                    running += out;
+                }
+                await(prefixed);
+
+                expand();
+                await(expanded);
+
+                collect();
+                await(collected);
+
+                if (truncate) {
+                    truncateAfterHit();
+                }
+            }
+        }
+
+        private void expand() {
+            for (int i = 0; i < frontierSize; i++) {
+                int u = frontierNodes[i];
+                int sender = parent[u];
+                int position = levelOut[frontierPositions[i]];
+                for (int edge = graph.edgeStart(u); edge < graph.edgeEnd(u); edge++) {
+                    int v = graph.target(edge);
+                    if (v == sender) {
+                        continue;
+                    }
+                    if (visited[v] == 0) {
+                        int owner = partition.ownerOf(v);
+                        int reverse = graph.reverseEdge(edge);
+                        if (owner == id) {
+                            claim(v, position, reverse);
+                        } else {
+                            SpscMailbox mailbox = mailboxes[id][owner];
+                            while (!mailbox.offer(v, position, reverse)) {
+                                // Mailbox cheia: drena a própria entrada para não travar o outro shard
+                                checkNotFailed();
+                                drainInbox();
+                                Thread.yield();
+                            }
+                        }
+                    }
+                    position++;
+                }
+            }
+
+            producersDone.incrementAndGet();
+            while (true) {
+                boolean allDone = producersDone.get() == shards;
+                drainInbox();
+                if (allDone) {
+                    return;
+                }
+                checkNotFailed();
+                // yield em vez de spin: com menos núcleos que shards o produtor precisa rodar
+                Thread.yield();
+            }
+        }
+
+        private void drainInbox() {
+            for (int from = 0; from < shards; from++) {
+                if (from != id) {
+                    mailboxes[from][id].drain(receiver);
+                }
+            }
+        }
+
+        private void claim(int node, int position, int reverse) {
+            int current = claim[node];
+            if (current == UNCLAIMED) {
+                if (touchedSize == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedSize * 2);
+                }
+                touched[touchedSize++] = node;
+            } else if (current <= position) {
+                return;
+            }
+            claim[node] = position;
+            claimSlot[node] = reverse;
+        }
+
+        private void collect() {
+            long[] found = new long[touchedSize];
+            for (int i = 0; i < touchedSize; i++) {
+                int v = touched[i];
+                found[i] = ((long) claim[v] << 32) | v;
+                claim[v] = UNCLAIMED;
+            }
+            touchedSize = 0;
+            Arrays.sort(found);
+
+            if (frontierNodes.length < found.length) {
+                frontierNodes = new int[found.length];
+                frontierPositions = new int[found.length];
+            }
+            candidateNode = -1;
+            for (int i = 0; i < found.length; i++) {
+                int v = (int) found[i];
+                int position = (int) (found[i] >>> 32);
+                int slot = claimSlot[v];
+                parent[v] = graph.target(slot);
+                senderSlot[v] = slot;
+                visited[v] = 1;
+                frontierNodes[i] = v;
+                frontierPositions[i] = position;
+                if (hit < 0 && candidateNode < 0 && holder.test(v)) {
+                    candidateNode = v;
+                    candidatePosition = position;
+                }
+            }
+            frontierSize = found.length;
+            visitedCount += found.length;
+        }
+
+        private void truncateAfterHit() {
+            // A fila é descartada no hit e o dono não encaminha: o resto do nível nunca é processado
+            for (int i = 0; i < frontierSize; i++) {
+                if (frontierPositions[i] > hitPosition) {
+                    visited[frontierNodes[i]] = 0;
+                    visitedCount--;
+                }
+            }
+            frontierSize = 0;
+        }
+
+        private int outDegree(int node) {
+            return senderSlot[node] >= 0 ? graph.degree(node) - 1 : graph.degree(node);
+        }
+    }
+
+    private int chunkStart(int total, int shard) {
+        return (int) ((long) total * shard / shards);
+    }
+}
@@ -1,31 +1,54 @@
 package p2p.search.simulator.simulation;
 
+import p2p.search.simulator.link.MessageSizeModel;
+import p2p.search.simulator.metrics.SimulationMetrics;
 import p2p.search.simulator.model.Message;
 import p2p.search.simulator.model.Node;
+import p2p.search.simulator.model.QueryIdAllocator;
+import p2p.search.simulator.profiling.SearchEvent;
+import p2p.search.simulator.replication.ReplicationPolicy;
 import p2p.search.simulator.strategy.SearchStrategy;
+import p2p.search.simulator.topology.GraphPartition;
+import p2p.search.simulator.topology.IndexedGraph;
 import p2p.search.simulator.topology.NetworkTopology;
 import p2p.search.simulator.visualization.NetworkVisualizer;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
-public class SimulationManager {
+/**
+ * Executa buscas sobre uma topologia. Motores com threads próprias (flooding em shards, atores)
+ * são criados sob demanda e liberados por {@link #close()}.
+ */
+public class SimulationManager implements AutoCloseable {
 
     private static final long EDGE_HIGHLIGHT_DELAY_MS = 100;
     private static final long SUCCESS_PAUSE_MS = 2000;
+    private static final int PARTITION_ROUNDS = 10;
+    private static final int DEFAULT_CHECK_BACK_INTERVAL = 4;
+
+    /**
+     * Valor de {@link #setMaxHits(int)} para coletar todas as réplicas alcançáveis dentro do TTL.
+     */
+    public static final int ALL_HITS = 0;
 
     private final NetworkTopology topology;
+    private final SimulationState state;
     private final Queue<PendingMessage> messageQueue = new LinkedList<>();
-    private final Set<String> seenMessages = ConcurrentHashMap.newKeySet();
+    private final Set<SeenKey> seenQueries = ConcurrentHashMap.newKeySet();
+    private final QueryIdAllocator queryIds = new QueryIdAllocator();
     private final Set<String> visitedNodes = ConcurrentHashMap.newKeySet();
     private final AtomicInteger messageCount = new AtomicInteger(0);
     private final AtomicInteger stepCounter = new AtomicInteger(0);
@@ -37,15 +60,248 @@ public class SimulationManager {
     private volatile boolean searchCompleted;
     private volatile boolean searchSucceeded;
     private List<String> resultPath = new ArrayList<>();
+    private final List<SearchResult.Hit> hits = new ArrayList<>();
+    private int maxHits = 1;
+    private volatile boolean queryStopped;
+    private boolean frontierExpansion;
+    private FrontierFloodingEngine frontierEngine;
+    private int frontierShards = 1;
+    private ShardedFloodingEngine shardedEngine;
+    private ExecutionMode executionMode = ExecutionMode.QUEUE;
+    private ActorRuntime<PendingMessage> actors;
+    private boolean actorRun;
+    private final AtomicLong sendSequence = new AtomicLong();
+    private volatile long discardBefore;
+    private final Object logLock = new Object();
+    private SimulationMetrics metrics;
+    private TerminationMode terminationMode = TerminationMode.ORACLE;
+    private int checkBackInterval = DEFAULT_CHECK_BACK_INTERVAL;
+    private final Set<String> stoppedNodes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger controlMessages = new AtomicInteger(0);
+    private final AtomicInteger responsesAtSource = new AtomicInteger(0);
+    private SearchStrategy searchStrategy;
+    private ReplicationPolicy replicationPolicy;
+    private final Map<String, SearchStrategy> nodeStrategies = new ConcurrentHashMap<>();
+    private MessageSizeModel messageSizeModel;
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    private SplittableRandom random = new SplittableRandom(1);
 
     public SimulationManager(NetworkTopology topology) {
         this.topology = topology;
+        this.state = null;
+    }
+
+    /**
+     * Simulação com caches no {@code state} em vez dos {@link Node}: a topologia não é alterada e
+     * pode ser compartilhada por outras simulações.
+     */
+    public SimulationManager(NetworkTopology topology, SimulationState state) {
+        if (state.getTopology() != topology) {
+            throw new IllegalArgumentException("State belongs to a different topology");
+        }
+        this.topology = topology;
+        this.state = state;
     }
 
     public void setLogConsumer(Consumer<String> logConsumer) {
         this.logConsumer = logConsumer != null ? logConsumer : msg -> {};
     }
 
+    /**
+     * Define quantas réplicas a busca deve coletar antes de parar.
+     * O padrão (1) encerra no primeiro hit; {@link #ALL_HITS} continua até o TTL esgotar.
+     */
+    public void setMaxHits(int maxHits) {
+        if (maxHits < 0) {
+            throw new IllegalArgumentException("maxHits must be >= 0");
+        }
+        this.maxHits = maxHits;
+    }
+
+    public int getMaxHits() {
+        return maxHits;
+    }
+
+    /**
+     * Habilita o flooding em massa por nível ({@link FrontierFloodingEngine}) para estratégias
+     * que o suportam. Só é usado sem visualização e no modo de um único hit; o log passa a ser
+     * por nível em vez de por mensagem.
+     */
+    public void setFrontierExpansion(boolean enabled) {
+        this.frontierExpansion = enabled;
+    }
+
+    /**
+     * Número de shards do flooding por nível. Com mais de um, o {@link ShardedFloodingEngine}
+     * substitui o {@link FrontierFloodingEngine}, usando uma partição por label propagation.
+     */
+    public void setFrontierShards(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be >= 1");
+        }
+        if (shards != frontierShards && shardedEngine != null) {
+            shardedEngine.close();
+            shardedEngine = null;
+        }
+        this.frontierShards = shards;
+    }
+
+    /**
+     * Define como as mensagens são entregues aos nós. Os modos com atores só são usados
+     * sem visualização; com ela a busca volta para a fila global.
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        Objects.requireNonNull(mode, "Execution mode cannot be null");
+        if (mode != executionMode && actors != null) {
+            actors.close();
+            actors = null;
+        }
+        this.executionMode = mode;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Reinicia o gerador usado pelas estratégias aleatórias na escolha do próximo hop: com a mesma
+     * semente, a mesma sequência de buscas percorre os mesmos caminhos.
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Gerador das estratégias aleatórias. Não é thread-safe; serve às estratégias com uma única
+     * mensagem em trânsito por busca (walks), cujos passos nunca são concorrentes, mesmo com atores.
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Passa a alimentar os contadores dados (buscas, mensagens, fila e cache); {@code null} desliga.
+     * A mesma instância pode ser compartilhada por vários gerenciadores.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Define como a rede fica sabendo do fim da busca. Fora de {@link TerminationMode#ORACLE}
+     * o flooding por nível é desligado, pois os motores só modelam a parada instantânea.
+     */
+    public void setTerminationMode(TerminationMode mode) {
+        this.terminationMode = Objects.requireNonNull(mode, "Termination mode cannot be null");
+    }
+
+    public TerminationMode getTerminationMode() {
+        return terminationMode;
+    }
+
+    /**
+     * @param hops intervalo, em hops da consulta, entre consultas à origem no modo
+     *             {@link TerminationMode#CHECK_BACK}
+     */
+    public void setCheckBackInterval(int hops) {
+        if (hops < 1) {
+            throw new IllegalArgumentException("Check-back interval must be positive: " + hops);
+        }
+        this.checkBackInterval = hops;
+    }
+
+    /**
+     * Faz o nó usar sempre esta estratégia, em vez da passada a {@link #runSearch}, para simular
+     * redes mistas (alguns peers inundando, outros caminhando). O {@code Node} não é alterado.
+     *
+     * @param strategy estratégia do nó, ou {@code null} para voltar à da busca
+     */
+    public void setNodeStrategy(String nodeId, SearchStrategy strategy) {
+        topology.getNode(nodeId)
+            .orElseThrow(() -> new IllegalArgumentException("Nó inexistente: " + nodeId));
+        if (strategy == null) {
+            nodeStrategies.remove(nodeId);
+        } else {
+            nodeStrategies.put(nodeId, strategy);
+        }
+    }
+
+    public void clearNodeStrategies() {
+        nodeStrategies.clear();
+    }
+
+    /**
+     * Passa a somar em {@link SearchResult#getBytesTransferred()} o tamanho de cada mensagem que
+     * atravessa um enlace, incluindo o caminho que ela carrega. Desliga o flooding por nível,
+     * que não materializa as mensagens; {@code null} (padrão) não conta bytes.
+     */
+    public void setMessageSizeModel(MessageSizeModel model) {
+        this.messageSizeModel = model;
+    }
+
+    private SearchStrategy strategyOf(String nodeId) {
+        if (nodeStrategies.isEmpty()) {
+            return searchStrategy;
+        }
+        return nodeStrategies.getOrDefault(nodeId, searchStrategy);
+    }
+
+    /**
+     * Estado com os caches desta simulação, ou {@code null} se os caches ficam nos próprios nós.
+     */
+    public SimulationState getState() {
+        return state;
+    }
+
+    /**
+     * Aplica a política ao resultado de cada busca, criando réplicas no {@link SimulationState}.
+     *
+     * @param policy política de replicação, ou {@code null} para desligar
+     * @throws IllegalStateException se o gerenciador não tem estado próprio
+     */
+    public void setReplicationPolicy(ReplicationPolicy policy) {
+        if (policy != null && state == null) {
+            throw new IllegalStateException("Replication requires a SimulationState");
+        }
+        this.replicationPolicy = policy;
+    }
+
+    /**
+     * Indica se o nó tem o recurso, contando as réplicas criadas nesta simulação.
+     */
+    public boolean hasResource(Node node, String resource) {
+        return node.hasResource(resource) || (state != null && state.hasReplica(node.getId(), resource));
+    }
+
+    /**
+     * Consulta ao cache de localização do nó, usada pelas estratégias informadas.
+     */
+    public Optional<String> getCachedLocation(Node node, String resource) {
+        Optional<String> location = state != null
+            ? state.getCachedLocation(node.getId(), resource)
+            : node.getCachedLocation(resource);
+        SimulationMetrics current = metrics;
+        if (current != null) {
+            current.recordCacheLookup(location.isPresent());
+        }
+        return location;
+    }
+
+    /**
+     * Registra no cache do nó onde o recurso está, ao passar uma RESPONSE.
+     */
+    public void addToCache(Node node, String resource, String location) {
+        if (state != null) {
+            state.addToCache(node.getId(), resource, location);
+        } else {
+            node.addToCache(resource, location);
+        }
+    }
+
     public SearchResult runSearch(String sourceNodeId,
                                   String resource,
                                   int ttl,
@@ -55,8 +311,8 @@ public class SimulationManager {
         topology.getNode(sourceNodeId)
             .orElseThrow(() -> new IllegalArgumentException("Nó inexistente: " + sourceNodeId));
 
-        configureStrategy(strategy);
         resetInternalState(resource, sourceNodeId);
+        searchStrategy = strategy;
 
         if (visualizer != null) {
             visualizer.resetVisuals();
@@ -64,6 +320,7 @@ public class SimulationManager {
         }
 
         Message query = new Message.Builder()
+            .queryId(queryIds.next())
             .type(Message.Type.QUERY)
             .source(sourceNodeId)
             .target(sourceNodeId)
@@ -71,9 +328,33 @@ public class SimulationManager {
             .ttl(ttl)
             .build();
 
-        sendMessage(query, null);
+        SearchEvent event = new SearchEvent();
+        event.begin();
         long start = System.currentTimeMillis();
-        processMessages();
+        int visitedCount;
+        String mode = executionMode.name();
+        if (usesFrontierExpansion(strategy)) {
+            mode = frontierShards > 1 ? "SHARDED_FRONTIER" : "FRONTIER";
+            visitedCount = runFrontierFlood(sourceNodeId, resource, ttl);
+        } else if (executionMode != ExecutionMode.QUEUE && visualizer == null) {
+            if (actors == null) {
+                actors = new ActorRuntime<>(executionMode == ExecutionMode.DETERMINISTIC_ACTORS,
+                    (nodeId, pending) -> processMessage(pending));
+            }
+            actorRun = true;
+            try {
+                sendMessage(query, null);
+                actors.awaitQuiescence();
+            } finally {
+                actorRun = false;
+            }
+            searchCompleted = true;
+            visitedCount = visitedNodes.size();
+        } else {
+            sendMessage(query, null);
+            processMessages();
+            visitedCount = visitedNodes.size();
+        }
         long duration = System.currentTimeMillis() - start;
 
         if (!searchSucceeded) {
@@ -87,92 +368,214 @@ public class SimulationManager {
             searchCompleted = true;
         }
 
-        return new SearchResult(
+        SearchResult result = new SearchResult(
             searchSucceeded,
             Math.max(0, resultPath.size() - 1),
             messageCount.get(),
-            visitedNodes.size(),
+            visitedCount,
             duration,
             resource,
             sourceNodeId,
-            List.copyOf(resultPath)
+            List.copyOf(resultPath),
+            List.copyOf(hits),
+            controlMessages.get(),
+            bytesTransferred.get()
         );
+        if (replicationPolicy != null) {
+            replicationPolicy.replicate(result, state);
+        }
+        if (metrics != null) {
+            metrics.recordSearch(strategy.getName(), result);
+            metrics.setQueueDepth(0);
+        }
+        if (event.shouldCommit()) {
+            event.source = sourceNodeId;
+            event.resource = resource;
+            event.strategy = strategy.getName();
+            event.executionMode = mode;
+            event.ttl = ttl;
+            event.success = result.isSuccess();
+            event.messages = result.getTotalMessages();
+            event.visitedNodes = result.getVisitedNodes();
+            event.hops = result.getHops();
+            event.commit();
+        }
+        return result;
+    }
+
+    private boolean usesFrontierExpansion(SearchStrategy strategy) {
+        return frontierExpansion
+            && terminationMode == TerminationMode.ORACLE
+            && nodeStrategies.isEmpty()
+            && messageSizeModel == null
+            && visualizer == null
+            && maxHits == 1
+            && strategy.supportsFrontierExpansion();
     }
 
-    private void configureStrategy(SearchStrategy strategy) {
-        Collection<Node> nodes = topology.getAllNodes();
-        for (Node node : nodes) {
-            node.setSearchStrategy(strategy);
+    /**
+     * Executa o flooding pelo {@link FrontierFloodingEngine} e aplica o resultado como se as
+     * mensagens tivessem passado pela fila: contadores, hit, caminho e a RESPONSE de volta à origem.
+     *
+     * @return número de nós visitados
+     */
+    private int runFrontierFlood(String sourceNodeId, String resource, int ttl) {
+        IndexedGraph graph = topology.getIndexedGraph();
+        IntPredicate holder =
+            node -> topology.getNode(graph.idOf(node)).map(n -> hasResource(n, resource)).orElse(false);
+
+        FrontierFloodingEngine.Result result;
+        if (frontierShards > 1) {
+            if (shardedEngine == null) {
+                shardedEngine = new ShardedFloodingEngine(graph,
+                    GraphPartition.labelPropagation(graph, frontierShards, PARTITION_ROUNDS));
+            }
+            result = shardedEngine.run(graph.indexOf(sourceNodeId), ttl, holder);
+        } else {
+            if (frontierEngine == null) {
+                frontierEngine = new FrontierFloodingEngine(graph);
+            }
+            result = frontierEngine.run(graph.indexOf(sourceNodeId), ttl, holder);
         }
+
+        int messages = result.messages();
+        if (result.found()) {
+            int[] chain = result.hitChain();
+            String holderId = graph.idOf(result.hitNode());
+
+            // Mesmo formato de caminho das mensagens: origem repetida no primeiro hop e
+            // cada nó intermediário duas vezes (chegada e encaminhamento)
+            List<String> path = new ArrayList<>();
+            path.add(sourceNodeId);
+            path.add(sourceNodeId);
+            if (chain.length > 1) {
+                path.add(sourceNodeId);
+                for (int i = 1; i < chain.length - 1; i++) {
+                    path.add(graph.idOf(chain[i]));
+                    path.add(graph.idOf(chain[i]));
+                }
+                path.add(holderId);
+            }
+
+            searchSucceeded = true;
+            resultPath = path;
+            hits.add(new SearchResult.Hit(holderId, path.size() - 1,
+                result.messagesAtHit(), result.messagesAtHit()));
+            log(String.format("Recurso '%s' encontrado em %s", resource, holderId));
+
+            // RESPONSE percorre a cadeia de volta: um hop por nó, do dono até a origem
+            for (int i = chain.length - 1; i >= 0; i--) {
+                topology.getNode(graph.idOf(chain[i])).ifPresent(n -> addToCache(n, resource, holderId));
+            }
+            messages += chain.length;
+            log(String.format("Resposta para '%s' chegou à origem %s", resource, sourceNodeId));
+        }
+
+        messageCount.set(messages);
+        stepCounter.set(messages);
+        searchCompleted = true;
+        log(String.format("Flooding por nível: %d mensagens, %d nós visitados", messages, result.visitedNodes()));
+        return result.visitedNodes();
     }
 
     private void resetInternalState(String resource, String source) {
         messageQueue.clear();
-        seenMessages.clear();
+        seenQueries.clear();
         visitedNodes.clear();
         messageCount.set(0);
         stepCounter.set(0);
         searchCompleted = false;
         searchSucceeded = false;
         resultPath = new ArrayList<>();
+        hits.clear();
+        queryStopped = false;
+        stoppedNodes.clear();
+        controlMessages.set(0);
+        responsesAtSource.set(0);
+        bytesTransferred.set(0);
     }
 
     private void processMessages() {
         while (!messageQueue.isEmpty()) {
             PendingMessage pending = messageQueue.poll();
-            if (pending == null) {
-                continue;
+            if (pending != null) {
+                processMessage(pending);
             }
+        }
+
+        if (!searchSucceeded && !searchCompleted) {
+            searchCompleted = true;
+        }
+    }
 
-            Message message = pending.message();
-            String senderId = pending.senderId();
+    /**
+     * Entrega uma mensagem ao nó de destino. Chamado pelo laço da fila ou pelo ator do nó.
+     */
+    private void processMessage(PendingMessage pending) {
+        // Mensagens enviadas antes do primeiro hit são descartadas, como a fila limpa no modo QUEUE
+        if (pending.sequence() < discardBefore) {
+            return;
+        }
 
-            if (message.getType() == Message.Type.QUERY && message.getTtl() <= 0) {
-                log(String.format("TTL expirou antes de alcançar %s", message.getTarget()));
-                continue;
-            }
+        Message message = pending.message();
+        String senderId = pending.senderId();
 
-            Optional<Node> maybeTarget = topology.getNode(message.getTarget());
-            if (maybeTarget.isEmpty()) {
-                continue;
-            }
+        if (message.getType() == Message.Type.QUERY && message.getTtl() <= 0) {
+            log(String.format("TTL expirou antes de alcançar %s", message.getTarget()));
+            return;
+        }
 
-            Node targetNode = maybeTarget.get();
+        if (message.getType() == Message.Type.QUERY && queryStopped) {
+            return;
+        }
 
-            if (visualizer != null && senderId != null && !senderId.equals(message.getTarget())) {
-                visualizer.highlightEdge(senderId, message.getTarget(), EDGE_HIGHLIGHT_DELAY_MS);
-            }
+        Optional<Node> maybeTarget = topology.getNode(message.getTarget());
+        if (maybeTarget.isEmpty()) {
+            return;
+        }
 
-            logStep(senderId, message.getTarget(), message);
+        Node targetNode = maybeTarget.get();
 
-            messageCount.incrementAndGet();
-            visitedNodes.add(message.getTarget());
+        if (visualizer != null && senderId != null && !senderId.equals(message.getTarget())) {
+            visualizer.highlightEdge(senderId, message.getTarget(), EDGE_HIGHLIGHT_DELAY_MS);
+        }
 
-            if (visualizer != null) {
-                visualizer.setNodeState(message.getTarget(), NetworkVisualizer.NodeVisualState.VISITED);
-                sleep(visualizationDelay);
-            }
+        logStep(senderId, message.getTarget(), message);
 
-            Message enriched = message;
-            if (message.getType() == Message.Type.QUERY) {
-                enriched = message.addToPath(message.getTarget());
-            }
-            targetNode.receiveMessage(enriched, this, senderId);
+        messageCount.incrementAndGet();
+        if (message.getType() == Message.Type.CANCEL) {
+            controlMessages.incrementAndGet();
+        }
+        if (messageSizeModel != null && senderId != null && !senderId.equals(message.getTarget())) {
+            bytesTransferred.addAndGet(messageSizeModel.sizeOf(message));
+        }
+        visitedNodes.add(message.getTarget());
+        if (metrics != null) {
+            metrics.setQueueDepth(actorRun ? actors.inFlight() : messageQueue.size());
+        }
 
-            if (visualizer != null && !searchSucceeded) {
-                visualizer.setNodeState(message.getTarget(), NetworkVisualizer.NodeVisualState.IDLE);
-            }
+        if (visualizer != null) {
+            visualizer.setNodeState(message.getTarget(), NetworkVisualizer.NodeVisualState.VISITED);
+            sleep(visualizationDelay);
         }
 
-        if (!searchSucceeded && !searchCompleted) {
-            searchCompleted = true;
+        Message enriched = message;
+        if (message.getType() == Message.Type.QUERY) {
+            enriched = message.addToPath(message.getTarget());
+        }
+        targetNode.receiveMessage(enriched, strategyOf(message.getTarget()), this, senderId);
+
+        if (visualizer != null && !searchSucceeded) {
+            visualizer.setNodeState(message.getTarget(), NetworkVisualizer.NodeVisualState.IDLE);
         }
     }
 
     private void logStep(String from, String to, Message message) {
         int step = stepCounter.incrementAndGet();
         String logMessage;
-        if (from == null || from.equals(to)) {
+        if (message.getType() == Message.Type.CANCEL) {
+            logMessage = String.format("[Step %d] %s -> %s (CANCEL)", step, from, to);
+        } else if (from == null || from.equals(to)) {
             logMessage = String.format("[Step %d] %s processa mensagem (TTL %d)", step, to, message.getTtl());
         } else {
             logMessage = String.format("[Step %d] %s -> %s (TTL %d)", step, from, to, message.getTtl());
@@ -182,7 +585,9 @@ public class SimulationManager {
 
     private void log(String message) {
         if (logConsumer != null) {
-            logConsumer.accept(message);
+            synchronized (logLock) {
+                logConsumer.accept(message);
+            }
         }
     }
 
@@ -191,25 +596,38 @@ public class SimulationManager {
     }
 
     public void sendMessage(Message message, String senderId) {
-        messageQueue.add(new PendingMessage(message, senderId));
+        PendingMessage pending = new PendingMessage(message, senderId, sendSequence.getAndIncrement());
+        if (actorRun) {
+            actors.deliver(message.getTarget(), pending);
+        } else {
+            messageQueue.add(pending);
+        }
     }
 
-    public boolean hasSeenMessage(String messageId, String nodeId) {
-        String key = messageId + ":" + nodeId;
-        return !seenMessages.add(key);
+    public boolean hasSeenMessage(long queryId, String nodeId) {
+        return !seenQueries.add(new SeenKey(queryId, nodeId));
     }
 
     public void completeSuccess(Node node, Message message) {
-        if (searchSucceeded) {
-            return;
-        }
-        searchSucceeded = true;
+        boolean limitReached;
+        // Nos modos com atores, vários nós podem encontrar o recurso ao mesmo tempo
+        synchronized (hits) {
+            if (hitLimitReached() || hits.stream().anyMatch(hit -> hit.nodeId().equals(node.getId()))) {
+                return;
+            }
 
-        List<String> path = new ArrayList<>(message.getPathHistory());
-        if (path.isEmpty() || !path.get(path.size() - 1).equals(node.getId())) {
-            path.add(node.getId());
+            List<String> path = new ArrayList<>(message.getPathHistory());
+            if (path.isEmpty() || !path.get(path.size() - 1).equals(node.getId())) {
+                path.add(node.getId());
+            }
+            hits.add(new SearchResult.Hit(node.getId(), path.size() - 1, stepCounter.get(), messageCount.get()));
+
+            if (!searchSucceeded) {
+                searchSucceeded = true;
+                resultPath = path;
+            }
+            limitReached = hitLimitReached();
         }
-        resultPath = path;
 
         log(String.format("Recurso '%s' encontrado em %s", message.getResource(), node.getId()));
 
@@ -218,46 +636,148 @@ public class SimulationManager {
             sleep(SUCCESS_PAUSE_MS);
         }
 
-        startResponseFlow(node, message);
+        if (maxHits == 1) {
+            startResponseFlow(node, message);
+            return;
+        }
+
+        // Modo multi-hit: respostas anteriores continuam em trânsito; só as consultas param no limite
+        if (limitReached) {
+            if (terminationMode == TerminationMode.ORACLE) {
+                queryStopped = true;
+                messageQueue.removeIf(pending -> pending.message().getType() == Message.Type.QUERY);
+            } else {
+                stopAt(node, message);
+            }
+        }
+        sendMessage(message.createResponse(node.getId(), true), null);
     }
 
-    private void startResponseFlow(Node node, Message originalQuery) {
-        Message response = originalQuery.createResponse(node.getId(), true);
-        List<String> reversePath = response.getPathHistory();
+    /**
+     * Consultado pelas estratégias antes de encaminhar uma consulta.
+     *
+     * @return {@code false} se o nó já sabe que a busca terminou
+     */
+    public boolean shouldForward(Node node, Message message) {
+        switch (terminationMode) {
+            case ORACLE:
+                return !queryStopped;
+            case CANCEL_WAVE:
+                return !stoppedNodes.contains(node.getId());
+            case CHECK_BACK:
+                if (stoppedNodes.contains(node.getId())) {
+                    return false;
+                }
+                if (node.getId().equals(message.getSource()) || message.getHops() % checkBackInterval != 0) {
+                    return true;
+                }
+                // Pergunta e resposta diretas com a origem, fora do overlay
+                messageCount.addAndGet(2);
+                controlMessages.addAndGet(2);
+                if (sourceSatisfied()) {
+                    stoppedNodes.add(node.getId());
+                    return false;
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
 
-        if (reversePath.size() < 2) {
-            searchCompleted = true;
+    /**
+     * Entrega de uma mensagem CANCEL: o nó para de encaminhar a consulta e, se chegou a vê-la,
+     * repassa o cancelamento aos vizinhos.
+     */
+    public void receiveCancel(Node node, Message cancel, String senderId) {
+        if (!stoppedNodes.add(node.getId())) {
             return;
         }
+        if (seenQueries.contains(new SeenKey(cancel.getQueryId(), node.getId()))) {
+            sendCancel(node, cancel, senderId);
+        }
+    }
 
-        messageQueue.clear();
+    /**
+     * O dono do recurso é o primeiro a saber do fim da busca.
+     */
+    private void stopAt(Node node, Message query) {
+        if (terminationMode == TerminationMode.NONE) {
+            return;
+        }
+        stoppedNodes.add(node.getId());
+        if (terminationMode == TerminationMode.CANCEL_WAVE) {
+            sendCancel(node, query, null);
+        }
+    }
 
-        for (int i = 0; i < reversePath.size(); i++) {
-            String current = reversePath.get(i);
-            
-            Message hop = response.toBuilder()
-                .target(current)
-                .build();
-            
-            sendMessage(hop, i > 0 ? reversePath.get(i - 1) : null);
+    private void sendCancel(Node node, Message query, String senderId) {
+        Message cancel = new Message.Builder()
+            .queryId(query.getQueryId())
+            .type(Message.Type.CANCEL)
+            .source(node.getId())
+            .target(node.getId())
+            .resource(query.getResource())
+            .build();
+        for (String neighborId : node.getNeighbors()) {
+            if (!neighborId.equals(senderId)) {
+                sendMessage(cancel.withTarget(neighborId), node.getId());
+            }
         }
-        
-        searchCompleted = true;
+    }
+
+    private boolean sourceSatisfied() {
+        int needed = maxHits == ALL_HITS ? Integer.MAX_VALUE : maxHits;
+        return responsesAtSource.get() >= needed;
+    }
+
+    private boolean hitLimitReached() {
+        return maxHits != ALL_HITS && hits.size() >= maxHits;
+    }
+
+    private void startResponseFlow(Node node, Message originalQuery) {
+        if (terminationMode == TerminationMode.ORACLE) {
+            // Parada instantânea: nem o dono do recurso encaminha a consulta
+            queryStopped = true;
+            messageQueue.clear();
+            discardBefore = sendSequence.get();
+        } else {
+            stopAt(node, originalQuery);
+        }
+        sendMessage(originalQuery.createResponse(node.getId(), true), null);
     }
 
     public void continueResponse(Node currentNode, Message responseMessage) {
+        Message next = responseMessage.toPredecessor();
+        if (next == null) {
+            log(String.format("Resposta para '%s' chegou à origem %s",
+                responseMessage.getResource(), currentNode.getId()));
+            responsesAtSource.incrementAndGet();
+            searchCompleted = true;
+            return;
+        }
+        sendMessage(next, currentNode.getId());
     }
 
     public void reset() {
         messageQueue.clear();
-        seenMessages.clear();
+        seenQueries.clear();
         visitedNodes.clear();
         messageCount.set(0);
         stepCounter.set(0);
         searchCompleted = false;
         searchSucceeded = false;
         resultPath = new ArrayList<>();
-        topology.getAllNodes().forEach(Node::clearCache);
+        hits.clear();
+        queryStopped = false;
+        stoppedNodes.clear();
+        controlMessages.set(0);
+        responsesAtSource.set(0);
+        bytesTransferred.set(0);
+        if (state != null) {
+            state.clear();
+        } else {
+            topology.getAllNodes().forEach(Node::clearCache);
+        }
         if (visualizer != null) {
             visualizer.resetVisuals();
         }
@@ -283,6 +803,22 @@ public class SimulationManager {
         return messageCount.get();
     }
 
+    /**
+     * Encerra as threads dos motores criados por este gerenciador. Um gerenciador fechado pode
+     * voltar a ser usado; os motores são recriados na próxima busca que precisar deles.
+     */
+    @Override
+    public void close() {
+        if (shardedEngine != null) {
+            shardedEngine.close();
+            shardedEngine = null;
+        }
+        if (actors != null) {
+            actors.close();
+            actors = null;
+        }
+    }
+
     private void sleep(long millis) {
         try {
             Thread.sleep(millis);
@@ -291,7 +827,9 @@ public class SimulationManager {
         }
     }
 
-    private record PendingMessage(Message message, String senderId) { }
+    private record PendingMessage(Message message, String senderId, long sequence) { }
+
+    private record SeenKey(long queryId, String nodeId) { }
 
     public static class SearchResult {
         private final boolean success;
@@ -302,6 +840,9 @@ public class SimulationManager {
         private final String resource;
         private final String sourceNode;
         private final List<String> path;
+        private final List<Hit> hits;
+        private final int controlMessages;
+        private final long bytesTransferred;
 
         public SearchResult(boolean success,
                             int hops,
@@ -311,6 +852,46 @@ public class SimulationManager {
                             String resource,
                             String sourceNode,
                             List<String> path) {
+            this(success, hops, totalMessages, visitedNodes, durationMs, resource, sourceNode, path, List.of());
+        }
+
+        public SearchResult(boolean success,
+                            int hops,
+                            int totalMessages,
+                            int visitedNodes,
+                            long durationMs,
+                            String resource,
+                            String sourceNode,
+                            List<String> path,
+                            List<Hit> hits) {
+            this(success, hops, totalMessages, visitedNodes, durationMs, resource, sourceNode, path, hits, 0);
+        }
+
+        public SearchResult(boolean success,
+                            int hops,
+                            int totalMessages,
+                            int visitedNodes,
+                            long durationMs,
+                            String resource,
+                            String sourceNode,
+                            List<String> path,
+                            List<Hit> hits,
+                            int controlMessages) {
+            this(success, hops, totalMessages, visitedNodes, durationMs, resource, sourceNode, path, hits,
+                controlMessages, 0);
+        }
+
+        public SearchResult(boolean success,
+                            int hops,
+                            int totalMessages,
+                            int visitedNodes,
+                            long durationMs,
+                            String resource,
+                            String sourceNode,
+                            List<String> path,
+                            List<Hit> hits,
+                            int controlMessages,
+                            long bytesTransferred) {
             this.success = success;
             this.hops = hops;
             this.totalMessages = totalMessages;
@@ -319,6 +900,9 @@ public class SimulationManager {
             this.resource = resource;
             this.sourceNode = sourceNode;
             this.path = path;
+            this.hits = hits;
+            this.controlMessages = controlMessages;
+            this.bytesTransferred = bytesTransferred;
         }
 
         public boolean isSuccess() {
@@ -333,6 +917,21 @@ public class SimulationManager {
             return totalMessages;
         }
 
+        /**
+         * Mensagens de terminação (CANCEL e consultas à origem), já incluídas em
+         * {@link #getTotalMessages()}.
+         */
+        public int getControlMessages() {
+            return controlMessages;
+        }
+
+        /**
+         * Bytes das mensagens entre nós, se há um {@link MessageSizeModel} configurado; 0 caso contrário.
+         */
+        public long getBytesTransferred() {
+            return bytesTransferred;
+        }
+
         public int getVisitedNodes() {
             return visitedNodes;
         }
@@ -352,5 +951,32 @@ public class SimulationManager {
         public List<String> getPath() {
             return path;
         }
+
+        /**
+         * Réplicas encontradas, em ordem de chegada. No modo padrão contém apenas o primeiro hit.
+         */
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        /**
+         * Custo marginal médio, em mensagens, de cada réplica além da primeira.
+         *
+         * @return mensagens por hit adicional, ou {@code NaN} se houve menos de dois hits
+         */
+        public double getMessagesPerAdditionalHit() {
+            if (hits.size() < 2) {
+                return Double.NaN;
+            }
+            Hit first = hits.get(0);
+            Hit last = hits.get(hits.size() - 1);
+            return (double) (last.messagesSpent() - first.messagesSpent()) / (hits.size() - 1);
+        }
+
+        /**
+         * Um nó que possui o recurso, com a distância em hops, o passo de simulação em que a
+         * consulta chegou e o total de mensagens gastas até aquele momento.
+         */
+        public record Hit(String nodeId, int hops, long arrivalStep, int messagesSpent) { }
     }
 }
@@ -0,0 +1,234 @@
+package p2p.search.simulator.simulation;
+
+import p2p.search.simulator.profiling.CacheLookupEvent;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Estado mutável de uma simulação (caches de localização e réplicas criadas durante a execução)
+ * separado da topologia, que passa a ser
+ * só leitura: várias simulações, inclusive em paralelo, podem compartilhar o mesmo
+ * {@link NetworkTopology}, cada uma com o seu estado.
+ *
+ * <p>Criar um estado custa um array de referências vazias; os caches são alocados na primeira
+ * escrita. {@link #fork()} copia só esse array: pai e filho passam a compartilhar os caches e cada
+ * lado copia o cache (ou as réplicas) de um nó na primeira escrita nele (copy-on-write). Assim um estado aquecido
+ * pode ser clonado para experimentos "e se". Leituras e escritas são thread-safe; o fork deve ser
+ * feito com o estado parado (entre buscas).</p>
+ */
+public final class SimulationState {
+
+    private final NetworkTopology topology;
+    private final IndexedGraph graph;
+    private final AtomicReferenceArray<LocationCache> caches;
+    private final AtomicReferenceArray<ReplicaStore> replicas;
+    private final Map<String, AtomicInteger> replicaCounts;
+    private volatile Object generation = new Object();
+    private volatile int cacheCapacity;
+
+    private SimulationState(NetworkTopology topology, AtomicReferenceArray<LocationCache> caches,
+                            AtomicReferenceArray<ReplicaStore> replicas, Map<String, AtomicInteger> replicaCounts,
+                            int cacheCapacity) {
+        this.topology = topology;
+        this.graph = topology.getIndexedGraph();
+        this.caches = caches;
+        this.replicas = replicas;
+        this.replicaCounts = replicaCounts;
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    /**
+     * Estado vazio (caches frios) sobre a topologia.
+     */
+    public static SimulationState create(NetworkTopology topology) {
+        int size = topology.getIndexedGraph().size();
+        return new SimulationState(topology, new AtomicReferenceArray<>(size), new AtomicReferenceArray<>(size),
+            new ConcurrentHashMap<>(), 0);
+    }
+
+    /**
+     * Cópia lógica deste estado em O(nós), sem copiar entradas de cache.
+     */
+    public SimulationState fork() {
+        int size = caches.length();
+        AtomicReferenceArray<LocationCache> sharedCaches = new AtomicReferenceArray<>(size);
+        AtomicReferenceArray<ReplicaStore> sharedReplicas = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sharedCaches.set(i, caches.get(i));
+            sharedReplicas.set(i, replicas.get(i));
+        }
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        replicaCounts.forEach((resource, count) -> counts.put(resource, new AtomicInteger(count.get())));
+        // Nova geração: os caches atuais deixam de ser deste estado e serão copiados antes de mudar
+        generation = new Object();
+        return new SimulationState(topology, sharedCaches, sharedReplicas, counts, cacheCapacity);
+    }
+
+    public NetworkTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Limita o cache de cada nó a {@code capacity} entradas (FIFO); 0 deixa sem limite. Vale para
+     * as próximas inserções.
+     */
+    public void setCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must be >= 0");
+        }
+        this.cacheCapacity = capacity;
+    }
+
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    public Optional<String> getCachedLocation(String nodeId, String resource) {
+        LocationCache cache = caches.get(index(nodeId));
+        String location = cache != null ? cache.get(resource) : null;
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.isEnabled()) {
+            event.node = nodeId;
+            event.resource = resource;
+            event.hit = location != null;
+            event.location = location;
+            event.commit();
+        }
+        return Optional.ofNullable(location);
+    }
+
+    public void addToCache(String nodeId, String resource, String location) {
+        int node = index(nodeId);
+        Object current = generation;
+        LocationCache cache = caches.get(node);
+        while (cache == null || !cache.ownedBy(current)) {
+            LocationCache replacement = cache == null ? new LocationCache(current) : cache.copyFor(current);
+            if (caches.compareAndSet(node, cache, replacement)) {
+                cache = replacement;
+            } else {
+                cache = caches.get(node);
+            }
+        }
+        cache.put(resource, location, cacheCapacity);
+    }
+
+    /**
+     * @return cópia imutável do cache do nó
+     */
+    public Map<String, String> getCache(String nodeId) {
+        LocationCache cache = caches.get(index(nodeId));
+        return cache != null ? cache.snapshot() : Map.of();
+    }
+
+    /**
+     * Total de entradas em todos os caches.
+     */
+    public long cachedEntries() {
+        long total = 0;
+        for (int i = 0; i < caches.length(); i++) {
+            LocationCache cache = caches.get(i);
+            if (cache != null) {
+                total += cache.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Indica se o nó tem o recurso, original da configuração ou replicado nesta simulação.
+     */
+    public boolean hasResource(String nodeId, String resource) {
+        return hasReplica(nodeId, resource)
+            || topology.getNode(nodeId).map(node -> node.hasResource(resource)).orElse(false);
+    }
+
+    public boolean hasReplica(String nodeId, String resource) {
+        ReplicaStore store = replicas.get(index(nodeId));
+        return store != null && store.contains(resource);
+    }
+
+    /**
+     * Cria uma réplica no nó. Acima de {@code capacity} réplicas (0 = sem limite) as mais antigas
+     * são descartadas; os recursos originais do nó não contam nem saem.
+     *
+     * @return {@code true} se o nó não tinha o recurso
+     */
+    public boolean addReplica(String nodeId, String resource, int capacity) {
+        int node = index(nodeId);
+        if (topology.getNode(nodeId).map(n -> n.hasResource(resource)).orElse(false)) {
+            return false;
+        }
+        Object current = generation;
+        ReplicaStore store = replicas.get(node);
+        while (store == null || !store.ownedBy(current)) {
+            ReplicaStore replacement = store == null ? new ReplicaStore(current) : store.copyFor(current);
+            if (replicas.compareAndSet(node, store, replacement)) {
+                store = replacement;
+            } else {
+                store = replicas.get(node);
+            }
+        }
+        boolean added = store.add(resource, capacity,
+            evicted -> replicaCounts.get(evicted).decrementAndGet());
+        if (added) {
+            replicaCounts.computeIfAbsent(resource, key -> new AtomicInteger()).incrementAndGet();
+        }
+        return added;
+    }
+
+    /**
+     * Réplicas do recurso criadas nesta simulação (sem contar as cópias originais).
+     */
+    public int replicaCount(String resource) {
+        AtomicInteger count = replicaCounts.get(resource);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return cópia imutável das réplicas guardadas pelo nó
+     */
+    public Set<String> getReplicas(String nodeId) {
+        ReplicaStore store = replicas.get(index(nodeId));
+        return store != null ? store.snapshot() : Set.of();
+    }
+
+    /**
+     * Total de réplicas em todos os nós.
+     */
+    public long replicaEntries() {
+        long total = 0;
+        for (int i = 0; i < replicas.length(); i++) {
+            ReplicaStore store = replicas.get(i);
+            if (store != null) {
+                total += store.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Esvazia caches e réplicas sem afetar estados derivados por {@link #fork()}.
+     */
+    public void clear() {
+        for (int i = 0; i < caches.length(); i++) {
+            caches.set(i, null);
+            replicas.set(i, null);
+        }
+        replicaCounts.clear();
+    }
+
+    private int index(String nodeId) {
+        int node = graph.indexOf(nodeId);
+        if (node < 0) {
+            throw new IllegalArgumentException("Nó inexistente: " + nodeId);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,99 @@
+package p2p.search.simulator.simulation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fila circular lock-free de um produtor e um consumidor para mensagens entre shards.
+ * Cada registro tem três ints (nó de destino, posição da mensagem, aresta reversa).
+ */
+final class SpscMailbox {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscMailbox.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscMailbox.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Consumidor de registros drenados.
+     */
+    @FunctionalInterface
+    interface Receiver {
+        void accept(int node, int position, int reverseEdge);
+    }
+
+    private final int[] buffer;
+    private final int mask;
+
+    // Contadores separados em linhas de cache diferentes para evitar false sharing
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+    private volatile long head;
+    @SuppressWarnings("unused")
+    private long q1, q2, q3, q4, q5, q6, q7;
+    private volatile long tail;
+    @SuppressWarnings("unused")
+    private long r1, r2, r3, r4, r5, r6, r7;
+
+    private long cachedHead;
+
+    /**
+     * @param capacity número de registros; arredondado para potência de dois
+     */
+    SpscMailbox(int capacity) {
+        int records = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.buffer = new int[records * 3];
+        this.mask = records - 1;
+    }
+
+    /**
+     * Chamado apenas pelo produtor.
+     *
+     * @return {@code false} se a fila está cheia
+     */
+    boolean offer(int node, int position, int reverseEdge) {
+        long t = tail;
+        if (t - cachedHead > mask) {
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (t - cachedHead > mask) {
+                return false;
+            }
+        }
+        int slot = (int) (t & mask) * 3;
+        buffer[slot] = node;
+        buffer[slot + 1] = position;
+        buffer[slot + 2] = reverseEdge;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    /**
+     * Chamado apenas pelo consumidor: entrega todos os registros disponíveis.
+     *
+     * @return número de registros drenados
+     */
+    int drain(Receiver receiver) {
+        long h = head;
+        long available = (long) TAIL.getAcquire(this);
+        for (long i = h; i < available; i++) {
+            int slot = (int) (i & mask) * 3;
+            receiver.accept(buffer[slot], buffer[slot + 1], buffer[slot + 2]);
+        }
+        if (available > h) {
+            HEAD.setRelease(this, available);
+        }
+        return (int) (available - h);
+    }
+
+    boolean isEmpty() {
+        return (long) TAIL.getAcquire(this) == head;
+    }
+}
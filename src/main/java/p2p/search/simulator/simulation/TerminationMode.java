@@ -0,0 +1,28 @@
+package p2p.search.simulator.simulation;
+
+/**
+ * Como o resto da rede descobre que a busca terminou depois do hit.
+ */
+public enum TerminationMode {
+    /**
+     * Parada instantânea: no hit, as consultas pendentes são descartadas sem custo e nem o dono
+     * do recurso encaminha (padrão). É o limite inferior dos outros modos e a semântica
+     * reproduzida pelos motores de flooding por nível.
+     */
+    ORACLE,
+    /**
+     * O dono do recurso inicia uma onda de mensagens CANCEL que se propaga pela rede na mesma
+     * velocidade das consultas; nós cancelados deixam de encaminhar. Consultas já em trânsito
+     * continuam sendo entregues e contadas.
+     */
+    CANCEL_WAVE,
+    /**
+     * A cada {@link SimulationManager#setCheckBackInterval(int) N hops} o nó pergunta à origem,
+     * por fora do overlay (ida e volta), se ela já recebeu a resposta antes de encaminhar.
+     */
+    CHECK_BACK,
+    /**
+     * Sem terminação: a consulta se espalha até o TTL esgotar.
+     */
+    NONE
+}
@@ -12,16 +12,16 @@ public class FloodingStrategy implements SearchStrategy {
             return;
         }
         
-        if (simulationManager.hasSeenMessage(message.getId(), currentNode.getId())) {
+        if (simulationManager.hasSeenMessage(message.getQueryId(), currentNode.getId())) {
             return;
         }
         
-        if (currentNode.hasResource(message.getResource())) {
+        if (simulationManager.hasResource(currentNode, message.getResource())) {
             simulationManager.completeSuccess(currentNode, message);
         }
-        
-        Message forwardMessage = message.decrementTTL().addToPath(currentNode.getId());
-        if (forwardMessage.getTtl() <= 0) {
+
+        Message forwardMessage = message.forwardFrom(currentNode.getId());
+        if (forwardMessage.getTtl() <= 0 || !simulationManager.shouldForward(currentNode, message)) {
             return;
         }
         
@@ -29,9 +29,7 @@ public class FloodingStrategy implements SearchStrategy {
             if (neighborId.equals(senderId)) {
                 continue;
             }
-            Message neighborMessage = forwardMessage.toBuilder()
-                .target(neighborId)
-                .build();
+            Message neighborMessage = forwardMessage.withTarget(neighborId);
             simulationManager.sendMessage(neighborMessage, currentNode.getId());
         }
     }
@@ -45,4 +43,9 @@ public class FloodingStrategy implements SearchStrategy {
     public boolean isInformed() {
         return false;
     }
+
+    @Override
+    public boolean supportsFrontierExpansion() {
+        return getClass() == FloodingStrategy.class;
+    }
 }
@@ -14,20 +14,24 @@ public class InformedFloodingStrategy implements SearchStrategy {
             return;
         }
 
-        if (simulationManager.hasSeenMessage(message.getId(), currentNode.getId())) {
+        if (simulationManager.hasSeenMessage(message.getQueryId(), currentNode.getId())) {
             return;
         }
 
-        if (currentNode.hasResource(message.getResource())) {
+        if (simulationManager.hasResource(currentNode, message.getResource())) {
             simulationManager.completeSuccess(currentNode, message);
             return;
         }
 
+        if (!simulationManager.shouldForward(currentNode, message)) {
+            return;
+        }
+
         if (tryDirect(currentNode, message, simulationManager)) {
             return;
         }
 
-        Message forwardMessage = message.decrementTTL().addToPath(currentNode.getId());
+        Message forwardMessage = message.forwardFrom(currentNode.getId());
         if (forwardMessage.getTtl() <= 0) {
             return;
         }
@@ -36,15 +40,13 @@ public class InformedFloodingStrategy implements SearchStrategy {
             if (neighborId.equals(senderId)) {
                 continue;
             }
-            Message neighborMessage = forwardMessage.toBuilder()
-                .target(neighborId)
-                .build();
+            Message neighborMessage = forwardMessage.withTarget(neighborId);
             simulationManager.sendMessage(neighborMessage, currentNode.getId());
         }
     }
 
     private boolean tryDirect(Node currentNode, Message message, SimulationManager simulationManager) {
-        Optional<String> cachedTarget = currentNode.getCachedLocation(message.getResource());
+        Optional<String> cachedTarget = simulationManager.getCachedLocation(currentNode, message.getResource());
         if (cachedTarget.isEmpty()) {
             return false;
         }
@@ -55,14 +57,12 @@ public class InformedFloodingStrategy implements SearchStrategy {
             return true;
         }
 
-        Message direct = message.decrementTTL().addToPath(currentNode.getId());
+        Message direct = message.forwardFrom(currentNode.getId());
         if (direct.getTtl() <= 0) {
             return false;
         }
 
-        Message directMessage = direct.toBuilder()
-            .target(destination)
-            .build();
+        Message directMessage = direct.withTarget(destination);
         simulationManager.sendMessage(directMessage, currentNode.getId());
         return true;
     }
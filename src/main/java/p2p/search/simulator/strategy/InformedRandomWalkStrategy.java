@@ -7,7 +7,6 @@ import p2p.search.simulator.simulation.SimulationManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
 
 
 public class InformedRandomWalkStrategy implements SearchStrategy {
@@ -18,20 +17,24 @@ public class InformedRandomWalkStrategy implements SearchStrategy {
             return;
         }
 
-        if (simulationManager.hasSeenMessage(message.getId(), currentNode.getId())) {
+        if (simulationManager.hasSeenMessage(message.getQueryId(), currentNode.getId())) {
             return;
         }
 
-        if (currentNode.hasResource(message.getResource())) {
+        if (simulationManager.hasResource(currentNode, message.getResource())) {
             simulationManager.completeSuccess(currentNode, message);
             return;
         }
 
+        if (!simulationManager.shouldForward(currentNode, message)) {
+            return;
+        }
+
         if (tryDirect(currentNode, message, simulationManager)) {
             return;
         }
 
-        Message forward = message.decrementTTL().addToPath(currentNode.getId());
+        Message forward = message.forwardFrom(currentNode.getId());
         if (forward.getTtl() <= 0) {
             return;
         }
@@ -46,15 +49,13 @@ public class InformedRandomWalkStrategy implements SearchStrategy {
             return;
         }
 
-        String nextHop = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
-        Message neighborMessage = forward.toBuilder()
-            .target(nextHop)
-            .build();
+        String nextHop = candidates.get(simulationManager.getRandom().nextInt(candidates.size()));
+        Message neighborMessage = forward.withTarget(nextHop);
         simulationManager.sendMessage(neighborMessage, currentNode.getId());
     }
 
     private boolean tryDirect(Node currentNode, Message message, SimulationManager simulationManager) {
-        Optional<String> cachedTarget = currentNode.getCachedLocation(message.getResource());
+        Optional<String> cachedTarget = simulationManager.getCachedLocation(currentNode, message.getResource());
         if (cachedTarget.isEmpty()) {
             return false;
         }
@@ -65,14 +66,12 @@ public class InformedRandomWalkStrategy implements SearchStrategy {
             return true;
         }
 
-        Message direct = message.decrementTTL().addToPath(currentNode.getId());
+        Message direct = message.forwardFrom(currentNode.getId());
         if (direct.getTtl() <= 0) {
             return false;
         }
 
-        Message directMessage = direct.toBuilder()
-            .target(destination)
-            .build();
+        Message directMessage = direct.withTarget(destination);
         simulationManager.sendMessage(directMessage, currentNode.getId());
         return true;
     }
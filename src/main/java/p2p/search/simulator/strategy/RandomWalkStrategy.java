@@ -2,12 +2,11 @@ package p2p.search.simulator.strategy;
 
 import p2p.search.simulator.model.Message;
 import p2p.search.simulator.model.Node;
+import p2p.search.simulator.model.WalkerState;
 import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.topology.IndexedGraph;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 
 public class RandomWalkStrategy implements SearchStrategy {
 
@@ -17,55 +16,67 @@ public class RandomWalkStrategy implements SearchStrategy {
 			return;
 		}
 
-		if (simulationManager.hasSeenMessage(message.getId(), currentNode.getId())) {
+		IndexedGraph graph = simulationManager.getTopology().getIndexedGraph();
+		int current = graph.indexOf(currentNode.getId());
+		WalkerState walker = message.getWalker();
+
+		// Retorno de backtracking: o nó já foi visitado por este walker
+		boolean returning = walker != null && walker.isReturningTo(current);
+		if (!returning && simulationManager.hasSeenMessage(message.getQueryId(), currentNode.getId())) {
 			return;
 		}
 
-		if (currentNode.hasResource(message.getResource())) {
+		if (simulationManager.hasResource(currentNode, message.getResource())) {
 			simulationManager.completeSuccess(currentNode, message);
 			return;
 		}
 
-		Message forward = message.decrementTTL().addToPath(currentNode.getId());
-		if (forward.getTtl() <= 0) {
+		Message forward = message.forwardFrom(currentNode.getId());
+		if (forward.getTtl() <= 0 || !simulationManager.shouldForward(currentNode, message)) {
 			return;
 		}
 
-		// Pega vizinhos não tentados ainda neste nó
-		List<String> candidates = new ArrayList<>(currentNode.getNeighbors());
-		
-		if (senderId != null) {
-			candidates.remove(senderId);
+		if (walker == null) {
+			walker = new WalkerState();
+			forward = forward.withWalker(walker);
+		}
+		if (returning) {
+			walker.arrived();
+		} else {
+			walker.push(current);
+		}
+
+		int sender = senderId != null ? graph.indexOf(senderId) : -1;
+		int parent = walker.parent();
+
+		// Escolhe uniformemente (reservoir sampling) uma aresta ainda não tentada neste nó
+		SplittableRandom random = simulationManager.getRandom();
+		int chosenEdge = -1;
+		int candidates = 0;
+		for (int edge = graph.edgeStart(current); edge < graph.edgeEnd(current); edge++) {
+			int neighbor = graph.target(edge);
+			if (neighbor == sender || neighbor == parent || walker.isTried(edge)) {
+				continue;
+			}
+			candidates++;
+			if (random.nextInt(candidates) == 0) {
+				chosenEdge = edge;
+			}
 		}
-		
-		// Remove vizinhos já tentados anteriormente
-		Set<String> tried = forward.getTriedNeighborsFor(currentNode.getId());
-		candidates.removeAll(tried);
 
-		if (candidates.isEmpty()) {
-			// Backtracking: volta ao nó anterior via pathHistory
-			List<String> path = forward.getPathHistory();
-			if (path.size() >= 2) {
-				// Pega o penúltimo nó (antes do atual)
-				String backtrackNode = path.get(path.size() - 2);
-				Message backtrackMessage = forward.toBuilder()
-					.target(backtrackNode)
-					.build();
-				simulationManager.sendMessage(backtrackMessage, currentNode.getId());
+		if (chosenEdge < 0) {
+			// Backtracking: volta ao nó anterior da trilha do walker
+			int backtrackNode = walker.pop();
+			if (backtrackNode >= 0) {
+				walker.returnTo(backtrackNode);
+				simulationManager.sendMessage(forward.withTarget(graph.idOf(backtrackNode)), currentNode.getId());
 			}
 			return;
 		}
 
-		// Escolhe um vizinho aleatório ainda não tentado
-		String nextHop = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
-		
-		// Marca esse vizinho como tentado para este nó
-		Message markedMessage = forward.markNeighborTried(currentNode.getId(), nextHop);
-		
-		Message neighborMessage = markedMessage.toBuilder()
-			.target(nextHop)
-			.build();
-		simulationManager.sendMessage(neighborMessage, currentNode.getId());
+		// Marca a aresta como tentada para este nó
+		walker.markTried(chosenEdge);
+		simulationManager.sendMessage(forward.withTarget(graph.idOf(graph.target(chosenEdge))), currentNode.getId());
 	}
 
 	@Override
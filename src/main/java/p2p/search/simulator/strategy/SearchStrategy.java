@@ -13,4 +13,12 @@ public interface SearchStrategy {
     default boolean isInformed() {
         return false;
     }
+
+    /**
+     * Indica se a estratégia é flooding puro e pode ser simulada nível a nível
+     * pelo {@code FrontierFloodingEngine}, com o mesmo resultado da simulação mensagem a mensagem.
+     */
+    default boolean supportsFrontierExpansion() {
+        return false;
+    }
 }
@@ -0,0 +1,35 @@
+package p2p.search.simulator.topology;
+
+/**
+ * Grafo com nós numerados de 0 a n-1 e vizinhanças contíguas (CSR), independente de onde os
+ * arrays ficam: no heap ({@link IndexedGraph}) ou fora dele ({@link OffHeapTopology}).
+ */
+public interface AdjacencyGraph {
+
+    int size();
+
+    int edgeSlots();
+
+    int indexOf(String nodeId);
+
+    String idOf(int node);
+
+    int degree(int node);
+
+    int edgeStart(int node);
+
+    int edgeEnd(int node);
+
+    int target(int edge);
+
+    /**
+     * Posição da aresta reversa: para {@code u -> v}, a posição de {@code u} na vizinhança de
+     * {@code v}, ou -1 se não existe.
+     */
+    int reverseEdge(int edge);
+
+    /**
+     * Indica se toda aresta tem a reversa (grafo não direcionado).
+     */
+    boolean isSymmetric();
+}
@@ -0,0 +1,199 @@
+package p2p.search.simulator.topology;
+
+import java.util.Arrays;
+
+/**
+ * Numeração dos nós do {@link IndexedGraph}. Reordenar muda apenas os índices: a ordem de cada
+ * vizinhança é preservada, então as simulações produzem o mesmo resultado com mais localidade
+ * de memória ao percorrer vizinhos.
+ */
+public enum GraphOrdering {
+
+    /**
+     * Ordem das chaves de recursos do {@code config.json}.
+     */
+    NONE {
+        @Override
+        public int[] permutation(IndexedGraph graph) {
+            int[] order = new int[graph.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+    },
+
+    /**
+     * Ordem de descoberta de uma BFS a partir de um nó de grau mínimo em cada componente.
+     */
+    BFS {
+        @Override
+        public int[] permutation(IndexedGraph graph) {
+            return breadthFirst(graph, false);
+        }
+    },
+
+    /**
+     * Reverse Cuthill–McKee: BFS com vizinhos em ordem crescente de grau a partir de um nó
+     * pseudo-periférico, invertida no final. Reduz a largura de banda da matriz de adjacência.
+     */
+    RCM {
+        @Override
+        public int[] permutation(IndexedGraph graph) {
+            int[] order = breadthFirst(graph, true);
+            for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            return order;
+        }
+    },
+
+    /**
+     * Grau decrescente: hubs ficam juntos no início dos arrays.
+     */
+    DEGREE {
+        @Override
+        public int[] permutation(IndexedGraph graph) {
+            long[] keys = new long[graph.size()];
+            for (int node = 0; node < keys.length; node++) {
+                keys[node] = ((long) (Integer.MAX_VALUE - graph.degree(node)) << 32) | node;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[i] = (int) keys[i];
+            }
+            return order;
+        }
+    };
+
+    private static final int PERIPHERAL_SWEEPS = 4;
+
+    /**
+     * Calcula a nova ordem dos nós.
+     *
+     * @return {@code order[novoIndice] = indiceAtual}
+     */
+    public abstract int[] permutation(IndexedGraph graph);
+
+    private static int[] breadthFirst(IndexedGraph graph, boolean byDegree) {
+        int n = graph.size();
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        int[] levels = new int[n];
+        int[] scratch = new int[n];
+        long[] neighbors = byDegree ? new long[maxDegree(graph)] : null;
+        int head = 0;
+        int tail = 0;
+
+        for (int start : nodesByDegree(graph)) {
+            if (placed[start]) {
+                continue;
+            }
+            int root = byDegree ? pseudoPeripheral(graph, start, levels, scratch) : start;
+            if (placed[root]) {
+                root = start;
+            }
+            placed[root] = true;
+            order[tail++] = root;
+
+            while (head < tail) {
+                int node = order[head++];
+                if (!byDegree) {
+                    for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                        int next = graph.target(edge);
+                        if (!placed[next]) {
+                            placed[next] = true;
+                            order[tail++] = next;
+                        }
+                    }
+                    continue;
+                }
+
+                int count = 0;
+                for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                    int next = graph.target(edge);
+                    if (!placed[next]) {
+                        placed[next] = true;
+                        neighbors[count++] = ((long) graph.degree(next) << 32) | next;
+                    }
+                }
+                Arrays.sort(neighbors, 0, count);
+                for (int i = 0; i < count; i++) {
+                    order[tail++] = (int) neighbors[i];
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Heurística de George–Liu: repete BFS a partir do nó de menor grau no último nível até a
+     * excentricidade parar de crescer.
+     */
+    private static int pseudoPeripheral(IndexedGraph graph, int start, int[] levels, int[] queue) {
+        int root = start;
+        int eccentricity = -1;
+        for (int sweep = 0; sweep < PERIPHERAL_SWEEPS; sweep++) {
+            int size = levelStructure(graph, root, levels, queue);
+            int depth = levels[queue[size - 1]];
+            int candidate = queue[size - 1];
+            for (int i = size - 1; i >= 0 && levels[queue[i]] == depth; i--) {
+                if (graph.degree(queue[i]) < graph.degree(candidate)) {
+                    candidate = queue[i];
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                levels[queue[i]] = 0;
+            }
+            if (depth <= eccentricity) {
+                break;
+            }
+            eccentricity = depth;
+            root = candidate;
+        }
+        return root;
+    }
+
+    private static int levelStructure(IndexedGraph graph, int root, int[] levels, int[] queue) {
+        // levels guarda nível + 1; zero marca nó ainda não alcançado
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        levels[root] = 1;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                int next = graph.target(edge);
+                if (levels[next] == 0) {
+                    levels[next] = levels[node] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private static int[] nodesByDegree(IndexedGraph graph) {
+        long[] keys = new long[graph.size()];
+        for (int node = 0; node < keys.length; node++) {
+            keys[node] = ((long) graph.degree(node) << 32) | node;
+        }
+        Arrays.sort(keys);
+        int[] nodes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            nodes[i] = (int) keys[i];
+        }
+        return nodes;
+    }
+
+    private static int maxDegree(IndexedGraph graph) {
+        int max = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            max = Math.max(max, graph.degree(node));
+        }
+        return max;
+    }
+}
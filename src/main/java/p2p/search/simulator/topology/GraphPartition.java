@@ -0,0 +1,148 @@
+package p2p.search.simulator.topology;
+
+import java.util.Arrays;
+
+/**
+ * Divisão dos nós de um {@link AdjacencyGraph} em shards.
+ */
+public final class GraphPartition {
+
+    /**
+     * Folga de tamanho permitida para cada shard no label propagation.
+     */
+    static final double IMBALANCE = 1.05;
+
+    private final int[] owner;
+    private final int shards;
+    private final int[] sizes;
+
+    private GraphPartition(int[] owner, int shards) {
+        this.owner = owner;
+        this.shards = shards;
+        this.sizes = new int[shards];
+        for (int shard : owner) {
+            sizes[shard]++;
+        }
+    }
+
+    /**
+     * Blocos contíguos de índices; com uma numeração local ({@link GraphOrdering#RCM}) já dá poucos cortes.
+     */
+    public static GraphPartition blocks(AdjacencyGraph graph, int shards) {
+        checkShards(shards);
+        int n = graph.size();
+        int[] owner = new int[n];
+        for (int node = 0; node < n; node++) {
+            owner[node] = (int) ((long) node * shards / n);
+        }
+        return new GraphPartition(owner, shards);
+    }
+
+    /**
+     * Label propagation com restrição de tamanho: parte dos blocos contíguos e, a cada rodada,
+     * move cada nó para o rótulo mais frequente entre os vizinhos se o shard de destino ainda
+     * cabe em {@code n / shards * IMBALANCE}. Empates mantêm o rótulo atual ou o menor rótulo.
+     */
+    public static GraphPartition labelPropagation(AdjacencyGraph graph, int shards, int rounds) {
+        checkShards(shards);
+        int n = graph.size();
+        int[] owner = blocks(graph, shards).owner;
+        int[] sizes = new int[shards];
+        for (int shard : owner) {
+            sizes[shard]++;
+        }
+        int capacity = (int) Math.ceil((double) n / shards * IMBALANCE);
+        int[] counts = new int[shards];
+        int[] touched = new int[shards];
+
+        for (int round = 0; round < rounds; round++) {
+            int moved = 0;
+            for (int node = 0; node < n; node++) {
+                int current = owner[node];
+                int distinct = 0;
+                for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                    int label = owner[graph.target(edge)];
+                    if (counts[label]++ == 0) {
+                        touched[distinct++] = label;
+                    }
+                }
+
+                int best = current;
+                int bestCount = counts[current];
+                for (int i = 0; i < distinct; i++) {
+                    int label = touched[i];
+                    int count = counts[label];
+                    if (label != current && sizes[label] < capacity
+                        && (count > bestCount || (count == bestCount && best != current && label < best))) {
+                        best = label;
+                        bestCount = count;
+                    }
+                    counts[label] = 0;
+                }
+
+                if (best != current) {
+                    sizes[current]--;
+                    sizes[best]++;
+                    owner[node] = best;
+                    moved++;
+                }
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+        return new GraphPartition(owner, shards);
+    }
+
+    private static void checkShards(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be >= 1");
+        }
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int ownerOf(int node) {
+        return owner[node];
+    }
+
+    public int sizeOf(int shard) {
+        return sizes[shard];
+    }
+
+    /**
+     * Nós do shard em ordem crescente de índice.
+     */
+    public int[] nodesOf(int shard) {
+        int[] nodes = new int[sizes[shard]];
+        int count = 0;
+        for (int node = 0; node < owner.length; node++) {
+            if (owner[node] == shard) {
+                nodes[count++] = node;
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Número de arestas (não direcionadas) com pontas em shards diferentes.
+     */
+    public long cutEdges(AdjacencyGraph graph) {
+        long cut = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                if (owner[graph.target(edge)] != owner[node]) {
+                    cut++;
+                }
+            }
+        }
+        return cut / 2;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GraphPartition[shards=%d, sizes=%s]", shards, Arrays.toString(sizes));
+    }
+}
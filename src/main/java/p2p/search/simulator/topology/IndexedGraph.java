@@ -0,0 +1,246 @@
+package p2p.search.simulator.topology;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visão indexada (CSR) da topologia: nós numerados de 0 a n-1 e vizinhanças em arrays de int.
+ * A ordem de cada vizinhança preserva a ordem de iteração de {@code Node.getNeighbors()}.
+ */
+public final class IndexedGraph implements AdjacencyGraph {
+
+    private final String[] ids;
+    private final Map<String, Integer> indexById;
+    private final int[] offsets;
+    private final int[] targets;
+    private volatile int[] reverseEdges;
+    private Boolean symmetric;
+
+    private IndexedGraph(String[] ids, int[] offsets, int[] targets) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.indexById = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            indexById.put(ids[i], i);
+        }
+    }
+
+    /**
+     * Constrói o grafo a partir de listas de adjacência por id.
+     *
+     * @param ids ids dos nós na ordem dos índices
+     * @param adjacency vizinhos de cada nó, na ordem desejada de iteração
+     */
+    public static IndexedGraph fromAdjacency(List<String> ids, Map<String, ? extends Iterable<String>> adjacency) {
+        String[] idArray = ids.toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>(idArray.length * 2);
+        for (int i = 0; i < idArray.length; i++) {
+            index.put(idArray[i], i);
+        }
+
+        int[] offsets = new int[idArray.length + 1];
+        int[] targets = new int[16];
+        int edge = 0;
+        for (int i = 0; i < idArray.length; i++) {
+            offsets[i] = edge;
+            for (String neighbor : adjacency.get(idArray[i])) {
+                Integer target = index.get(neighbor);
+                if (target == null) {
+                    throw new IllegalArgumentException("Unknown neighbor: " + neighbor);
+                }
+                if (edge == targets.length) {
+                    targets = Arrays.copyOf(targets, targets.length * 2);
+                }
+                targets[edge++] = target;
+            }
+        }
+        offsets[idArray.length] = edge;
+        return new IndexedGraph(idArray, offsets, Arrays.copyOf(targets, edge));
+    }
+
+    /**
+     * Renumera os nós segundo a ordem dada, preservando a ordem de cada vizinhança.
+     */
+    public IndexedGraph reorder(GraphOrdering ordering) {
+        if (ordering == GraphOrdering.NONE) {
+            return this;
+        }
+        return relabel(ordering.permutation(this));
+    }
+
+    /**
+     * Cria o grafo com os nós renumerados.
+     *
+     * @param order {@code order[novoIndice] = indiceAtual}; deve ser uma permutação
+     */
+    public IndexedGraph relabel(int[] order) {
+        int n = ids.length;
+        if (order.length != n) {
+            throw new IllegalArgumentException("Permutation size " + order.length + " != " + n);
+        }
+        int[] newIndex = new int[n];
+        Arrays.fill(newIndex, -1);
+        for (int i = 0; i < n; i++) {
+            if (newIndex[order[i]] >= 0) {
+                throw new IllegalArgumentException("Not a permutation: node " + order[i] + " repeated");
+            }
+            newIndex[order[i]] = i;
+        }
+
+        String[] newIds = new String[n];
+        int[] newOffsets = new int[n + 1];
+        int[] newTargets = new int[targets.length];
+        int edge = 0;
+        for (int i = 0; i < n; i++) {
+            int old = order[i];
+            newIds[i] = ids[old];
+            newOffsets[i] = edge;
+            for (int e = offsets[old]; e < offsets[old + 1]; e++) {
+                newTargets[edge++] = newIndex[targets[e]];
+            }
+        }
+        newOffsets[n] = edge;
+        return new IndexedGraph(newIds, newOffsets, newTargets);
+    }
+
+    /**
+     * Maior distância entre índices de nós vizinhos (largura de banda da matriz de adjacência).
+     */
+    public int bandwidth() {
+        int bandwidth = 0;
+        for (int node = 0; node < ids.length; node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                bandwidth = Math.max(bandwidth, Math.abs(targets[edge] - node));
+            }
+        }
+        return bandwidth;
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public int edgeSlots() {
+        return targets.length;
+    }
+
+    @Override
+    public int indexOf(String nodeId) {
+        Integer index = indexById.get(nodeId);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public String idOf(int node) {
+        return ids[node];
+    }
+
+    @Override
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    @Override
+    public int edgeStart(int node) {
+        return offsets[node];
+    }
+
+    @Override
+    public int edgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Índice de arestas reversas: para a aresta {@code u -> v}, a posição de {@code u} na
+     * vizinhança de {@code v}, ou -1 se a aresta reversa não existe. Calculado na primeira chamada.
+     */
+    public synchronized int[] reverseEdges() {
+        if (reverseEdges == null) {
+            reverseEdges = computeReverseEdges();
+        }
+        return reverseEdges;
+    }
+
+    @Override
+    public int reverseEdge(int edge) {
+        int[] reverse = reverseEdges;
+        if (reverse == null) {
+            reverse = reverseEdges();
+        }
+        return reverse[edge];
+    }
+
+    @Override
+    public synchronized boolean isSymmetric() {
+        if (symmetric == null) {
+            boolean all = true;
+            for (int edge : reverseEdges()) {
+                if (edge < 0) {
+                    all = false;
+                    break;
+                }
+            }
+            symmetric = all;
+        }
+        return symmetric;
+    }
+
+    private int[] computeReverseEdges() {
+        int n = ids.length;
+        int m = targets.length;
+
+        // Transposta em CSR: arestas que chegam a cada nó, com origens em ordem crescente
+        int[] incoming = new int[n + 1];
+        for (int edge = 0; edge < m; edge++) {
+            incoming[targets[edge] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            incoming[i + 1] += incoming[i];
+        }
+        int[] cursor = Arrays.copyOf(incoming, n);
+        int[] sources = new int[m];
+        int[] sourceEdges = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int edge = offsets[u]; edge < offsets[u + 1]; edge++) {
+                int slot = cursor[targets[edge]]++;
+                sources[slot] = u;
+                sourceEdges[slot] = edge;
+            }
+        }
+
+        // Casa a vizinhança de v (ordenada por alvo) com as arestas que chegam a v
+        int[] reverse = new int[m];
+        Arrays.fill(reverse, -1);
+        long[] sorted = new long[m];
+        for (int edge = 0; edge < m; edge++) {
+            sorted[edge] = ((long) targets[edge] << 32) | edge;
+        }
+        for (int v = 0; v < n; v++) {
+            Arrays.sort(sorted, offsets[v], offsets[v + 1]);
+            int in = incoming[v];
+            for (int k = offsets[v]; k < offsets[v + 1] && in < incoming[v + 1]; ) {
+                int neighbor = (int) (sorted[k] >>> 32);
+                if (sources[in] < neighbor) {
+                    in++;
+                } else if (sources[in] > neighbor) {
+                    k++;
+                } else {
+                    reverse[sourceEdges[in]] = (int) sorted[k];
+                    in++;
+                    k++;
+                }
+            }
+        }
+        return reverse;
+    }
+}
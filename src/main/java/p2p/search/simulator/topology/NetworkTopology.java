@@ -2,6 +2,8 @@ package p2p.search.simulator.topology;
 
 import p2p.search.simulator.model.NetworkConfig;
 import p2p.search.simulator.model.Node;
+import p2p.search.simulator.profiling.TopologyLoadEvent;
+import p2p.search.simulator.profiling.TopologyValidateEvent;
 import org.jgrapht.Graph;
 import org.jgrapht.alg.connectivity.ConnectivityInspector;
 import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
@@ -17,6 +19,7 @@ public class NetworkTopology {
     
     private final Graph<String, DefaultEdge> graph;
     private final Map<String, Node> nodes;
+    private final IndexedGraph indexedGraph;
     private final int minNeighbors;
     private final int maxNeighbors;
     
@@ -26,6 +29,18 @@ public class NetworkTopology {
      * @param config configuraÃ§Ã£o da rede carregada do JSON
      */
     public NetworkTopology(NetworkConfig config) {
+        this(config, GraphOrdering.NONE);
+    }
+    
+    /**
+     * Constrói a topologia numerando o grafo indexado segundo a ordem dada.
+     * 
+     * @param config configuração da rede carregada do JSON
+     * @param ordering numeração dos nós no {@link IndexedGraph}
+     */
+    public NetworkTopology(NetworkConfig config, GraphOrdering ordering) {
+        TopologyLoadEvent event = new TopologyLoadEvent();
+        event.begin();
         this.minNeighbors = config.getMinNeighbors();
         this.maxNeighbors = config.getMaxNeighbors();
         this.graph = new SimpleGraph<>(DefaultEdge.class);
@@ -33,6 +48,13 @@ public class NetworkTopology {
         
         buildTopology(config);
         validate();
+        this.indexedGraph = buildIndexedGraph(config).reorder(ordering);
+        if (event.shouldCommit()) {
+            event.nodes = nodes.size();
+            event.edges = graph.edgeSet().size();
+            event.ordering = ordering.name();
+            event.commit();
+        }
     }
     
     private void buildTopology(NetworkConfig config) {
@@ -66,6 +88,15 @@ public class NetworkTopology {
         }
     }
     
+    private IndexedGraph buildIndexedGraph(NetworkConfig config) {
+        List<String> ids = new ArrayList<>(config.getResources().keySet());
+        Map<String, Set<String>> adjacency = new HashMap<>();
+        for (Node node : nodes.values()) {
+            adjacency.put(node.getId(), node.getNeighbors());
+        }
+        return IndexedGraph.fromAdjacency(ids, adjacency);
+    }
+    
     /**
      * Valida as 4 regras críticas da topologia:
      * 1. Conectividade - grafo deve ser conexo
@@ -76,10 +107,23 @@ public class NetworkTopology {
      * @throws IllegalStateException se alguma validação falhar
      */
     public void validate() {
-        validateConnectivity();
-        validateDegree();
-        validateResources();
-        validateSelfLoops();
+        TopologyValidateEvent event = new TopologyValidateEvent();
+        event.begin();
+        try {
+            validateConnectivity();
+            validateDegree();
+            validateResources();
+            validateSelfLoops();
+            event.valid = true;
+        } catch (IllegalStateException e) {
+            event.failure = e.getMessage();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.nodes = nodes.size();
+                event.commit();
+            }
+        }
     }
     
     private void validateConnectivity() {
@@ -151,6 +195,13 @@ public class NetworkTopology {
         return graph;
     }
     
+    /**
+     * Retorna a visão indexada (CSR) da topologia, usada pelos caminhos críticos de desempenho.
+     */
+    public IndexedGraph getIndexedGraph() {
+        return indexedGraph;
+    }
+    
     public Optional<Node> getNode(String nodeId) {
         return Optional.ofNullable(nodes.get(nodeId));
     }
@@ -0,0 +1,72 @@
+package p2p.search.simulator.topology;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visão leve de um nó do {@link OffHeapTopology}: só guarda o índice, todos os dados ficam fora do heap.
+ */
+public final class NodeView {
+
+    private final OffHeapTopology topology;
+    private final int index;
+
+    NodeView(OffHeapTopology topology, int index) {
+        this.topology = topology;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return topology.idOf(index);
+    }
+
+    public int getDegree() {
+        return topology.degree(index);
+    }
+
+    public List<String> getNeighbors() {
+        List<String> neighbors = new ArrayList<>(getDegree());
+        for (int edge = topology.edgeStart(index); edge < topology.edgeEnd(index); edge++) {
+            neighbors.add(topology.idOf(topology.target(edge)));
+        }
+        return neighbors;
+    }
+
+    public boolean hasResource(String resource) {
+        return topology.hasResource(index, resource);
+    }
+
+    public List<String> getResources() {
+        return List.of(topology.resourcesOf(index));
+    }
+
+    public long getCounter(int slot) {
+        return topology.counter(index, slot);
+    }
+
+    public long addToCounter(int slot, long delta) {
+        return topology.addToCounter(index, slot, delta);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NodeView other = (NodeView) o;
+        return topology == other.topology && index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(topology) + index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NodeView[id=%s, neighbors=%d]", getId(), getDegree());
+    }
+}
@@ -0,0 +1,119 @@
+package p2p.search.simulator.topology;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Array de bytes fora do heap dividido em blocos de {@link #CHUNK_BYTES}, endereçado por long.
+ * Enquanto cabe em um bloco, cresce por realocação; depois, acrescentando blocos.
+ */
+final class OffHeapArray {
+
+    private static final int CHUNK_SHIFT = 27;
+    static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_BYTES - 1;
+    private static final int MIN_BYTES = 64;
+    private static final VarHandle LONGS =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final OffHeapStorage storage;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private long capacity;
+
+    OffHeapArray(OffHeapStorage storage) {
+        this.storage = storage;
+    }
+
+    OffHeapArray(OffHeapStorage storage, long bytes) {
+        this(storage);
+        ensureCapacity(bytes);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    void ensureCapacity(long bytes) {
+        if (bytes <= capacity) {
+            return;
+        }
+        if (bytes <= CHUNK_BYTES) {
+            long size = Math.max(MIN_BYTES, Long.highestOneBit(bytes - 1) << 1);
+            resizeFirstChunk((int) Math.min(size, CHUNK_BYTES));
+            return;
+        }
+        if (capacity < CHUNK_BYTES) {
+            resizeFirstChunk((int) CHUNK_BYTES);
+        }
+        while (capacity < bytes) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = storage.allocate((int) CHUNK_BYTES);
+            capacity += CHUNK_BYTES;
+        }
+    }
+
+    private void resizeFirstChunk(int size) {
+        ByteBuffer next = storage.allocate(size);
+        if (chunks.length == 1) {
+            ByteBuffer previous = chunks[0].duplicate();
+            previous.clear();
+            next.put(previous);
+            next.clear();
+        }
+        chunks = new ByteBuffer[] {next};
+        capacity = size;
+    }
+
+    byte getByte(long offset) {
+        return chunk(offset).get(position(offset));
+    }
+
+    void setByte(long offset, byte value) {
+        chunk(offset).put(position(offset), value);
+    }
+
+    int getInt(long index) {
+        long offset = index << 2;
+        return chunk(offset).getInt(position(offset));
+    }
+
+    void setInt(long index, int value) {
+        long offset = index << 2;
+        chunk(offset).putInt(position(offset), value);
+    }
+
+    long getLong(long index) {
+        long offset = index << 3;
+        return chunk(offset).getLong(position(offset));
+    }
+
+    void setLong(long index, long value) {
+        long offset = index << 3;
+        chunk(offset).putLong(position(offset), value);
+    }
+
+    /**
+     * Soma atômica; os blocos são diretos e alinhados, então o VarHandle suporta getAndAdd.
+     */
+    long addLong(long index, long delta) {
+        long offset = index << 3;
+        return (long) LONGS.getAndAdd(chunk(offset), position(offset), delta) + delta;
+    }
+
+    void fillInts(long fromIndex, long toIndex, int value) {
+        for (long i = fromIndex; i < toIndex; i++) {
+            setInt(i, value);
+        }
+    }
+
+    private ByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+
+    private static int position(long offset) {
+        return (int) (offset & CHUNK_MASK);
+    }
+}
@@ -0,0 +1,52 @@
+package p2p.search.simulator.topology;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Onde os blocos do {@link OffHeapTopology} são alocados.
+ */
+public enum OffHeapStorage {
+
+    /**
+     * {@link ByteBuffer#allocateDirect(int)}: limitado por {@code -XX:MaxDirectMemorySize}.
+     */
+    DIRECT {
+        @Override
+        ByteBuffer allocate(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    },
+
+    /**
+     * Arquivo temporário mapeado em memória: pode passar da RAM, com paginação pelo sistema operacional.
+     */
+    MAPPED {
+        @Override
+        ByteBuffer allocate(int bytes) {
+            try {
+                Path file = Files.createTempFile("p2p-topology-", ".bin");
+                try (FileChannel channel = FileChannel.open(file,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                    return buffer.order(ByteOrder.nativeOrder());
+                } finally {
+                    // O mapeamento continua válido depois que o arquivo é removido
+                    if (!file.toFile().delete()) {
+                        file.toFile().deleteOnExit();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map off-heap block", e);
+            }
+        }
+    };
+
+    abstract ByteBuffer allocate(int bytes);
+}
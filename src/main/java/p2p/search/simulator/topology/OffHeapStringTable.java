@@ -0,0 +1,113 @@
+package p2p.search.simulator.topology;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dicionário de strings fora do heap: bytes UTF-8 contíguos, offsets e uma tabela hash com
+ * endereçamento aberto que leva a string ao seu índice.
+ */
+final class OffHeapStringTable {
+
+    private static final int EMPTY = -1;
+
+    private final OffHeapArray bytes;
+    private final OffHeapArray offsets;
+    private OffHeapArray slots;
+    private final OffHeapStorage storage;
+    private long byteCount;
+    private int size;
+    private int slotMask;
+
+    OffHeapStringTable(OffHeapStorage storage) {
+        this.storage = storage;
+        this.bytes = new OffHeapArray(storage);
+        this.offsets = new OffHeapArray(storage, 8);
+        this.offsets.setLong(0, 0);
+        allocateSlots(16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Acrescenta a string se ainda não existe.
+     *
+     * @return o índice da string
+     */
+    int intern(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int slot = find(value.hashCode(), encoded);
+        int existing = slots.getInt(slot);
+        if (existing != EMPTY) {
+            return existing;
+        }
+
+        int index = size++;
+        bytes.ensureCapacity(byteCount + encoded.length);
+        for (byte b : encoded) {
+            bytes.setByte(byteCount++, b);
+        }
+        offsets.ensureCapacity((long) (size + 1) << 3);
+        offsets.setLong(size, byteCount);
+        slots.setInt(slot, index);
+
+        if ((long) size * 2 > slotMask + 1L) {
+            allocateSlots((slotMask + 1) * 2);
+            for (int i = 0; i < size; i++) {
+                slots.setInt(find(get(i).hashCode(), null), i);
+            }
+        }
+        return index;
+    }
+
+    int indexOf(String value) {
+        return slots.getInt(find(value.hashCode(), value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    String get(int index) {
+        long from = offsets.getLong(index);
+        int length = (int) (offsets.getLong(index + 1) - from);
+        byte[] encoded = new byte[length];
+        for (int i = 0; i < length; i++) {
+            encoded[i] = bytes.getByte(from + i);
+        }
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Procura o slot da string; durante o rehash ({@code encoded == null}) só procura slot livre.
+     */
+    private int find(int hash, byte[] encoded) {
+        for (int slot = mix(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            int index = slots.getInt(slot);
+            if (index == EMPTY || (encoded != null && matches(index, encoded))) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean matches(int index, byte[] encoded) {
+        long from = offsets.getLong(index);
+        if (offsets.getLong(index + 1) - from != encoded.length) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            if (bytes.getByte(from + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void allocateSlots(int count) {
+        slots = new OffHeapArray(storage, (long) count << 2);
+        slots.fillInts(0, count, EMPTY);
+        slotMask = count - 1;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,388 @@
+package p2p.search.simulator.topology;
+
+import p2p.search.simulator.model.Node;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * Topologia guardada fora do heap para redes muito grandes: vizinhanças (CSR) com arestas
+ * reversas, ids, listas de recursos por nó, postings (nós que possuem cada recurso) e contadores
+ * por nó. No heap ficam só alguns objetos; os nós são acessados por {@link NodeView}.
+ *
+ * <p>Use {@link #builder(OffHeapStorage)} para montar a rede em streaming, sem passar por
+ * {@code NetworkConfig} e {@link Node}, ou {@link #copyOf(NetworkTopology, OffHeapStorage)} para
+ * copiar uma topologia existente com a mesma ordem de vizinhos.</p>
+ */
+public final class OffHeapTopology implements AdjacencyGraph {
+
+    private final OffHeapStringTable ids;
+    private final OffHeapStringTable resourceNames;
+    private final OffHeapArray offsets;
+    private final OffHeapArray targets;
+    private final OffHeapArray reverse;
+    private final OffHeapArray resourceOffsets;
+    private final OffHeapArray resources;
+    private final OffHeapArray postingOffsets;
+    private final OffHeapArray postings;
+    private final OffHeapArray counters;
+    private final int nodeCount;
+    private final int edgeSlots;
+    private final int counterSlots;
+
+    private OffHeapTopology(Builder builder, OffHeapArray offsets, OffHeapArray targets,
+                            OffHeapArray reverse, int edgeSlots) {
+        this.ids = builder.ids;
+        this.resourceNames = builder.resourceNames;
+        this.resourceOffsets = builder.resourceOffsets;
+        this.resources = builder.resources;
+        this.nodeCount = ids.size();
+        this.offsets = offsets;
+        this.targets = targets;
+        this.reverse = reverse;
+        this.edgeSlots = edgeSlots;
+        this.counterSlots = builder.counterSlots;
+        this.counters = new OffHeapArray(builder.storage, Math.max(8, (long) nodeCount * counterSlots << 3));
+
+        // Postings: para cada recurso, os nós que o possuem em ordem crescente
+        int resourceCount = resourceNames.size();
+        OffHeapArray postingOffsets = new OffHeapArray(builder.storage, (long) (resourceCount + 1) << 2);
+        long total = resourceOffsets.getInt(nodeCount);
+        for (long i = 0; i < total; i++) {
+            int resource = resources.getInt(i);
+            postingOffsets.setInt(resource + 1, postingOffsets.getInt(resource + 1) + 1);
+        }
+        for (int r = 0; r < resourceCount; r++) {
+            postingOffsets.setInt(r + 1, postingOffsets.getInt(r + 1) + postingOffsets.getInt(r));
+        }
+        OffHeapArray cursor = new OffHeapArray(builder.storage, Math.max(4, (long) resourceCount << 2));
+        OffHeapArray postings = new OffHeapArray(builder.storage, Math.max(4, total << 2));
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = resourceOffsets.getInt(node); i < resourceOffsets.getInt(node + 1); i++) {
+                int resource = resources.getInt(i);
+                int slot = postingOffsets.getInt(resource) + cursor.getInt(resource);
+                cursor.setInt(resource, cursor.getInt(resource) + 1);
+                postings.setInt(slot, node);
+            }
+        }
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+    }
+
+    public static Builder builder(OffHeapStorage storage) {
+        return new Builder(storage);
+    }
+
+    /**
+     * Copia uma topologia do heap preservando a numeração e a ordem de vizinhos do
+     * {@link IndexedGraph}, de modo que as simulações dão o mesmo resultado.
+     */
+    public static OffHeapTopology copyOf(NetworkTopology topology, OffHeapStorage storage) {
+        IndexedGraph graph = topology.getIndexedGraph();
+        Builder builder = new Builder(storage);
+        for (int node = 0; node < graph.size(); node++) {
+            Node source = topology.getNode(graph.idOf(node)).orElseThrow();
+            builder.addNode(source.getId(), source.getResources());
+        }
+
+        int edges = graph.edgeSlots();
+        OffHeapArray offsets = new OffHeapArray(storage, (long) (graph.size() + 1) << 2);
+        OffHeapArray targets = new OffHeapArray(storage, Math.max(4, (long) edges << 2));
+        OffHeapArray reverse = new OffHeapArray(storage, Math.max(4, (long) edges << 2));
+        for (int node = 0; node < graph.size(); node++) {
+            offsets.setInt(node, graph.edgeStart(node));
+        }
+        offsets.setInt(graph.size(), edges);
+        for (int edge = 0; edge < edges; edge++) {
+            targets.setInt(edge, graph.target(edge));
+            reverse.setInt(edge, graph.reverseEdge(edge));
+        }
+        return new OffHeapTopology(builder, offsets, targets, reverse, edges);
+    }
+
+    @Override
+    public int size() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeSlots() {
+        return edgeSlots;
+    }
+
+    @Override
+    public int indexOf(String nodeId) {
+        return ids.indexOf(nodeId);
+    }
+
+    @Override
+    public String idOf(int node) {
+        return ids.get(node);
+    }
+
+    @Override
+    public int degree(int node) {
+        return offsets.getInt(node + 1) - offsets.getInt(node);
+    }
+
+    @Override
+    public int edgeStart(int node) {
+        return offsets.getInt(node);
+    }
+
+    @Override
+    public int edgeEnd(int node) {
+        return offsets.getInt(node + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets.getInt(edge);
+    }
+
+    @Override
+    public int reverseEdge(int edge) {
+        return reverse.getInt(edge);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        for (int edge = 0; edge < edgeSlots; edge++) {
+            if (reverse.getInt(edge) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public NodeView node(int index) {
+        if (index < 0 || index >= nodeCount) {
+            throw new IndexOutOfBoundsException("Node index " + index + " out of range [0, " + nodeCount + ")");
+        }
+        return new NodeView(this, index);
+    }
+
+    public NodeView node(String nodeId) {
+        int index = indexOf(nodeId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Nó inexistente: " + nodeId);
+        }
+        return new NodeView(this, index);
+    }
+
+    public boolean hasResource(int node, String resource) {
+        int resourceId = resourceNames.indexOf(resource);
+        return resourceId >= 0 && hasResource(node, resourceId);
+    }
+
+    private boolean hasResource(int node, int resourceId) {
+        int low = resourceOffsets.getInt(node);
+        int high = resourceOffsets.getInt(node + 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = resources.getInt(mid);
+            if (value < resourceId) {
+                low = mid + 1;
+            } else if (value > resourceId) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Predicado para o {@code FrontierFloodingEngine}: resolve o nome do recurso uma única vez.
+     */
+    public IntPredicate holderPredicate(String resource) {
+        int resourceId = resourceNames.indexOf(resource);
+        if (resourceId < 0) {
+            return node -> false;
+        }
+        return node -> hasResource(node, resourceId);
+    }
+
+    /**
+     * Nós que possuem o recurso, em ordem crescente de índice.
+     */
+    public int[] holders(String resource) {
+        int resourceId = resourceNames.indexOf(resource);
+        if (resourceId < 0) {
+            return new int[0];
+        }
+        int from = postingOffsets.getInt(resourceId);
+        int[] holders = new int[postingOffsets.getInt(resourceId + 1) - from];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = postings.getInt(from + i);
+        }
+        return holders;
+    }
+
+    String[] resourcesOf(int node) {
+        int from = resourceOffsets.getInt(node);
+        String[] names = new String[resourceOffsets.getInt(node + 1) - from];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = resourceNames.get(resources.getInt(from + i));
+        }
+        return names;
+    }
+
+    public int counterSlots() {
+        return counterSlots;
+    }
+
+    public long counter(int node, int slot) {
+        return counters.getLong(counterIndex(node, slot));
+    }
+
+    /**
+     * Soma atômica ao contador do nó.
+     *
+     * @return o novo valor
+     */
+    public long addToCounter(int node, int slot, long delta) {
+        return counters.addLong(counterIndex(node, slot), delta);
+    }
+
+    private long counterIndex(int node, int slot) {
+        if (slot < 0 || slot >= counterSlots) {
+            throw new IndexOutOfBoundsException("Counter slot " + slot + " out of range [0, " + counterSlots + ")");
+        }
+        return (long) node * counterSlots + slot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OffHeapTopology[nodes=%d, edges=%d, resources=%d]",
+            nodeCount, edgeSlots / 2, resourceNames.size());
+    }
+
+    /**
+     * Monta a topologia em streaming. A ordem de cada vizinhança é a ordem de inserção das arestas.
+     */
+    public static final class Builder {
+
+        private final OffHeapStorage storage;
+        private final OffHeapStringTable ids;
+        private final OffHeapStringTable resourceNames;
+        private final OffHeapArray resourceOffsets;
+        private final OffHeapArray resources;
+        private final OffHeapArray edges;
+        private long edgeCount;
+        private int counterSlots;
+
+        private Builder(OffHeapStorage storage) {
+            this.storage = storage;
+            this.ids = new OffHeapStringTable(storage);
+            this.resourceNames = new OffHeapStringTable(storage);
+            this.resourceOffsets = new OffHeapArray(storage, 4);
+            this.resources = new OffHeapArray(storage);
+            this.edges = new OffHeapArray(storage);
+        }
+
+        /**
+         * Número de contadores long por nó.
+         */
+        public Builder counters(int slots) {
+            if (slots < 0) {
+                throw new IllegalArgumentException("counter slots must be >= 0");
+            }
+            this.counterSlots = slots;
+            return this;
+        }
+
+        /**
+         * @return o índice do nó
+         */
+        public int addNode(String nodeId, Collection<String> nodeResources) {
+            int index = ids.intern(nodeId);
+            if (index != ids.size() - 1) {
+                throw new IllegalArgumentException("Duplicate node: " + nodeId);
+            }
+
+            int[] resourceIds = new int[nodeResources.size()];
+            int count = 0;
+            for (String resource : nodeResources) {
+                resourceIds[count++] = resourceNames.intern(resource);
+            }
+            Arrays.sort(resourceIds);
+
+            int at = resourceOffsets.getInt(index);
+            resources.ensureCapacity((long) (at + count) << 2);
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || resourceIds[i] != resourceIds[i - 1]) {
+                    resources.setInt(at++, resourceIds[i]);
+                }
+            }
+            resourceOffsets.ensureCapacity((long) (index + 2) << 2);
+            resourceOffsets.setInt(index + 1, at);
+            return index;
+        }
+
+        public Builder addEdge(String from, String to) {
+            int a = ids.indexOf(from);
+            int b = ids.indexOf(to);
+            if (a < 0 || b < 0) {
+                throw new IllegalArgumentException(
+                    String.format("Edge references non-existent node: [%s, %s]", from, to));
+            }
+            return addEdge(a, b);
+        }
+
+        /**
+         * Acrescenta uma aresta não direcionada. Arestas repetidas não são detectadas.
+         */
+        public Builder addEdge(int a, int b) {
+            if (a == b) {
+                throw new IllegalArgumentException("Self-loop detected: node " + a);
+            }
+            if (a < 0 || b < 0 || a >= ids.size() || b >= ids.size()) {
+                throw new IllegalArgumentException("Edge references non-existent node: [" + a + ", " + b + "]");
+            }
+            edges.ensureCapacity((edgeCount + 1) << 3);
+            edges.setInt(edgeCount * 2, a);
+            edges.setInt(edgeCount * 2 + 1, b);
+            edgeCount++;
+            return this;
+        }
+
+        public OffHeapTopology build() {
+            int n = ids.size();
+            if (edgeCount * 2 > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many edges for int edge slots: " + edgeCount);
+            }
+            int slots = (int) (edgeCount * 2);
+
+            OffHeapArray offsets = new OffHeapArray(storage, (long) (n + 1) << 2);
+            for (long e = 0; e < edgeCount; e++) {
+                int a = edges.getInt(e * 2);
+                int b = edges.getInt(e * 2 + 1);
+                offsets.setInt(a + 1, offsets.getInt(a + 1) + 1);
+                offsets.setInt(b + 1, offsets.getInt(b + 1) + 1);
+            }
+            for (int i = 0; i < n; i++) {
+                offsets.setInt(i + 1, offsets.getInt(i + 1) + offsets.getInt(i));
+            }
+
+            // Cada aresta ocupa um slot em cada ponta; os dois slots são as reversas um do outro
+            OffHeapArray cursor = new OffHeapArray(storage, Math.max(4, (long) n << 2));
+            OffHeapArray targets = new OffHeapArray(storage, Math.max(4, (long) slots << 2));
+            OffHeapArray reverse = new OffHeapArray(storage, Math.max(4, (long) slots << 2));
+            for (long e = 0; e < edgeCount; e++) {
+                int a = edges.getInt(e * 2);
+                int b = edges.getInt(e * 2 + 1);
+                int slotA = offsets.getInt(a) + cursor.getInt(a);
+                int slotB = offsets.getInt(b) + cursor.getInt(b);
+                cursor.setInt(a, cursor.getInt(a) + 1);
+                cursor.setInt(b, cursor.getInt(b) + 1);
+                targets.setInt(slotA, b);
+                targets.setInt(slotB, a);
+                reverse.setInt(slotA, slotB);
+                reverse.setInt(slotB, slotA);
+            }
+            return new OffHeapTopology(this, offsets, targets, reverse, slots);
+        }
+    }
+}
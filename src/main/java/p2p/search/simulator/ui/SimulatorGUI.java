@@ -2,6 +2,8 @@ package p2p.search.simulator.ui;
 
 import org.graphstream.ui.swing_viewer.ViewPanel;
 import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.metrics.LogLinearHistogram;
+import p2p.search.simulator.metrics.SearchHistograms;
 import p2p.search.simulator.model.NetworkConfig;
 import p2p.search.simulator.simulation.SimulationManager;
 import p2p.search.simulator.strategy.FloodingStrategy;
@@ -49,6 +51,7 @@ public class SimulatorGUI extends JFrame {
     private JLabel speedLabel;
     private JButton replayButton;
     private SimulationManager.SearchResult lastResult;
+    private final SearchHistograms sessionHistograms = new SearchHistograms();
     
     public SimulatorGUI() {
         setTitle("Simulador de Busca em Redes P2P");
@@ -255,7 +258,11 @@ public class SimulatorGUI extends JFrame {
                     publish("✓ Topologia criada: " + topology);
                     publish("✓ Validacoes: Conectividade, Grau, Recursos, Self-loops");
                     
+                    if (simulationManager != null) {
+                        simulationManager.close();
+                    }
                     simulationManager = new SimulationManager(topology);
+                    sessionHistograms.reset();
                     publish("\n✓ Simulador pronto!");
                     
                 } catch (Exception e) {
@@ -401,6 +408,13 @@ public class SimulatorGUI extends JFrame {
         if (!result.getPath().isEmpty()) {
             logArea.append("Caminho: " + String.join(" → ", result.getPath()) + "\n");
         }
+        sessionHistograms.record(result);
+        if (sessionHistograms.getCount() > 1) {
+            logArea.append("----------------------------------------------\n");
+            for (String line : sessionHistograms.reportLines()) {
+                logArea.append(line + "\n");
+            }
+        }
         logArea.append("==============================================\n");
 
         statsPanel.removeAll();
@@ -432,6 +446,14 @@ public class SimulatorGUI extends JFrame {
         statsPanel.add(new JLabel("Tempo de Execucao:"));
         statsPanel.add(new JLabel(result.getDurationMs() + " ms"));
 
+        if (sessionHistograms.getCount() > 1) {
+            LogLinearHistogram messages = sessionHistograms.get(SearchHistograms.Measure.MESSAGES);
+            statsPanel.add(new JLabel("Mensagens (" + sessionHistograms.getCount() + " buscas):"));
+            statsPanel.add(new JLabel(String.format("p50=%d  p90=%d  p99=%d  p99.9=%d",
+                messages.getValueAtPercentile(50), messages.getValueAtPercentile(90),
+                messages.getValueAtPercentile(99), messages.getValueAtPercentile(99.9))));
+        }
+
         if (!result.getPath().isEmpty()) {
             statsPanel.add(new JLabel("Caminho:"));
             statsPanel.add(new JLabel(String.join(" → ", result.getPath())));
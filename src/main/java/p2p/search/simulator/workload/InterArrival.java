@@ -0,0 +1,42 @@
+package p2p.search.simulator.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribuição do intervalo entre consultas consecutivas.
+ */
+@FunctionalInterface
+public interface InterArrival {
+
+    double next(RandomGenerator random);
+
+    /**
+     * Chegadas periódicas.
+     */
+    static InterArrival constant(double interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval must be >= 0");
+        }
+        return random -> interval;
+    }
+
+    /**
+     * Processo de Poisson com o intervalo médio dado.
+     */
+    static InterArrival exponential(double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException("mean must be > 0");
+        }
+        return random -> -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * Intervalos de cauda pesada (rajadas seguidas de silêncios longos), com mínimo {@code scale}.
+     */
+    static InterArrival pareto(double shape, double scale) {
+        if (shape <= 0 || scale <= 0) {
+            throw new IllegalArgumentException("shape and scale must be > 0");
+        }
+        return random -> scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+    }
+}
@@ -0,0 +1,12 @@
+package p2p.search.simulator.workload;
+
+/**
+ * Uma consulta da carga de trabalho: nó de origem, recurso buscado e instante de chegada
+ * (em unidades de tempo da simulação; 0 quando a carga não tem tempo).
+ */
+public record Query(String source, String resource, double time) {
+
+    public Query(String source, String resource) {
+        this(source, resource, 0);
+    }
+}
@@ -0,0 +1,24 @@
+package p2p.search.simulator.workload;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Sequência de consultas consumida uma a uma.
+ */
+@FunctionalInterface
+public interface QueryStream {
+
+    /**
+     * @return a próxima consulta, ou {@code null} quando a carga acabou
+     */
+    Query next();
+
+    /**
+     * Fluxo finito com as consultas dadas, na ordem.
+     */
+    static QueryStream of(Query... queries) {
+        Iterator<Query> iterator = Arrays.asList(queries).iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package p2p.search.simulator.workload;
+
+/**
+ * Como o gerador escolhe o nó que origina cada consulta.
+ */
+public enum SourceSelection {
+    /**
+     * Todos os nós com a mesma probabilidade.
+     */
+    UNIFORM,
+    /**
+     * Probabilidade proporcional ao grau: peers mais conectados tendem a ser os mais ativos.
+     */
+    DEGREE_WEIGHTED
+}
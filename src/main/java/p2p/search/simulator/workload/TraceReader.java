@@ -0,0 +1,78 @@
+package p2p.search.simulator.workload;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reproduz um trace de consultas gravado em texto, uma linha por vez (o arquivo nunca é carregado
+ * inteiro). Formato: {@code tempo,origem,recurso} ou {@code origem,recurso}; neste caso as
+ * consultas ficam espaçadas de 1. Linhas vazias e iniciadas por {@code #} são ignoradas.
+ */
+public final class TraceReader implements QueryStream, Closeable {
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long queries;
+
+    public TraceReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    public static TraceReader open(Path path) throws IOException {
+        return new TraceReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws UncheckedIOException se a leitura falhar
+     * @throws IllegalArgumentException se a linha não estiver no formato do trace
+     */
+    @Override
+    public Query next() {
+        String line;
+        try {
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+                line = line.strip();
+            } while (line.isEmpty() || line.startsWith("#"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o trace na linha " + (lineNumber + 1), e);
+        }
+
+        String[] fields = line.split(",", -1);
+        try {
+            queries++;
+            if (fields.length == 2) {
+                return new Query(field(fields[0]), field(fields[1]), queries);
+            }
+            if (fields.length == 3) {
+                return new Query(field(fields[1]), field(fields[2]), Double.parseDouble(fields[0].strip()));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Linha " + lineNumber + " inválida no trace: " + line, e);
+        }
+        throw new IllegalArgumentException("Linha " + lineNumber + " inválida no trace: " + line);
+    }
+
+    private static String field(String value) {
+        String stripped = value.strip();
+        if (stripped.isEmpty()) {
+            throw new IllegalArgumentException("Campo vazio");
+        }
+        return stripped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
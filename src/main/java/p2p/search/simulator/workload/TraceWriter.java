@@ -0,0 +1,56 @@
+package p2p.search.simulator.workload;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Grava consultas no formato lido por {@link TraceReader} ({@code tempo,origem,recurso}).
+ */
+public final class TraceWriter implements Closeable {
+
+    private final BufferedWriter writer;
+
+    public TraceWriter(Writer writer) throws IOException {
+        this.writer = writer instanceof BufferedWriter buffered ? buffered : new BufferedWriter(writer);
+        this.writer.write("# time,source,resource");
+        this.writer.newLine();
+    }
+
+    public static TraceWriter create(Path path) throws IOException {
+        return new TraceWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    public void write(Query query) throws IOException {
+        writer.write(Double.toString(query.time()));
+        writer.write(',');
+        writer.write(query.source());
+        writer.write(',');
+        writer.write(query.resource());
+        writer.newLine();
+    }
+
+    /**
+     * Grava até {@code limit} consultas do fluxo.
+     *
+     * @return número de consultas gravadas
+     */
+    public long writeAll(QueryStream queries, long limit) throws IOException {
+        long written = 0;
+        Query query;
+        while (written < limit && (query = queries.next()) != null) {
+            write(query);
+            written++;
+        }
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
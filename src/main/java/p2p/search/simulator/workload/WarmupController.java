@@ -0,0 +1,225 @@
+package p2p.search.simulator.workload;
+
+import p2p.search.simulator.metrics.SearchHistograms;
+import p2p.search.simulator.metrics.SimulationMetrics;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.SearchStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fases de uma medição com caches: aquecimento fixo, transiente até o regime estacionário e janela
+ * de medição, todas consumindo a mesma {@link QueryStream} (mesma distribuição de popularidade).
+ * Só a janela de medição entra no relatório.
+ *
+ * <p>O regime estacionário é detectado por janelas de {@code window} consultas: quando a taxa de
+ * acerto do cache de localização varia no máximo {@code tolerance} entre janelas seguidas,
+ * {@code stableWindows} vezes em sequência. Estratégias cegas não consultam o cache e ficam
+ * estáveis depois do mesmo número de janelas, o que deixa informadas e cegas com o mesmo
+ * aquecimento. Durante {@link #run} o gerenciador usa contadores próprios; os anteriores são
+ * restaurados no fim.</p>
+ */
+public final class WarmupController {
+
+    private final int warmupQueries;
+    private final int window;
+    private final double tolerance;
+    private final int stableWindows;
+    private final int maxTransientQueries;
+    private final int measurementQueries;
+
+    private WarmupController(Builder builder) {
+        this.warmupQueries = builder.warmupQueries;
+        this.window = builder.window;
+        this.tolerance = builder.tolerance;
+        this.stableWindows = builder.stableWindows;
+        this.maxTransientQueries = builder.maxTransientQueries;
+        this.measurementQueries = builder.measurementQueries;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Report run(SimulationManager simulationManager, QueryStream queries, int ttl, SearchStrategy strategy) {
+        Objects.requireNonNull(strategy, "Strategy cannot be null");
+        SimulationMetrics previous = simulationManager.getMetrics();
+        SimulationMetrics counters = new SimulationMetrics();
+        simulationManager.setMetrics(counters);
+        try {
+            int warmed = 0;
+            while (warmed < warmupQueries && search(simulationManager, queries, ttl, strategy) != null) {
+                warmed++;
+            }
+
+            List<Double> windowHitRates = new ArrayList<>();
+            int transientQueries = 0;
+            int stable = 0;
+            boolean steady = warmed == warmupQueries && stableWindows == 0;
+            while (!steady && warmed == warmupQueries && transientQueries + window <= maxTransientQueries) {
+                long hits = counters.getCacheHits();
+                long misses = counters.getCacheMisses();
+                int ran = 0;
+                while (ran < window && search(simulationManager, queries, ttl, strategy) != null) {
+                    ran++;
+                }
+                transientQueries += ran;
+                if (ran < window) {
+                    break;
+                }
+
+                double rate = hitRate(counters.getCacheHits() - hits, counters.getCacheMisses() - misses);
+                if (!windowHitRates.isEmpty()) {
+                    double last = windowHitRates.get(windowHitRates.size() - 1);
+                    boolean close = Double.isNaN(rate) ? Double.isNaN(last) : Math.abs(rate - last) <= tolerance;
+                    stable = close ? stable + 1 : 0;
+                    steady = stable >= stableWindows;
+                }
+                windowHitRates.add(rate);
+            }
+
+            SearchHistograms measurement = new SearchHistograms();
+            long hits = counters.getCacheHits();
+            long misses = counters.getCacheMisses();
+            if (steady) {
+                for (int i = 0; i < measurementQueries; i++) {
+                    SimulationManager.SearchResult result = search(simulationManager, queries, ttl, strategy);
+                    if (result == null) {
+                        break;
+                    }
+                    measurement.record(result);
+                }
+            }
+            return new Report(warmed, transientQueries, steady, windowHitRates, measurement,
+                hitRate(counters.getCacheHits() - hits, counters.getCacheMisses() - misses));
+        } finally {
+            simulationManager.setMetrics(previous);
+        }
+    }
+
+    private static SimulationManager.SearchResult search(SimulationManager simulationManager, QueryStream queries,
+                                                         int ttl, SearchStrategy strategy) {
+        Query query = queries.next();
+        if (query == null) {
+            return null;
+        }
+        return simulationManager.runSearch(query.source(), query.resource(), ttl, strategy);
+    }
+
+    private static double hitRate(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Resultado das fases. Sem regime estacionário (carga esgotada ou limite do transiente),
+     * a janela de medição não é executada.
+     */
+    public static final class Report {
+        private final int warmupQueries;
+        private final int transientQueries;
+        private final boolean steadyState;
+        private final List<Double> windowHitRates;
+        private final SearchHistograms measurement;
+        private final double measurementCacheHitRate;
+
+        Report(int warmupQueries, int transientQueries, boolean steadyState, List<Double> windowHitRates,
+               SearchHistograms measurement, double measurementCacheHitRate) {
+            this.warmupQueries = warmupQueries;
+            this.transientQueries = transientQueries;
+            this.steadyState = steadyState;
+            this.windowHitRates = List.copyOf(windowHitRates);
+            this.measurement = measurement;
+            this.measurementCacheHitRate = measurementCacheHitRate;
+        }
+
+        public int getWarmupQueries() {
+            return warmupQueries;
+        }
+
+        /**
+         * Consultas executadas entre o aquecimento e o regime estacionário.
+         */
+        public int getTransientQueries() {
+            return transientQueries;
+        }
+
+        public boolean isSteadyState() {
+            return steadyState;
+        }
+
+        /**
+         * Taxa de acerto do cache em cada janela do transiente ({@code NaN} se não houve consultas ao cache).
+         */
+        public List<Double> getWindowHitRates() {
+            return windowHitRates;
+        }
+
+        public SearchHistograms getMeasurement() {
+            return measurement;
+        }
+
+        public double getMeasurementCacheHitRate() {
+            return measurementCacheHitRate;
+        }
+    }
+
+    public static final class Builder {
+        private int warmupQueries = 100;
+        private int window = 50;
+        private double tolerance = 0.02;
+        private int stableWindows = 3;
+        private int maxTransientQueries = 10_000;
+        private int measurementQueries = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * Consultas descartadas antes de começar a observar o cache.
+         */
+        public Builder warmupQueries(int queries) {
+            if (queries < 0) {
+                throw new IllegalArgumentException("warmupQueries must be >= 0");
+            }
+            this.warmupQueries = queries;
+            return this;
+        }
+
+        /**
+         * @param window consultas por janela de observação
+         * @param tolerance variação máxima da taxa de acerto entre janelas seguidas
+         * @param stableWindows comparações seguidas dentro da tolerância; 0 desliga a detecção
+         */
+        public Builder steadyState(int window, double tolerance, int stableWindows) {
+            if (window < 1 || tolerance < 0 || stableWindows < 0) {
+                throw new IllegalArgumentException("Expected window >= 1, tolerance >= 0, stableWindows >= 0");
+            }
+            this.window = window;
+            this.tolerance = tolerance;
+            this.stableWindows = stableWindows;
+            return this;
+        }
+
+        public Builder maxTransientQueries(int queries) {
+            if (queries < 0) {
+                throw new IllegalArgumentException("maxTransientQueries must be >= 0");
+            }
+            this.maxTransientQueries = queries;
+            return this;
+        }
+
+        public Builder measurementQueries(int queries) {
+            if (queries < 1) {
+                throw new IllegalArgumentException("measurementQueries must be >= 1");
+            }
+            this.measurementQueries = queries;
+            return this;
+        }
+
+        public WarmupController build() {
+            return new WarmupController(this);
+        }
+    }
+}
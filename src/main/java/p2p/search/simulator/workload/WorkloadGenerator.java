@@ -0,0 +1,120 @@
+package p2p.search.simulator.workload;
+
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Fluxo sintético de consultas: recurso com popularidade Zipf sobre um catálogo ordenado do mais
+ * ao menos popular, origem uniforme ou ponderada pelo grau e instantes de chegada por uma
+ * {@link InterArrival}. Ids e recursos ficam em arrays pré-calculados e os sorteios usam tabelas
+ * de alias, então cada consulta custa dois sorteios O(1) e o próprio {@link Query}.
+ * Uma instância não é thread-safe; use uma por thread (seeds diferentes).
+ */
+public final class WorkloadGenerator implements QueryStream {
+
+    private final String[] sources;
+    private final AliasTable sourceWeights;
+    private final String[] catalog;
+    private final ZipfDistribution popularity;
+    private final InterArrival interArrival;
+    private final SplittableRandom random;
+    private long remaining;
+    private double clock;
+
+    private WorkloadGenerator(Builder builder) {
+        IndexedGraph graph = builder.topology.getIndexedGraph();
+        this.sources = new String[graph.size()];
+        double[] degrees = new double[graph.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = graph.idOf(i);
+            degrees[i] = graph.degree(i);
+        }
+        this.sourceWeights = builder.sourceSelection == SourceSelection.DEGREE_WEIGHTED
+            ? new AliasTable(degrees)
+            : null;
+        this.catalog = builder.catalog.toArray(new String[0]);
+        this.popularity = new ZipfDistribution(catalog.length, builder.exponent);
+        this.interArrival = builder.interArrival;
+        this.random = new SplittableRandom(builder.seed);
+        this.remaining = builder.limit;
+    }
+
+    public static Builder builder(NetworkTopology topology, List<String> catalog) {
+        return new Builder(topology, catalog);
+    }
+
+    @Override
+    public Query next() {
+        if (remaining <= 0) {
+            return null;
+        }
+        remaining--;
+        int source = sourceWeights != null ? sourceWeights.sample(random) : random.nextInt(sources.length);
+        clock += interArrival.next(random);
+        return new Query(sources[source], catalog[popularity.sample(random)], clock);
+    }
+
+    public ZipfDistribution getPopularity() {
+        return popularity;
+    }
+
+    public static final class Builder {
+        private final NetworkTopology topology;
+        private final List<String> catalog;
+        private double exponent = 1.0;
+        private SourceSelection sourceSelection = SourceSelection.UNIFORM;
+        private InterArrival interArrival = InterArrival.exponential(1.0);
+        private long limit = Long.MAX_VALUE;
+        private long seed = 1;
+
+        private Builder(NetworkTopology topology, List<String> catalog) {
+            this.topology = Objects.requireNonNull(topology, "Topology cannot be null");
+            this.catalog = List.copyOf(catalog);
+            if (this.catalog.isEmpty()) {
+                throw new IllegalArgumentException("Catalog cannot be empty");
+            }
+        }
+
+        /**
+         * Expoente da popularidade Zipf (padrão 1.0; 0 é uniforme).
+         */
+        public Builder zipf(double exponent) {
+            this.exponent = exponent;
+            return this;
+        }
+
+        public Builder sources(SourceSelection selection) {
+            this.sourceSelection = Objects.requireNonNull(selection, "Source selection cannot be null");
+            return this;
+        }
+
+        public Builder interArrival(InterArrival interArrival) {
+            this.interArrival = Objects.requireNonNull(interArrival, "Inter-arrival cannot be null");
+            return this;
+        }
+
+        /**
+         * Número de consultas antes de {@link QueryStream#next()} devolver {@code null}; sem limite por padrão.
+         */
+        public Builder limit(long queries) {
+            if (queries < 0) {
+                throw new IllegalArgumentException("limit must be >= 0");
+            }
+            this.limit = queries;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public WorkloadGenerator build() {
+            return new WorkloadGenerator(this);
+        }
+    }
+}
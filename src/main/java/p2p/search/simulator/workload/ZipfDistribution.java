@@ -0,0 +1,47 @@
+package p2p.search.simulator.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Popularidade Zipf sobre {@code n} itens: o item de posição {@code k} (base 0) tem probabilidade
+ * proporcional a {@code 1 / (k + 1)^s}. Expoente 0 é uniforme.
+ */
+public final class ZipfDistribution {
+
+    private final double exponent;
+    private final double normalization;
+    private final AliasTable table;
+
+    public ZipfDistribution(int items, double exponent) {
+        if (items < 1) {
+            throw new IllegalArgumentException("items must be >= 1");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must be >= 0");
+        }
+        this.exponent = exponent;
+        double[] weights = new double[items];
+        double total = 0;
+        for (int k = 0; k < items; k++) {
+            weights[k] = Math.pow(k + 1, -exponent);
+            total += weights[k];
+        }
+        this.normalization = total;
+        this.table = new AliasTable(weights);
+    }
+
+    /**
+     * @return posição sorteada, em {@code [0, items)}
+     */
+    public int sample(RandomGenerator random) {
+        return table.sample(random);
+    }
+
+    public double probability(int rank) {
+        return Math.pow(rank + 1, -exponent) / normalization;
+    }
+
+    public int size() {
+        return table.size();
+    }
+}
@@ -4,12 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import p2p.search.simulator.loader.NetworkLoader;
 import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.model.Node;
 import p2p.search.simulator.simulation.SimulationManager;
 import p2p.search.simulator.strategy.InformedFloodingStrategy;
 import p2p.search.simulator.strategy.InformedRandomWalkStrategy;
 import p2p.search.simulator.topology.NetworkTopology;
 
 import java.io.IOException;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -285,4 +287,25 @@ class CacheBehaviorTest {
         assertTrue(result1.isSuccess() && result2.isSuccess(),
             "Both searches should succeed");
     }
+
+    @Test
+    void testCacheCapacityEvictsOldestEntries() {
+        Node node = topology.getNode("n1").orElseThrow();
+        node.setCacheCapacity(2);
+
+        node.addToCache("fileA", "n2");
+        node.addToCache("fileB", "n3");
+        node.addToCache("fileA", "n4");
+        assertEquals(2, node.getCache().size());
+
+        node.addToCache("fileC", "n5");
+        assertEquals(2, node.getCache().size());
+        assertFalse(node.getCachedLocation("fileA").isPresent(), "A entrada mais antiga deve sair primeiro");
+        assertEquals("n3", node.getCachedLocation("fileB").orElseThrow());
+        assertEquals("n5", node.getCachedLocation("fileC").orElseThrow());
+
+        node.setCacheCapacity(1);
+        assertEquals(Map.of("fileC", "n5"), node.getCache());
+        assertThrows(IllegalArgumentException.class, () -> node.setCacheCapacity(-1));
+    }
 }
@@ -0,0 +1,142 @@
+package p2p.search.simulator.event;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.InterArrival;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.QueryStream;
+import p2p.search.simulator.workload.WorkloadGenerator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do simulador de buscas simultâneas e da coalescência de consultas repetidas.
+ */
+class ConcurrentSearchSimulatorTest {
+
+    private static final int CATALOG = 30;
+    private static final NetworkTopology TOPOLOGY =
+        new NetworkTopology(RandomNetworks.generate(300, 4, CATALOG, 1, 23));
+
+    @Test
+    void testSingleFloodAnswersAlongShortestPath() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setHopLatency(0.5);
+        ConcurrentSearchSimulator.Report report = simulator.run(QueryStream.of(new Query("p0", "r4", 0)), 20);
+
+        assertEquals(1, report.getSuccesses());
+        int distance = distance(TOPOLOGY.getIndexedGraph(), "p0", holderOf("r4"));
+        assertEquals(distance, report.getResponseMessages());
+        assertEquals(2 * distance * 0.5, report.getMeanLatency(), 0.01);
+    }
+
+    @Test
+    void testHeldQueryReceivesFannedOutResponse() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        ConcurrentSearchSimulator.Report single = simulator.run(QueryStream.of(new Query("p0", "r4", 0)), 6);
+
+        simulator.setHoldTimeout(50);
+        ConcurrentSearchSimulator.Report pair =
+            simulator.run(QueryStream.of(new Query("p0", "r4", 0), new Query("p0", "r4", 0.25)), 6);
+
+        assertEquals(2, pair.getSuccesses());
+        assertEquals(1, pair.getHeldQueries());
+        assertEquals(1, pair.getCoalescedResponses());
+        assertEquals(single.getTotalMessages(), pair.getTotalMessages(), "A segunda consulta não gera tráfego");
+        assertEquals(single.getMeanLatency() - 0.125, pair.getMeanLatency(), 0.01);
+    }
+
+    @Test
+    void testHeldQueriesAreReleasedAfterTimeout() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setHoldTimeout(3);
+        ConcurrentSearchSimulator.Report report =
+            simulator.run(QueryStream.of(new Query("p0", "missing", 0), new Query("p0", "missing", 1)), 4);
+
+        assertEquals(0, report.getSuccesses());
+        assertEquals(1, report.getHeldQueries());
+        assertEquals(1, report.getReleasedQueries());
+        assertTrue(report.getSimulatedTime() >= 3 + 4, "A consulta liberada ainda percorre o TTL inteiro");
+    }
+
+    @Test
+    void testCoalescingRemovesRedundantTrafficUnderZipf() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        ConcurrentSearchSimulator.Report plain = simulator.run(zipfWorkload(), 5);
+
+        simulator.setHoldTimeout(12);
+        ConcurrentSearchSimulator.Report coalesced = simulator.run(zipfWorkload(), 5);
+
+        assertEquals(plain.getQueries(), coalesced.getQueries());
+        assertTrue(coalesced.getCoalescedResponses() > 0);
+        assertTrue(coalesced.getTotalMessages() < 0.8 * plain.getTotalMessages(), plain + " vs " + coalesced);
+        // Uma consulta retida pode receber a resposta de outra que alcançou um dono além do seu TTL
+        assertTrue(coalesced.getSuccessRate() >= plain.getSuccessRate(), plain + " vs " + coalesced);
+    }
+
+    @Test
+    void testRandomWalkIsReproducible() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setForwarding(Forwarding.RANDOM_WALK);
+        simulator.setSeed(9);
+        ConcurrentSearchSimulator.Report first = simulator.run(zipfWorkload(), 400);
+        ConcurrentSearchSimulator.Report second = simulator.run(zipfWorkload(), 400);
+
+        assertTrue(first.getSuccessRate() > 0.5, first.toString());
+        assertEquals(first.getTotalMessages(), second.getTotalMessages());
+        assertEquals(first.getHolderHits(), first.getSuccesses(), "Um walker para no primeiro dono");
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        assertThrows(IllegalArgumentException.class, () -> simulator.setHoldTimeout(-1));
+        assertThrows(IllegalArgumentException.class, () -> simulator.setHopLatency(0));
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(QueryStream.of(new Query("nope", "r1", 0)), 3));
+    }
+
+    private static QueryStream zipfWorkload() {
+        List<String> catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG; i++) {
+            catalog.add(RandomNetworks.catalogResource(i));
+        }
+        return WorkloadGenerator.builder(TOPOLOGY, catalog)
+            .zipf(1.2)
+            .interArrival(InterArrival.exponential(0.1))
+            .limit(1500)
+            .seed(5)
+            .build();
+    }
+
+    private static String holderOf(String resource) {
+        return TOPOLOGY.getAllNodes().stream()
+            .filter(node -> node.hasResource(resource))
+            .findFirst().orElseThrow().getId();
+    }
+
+    private static int distance(IndexedGraph graph, String from, String to) {
+        int[] depth = new int[graph.size()];
+        Arrays.fill(depth, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        depth[graph.indexOf(from)] = 0;
+        queue.add(graph.indexOf(from));
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                int neighbor = graph.target(edge);
+                if (depth[neighbor] < 0) {
+                    depth[neighbor] = depth[node] + 1;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return depth[graph.indexOf(to)];
+    }
+}
@@ -0,0 +1,117 @@
+package p2p.search.simulator.event;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.InterArrival;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.QueryStream;
+import p2p.search.simulator.workload.WorkloadGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da capacidade de processamento dos nós, das filas limitadas e do colapso sob carga.
+ */
+class NodeCapacityTest {
+
+    private static final int CATALOG = 30;
+    private static final NetworkTopology TOPOLOGY =
+        new NetworkTopology(RandomNetworks.generate(300, 6, CATALOG, 2, 31));
+
+    @Test
+    void testUnlimitedNodesNeverQueue() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        ConcurrentSearchSimulator.Report report = simulator.run(workload(5, 500), 4);
+
+        assertEquals(0, report.getDroppedMessages());
+        assertEquals(0, report.getMaxQueueDepth());
+        assertTrue(report.getProcessedMessages() > report.getTotalMessages(), "Inclui a entrega local na origem");
+    }
+
+    @Test
+    void testServiceTimeAddsToLatency() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        double instant = simulator.run(QueryStream.of(new Query("p0", "r3", 0)), 8).getMeanLatency();
+
+        simulator.setServiceRate(10);
+        ConcurrentSearchSimulator.Report served = simulator.run(QueryStream.of(new Query("p0", "r3", 0)), 8);
+        assertEquals(1, served.getSuccesses());
+        assertTrue(served.getMeanLatency() >= instant + 0.1 * (instant + 1) - 1e-9,
+            instant + " vs " + served.getMeanLatency());
+    }
+
+    @Test
+    void testBoundedQueuesDropAndReportDepth() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setServiceRate(20);
+        simulator.setQueueCapacity(4);
+        ConcurrentSearchSimulator.Report report = simulator.run(workload(5, 500), 4);
+
+        assertTrue(report.getDroppedMessages() > 0, report.toString());
+        assertEquals(report.getDroppedMessages(),
+            report.getDropsByNode().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(report.getMaxQueueDepth() <= 4);
+        assertTrue(report.getQueueDepthPercentile(99) >= report.getQueueDepthPercentile(50));
+    }
+
+    @Test
+    void testPerNodeRateOverridesDefault() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setQueueCapacity(0);
+        simulator.setServiceRate("p0", 0.01);
+        ConcurrentSearchSimulator.Report report =
+            simulator.run(QueryStream.of(new Query("p0", "r1", 0), new Query("p0", "r2", 1)), 0);
+
+        assertEquals(1, report.getDroppedQueries());
+        assertEquals(1L, report.getDropsByNode().get("p0"));
+        assertThrows(IllegalArgumentException.class, () -> simulator.setServiceRate("nope", 1));
+        assertThrows(IllegalArgumentException.class, () -> simulator.setServiceRate(0));
+    }
+
+    @Test
+    void testLowestTtlPolicyProtectsResponses() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setServiceRate(20);
+        simulator.setQueueCapacity(4);
+        ConcurrentSearchSimulator.Report tail = simulator.run(workload(5, 500), 4);
+
+        simulator.setDropPolicy(DropPolicy.DROP_LOWEST_TTL);
+        ConcurrentSearchSimulator.Report lowestTtl = simulator.run(workload(5, 500), 4);
+
+        assertTrue(lowestTtl.getDroppedResponses() < tail.getDroppedResponses(), tail + " vs " + lowestTtl);
+        assertTrue(lowestTtl.getSuccessRate() > tail.getSuccessRate(), tail + " vs " + lowestTtl);
+    }
+
+    @Test
+    void testSweepFindsThroughputCollapse() {
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setServiceRate(20);
+        simulator.setQueueCapacity(8);
+        LoadSweep overloaded =
+            LoadSweep.run(simulator, rate -> workload(rate, (int) (rate * 20)), 4, 1, 2, 4, 8, 16, 32, 64, 128);
+        // Acima da capacidade, cópias do flooding descartadas adiante desperdiçam o atendimento
+        assertTrue(overloaded.getCollapseRate(0.1).orElseThrow() > 8);
+
+        ConcurrentSearchSimulator unlimited = new ConcurrentSearchSimulator(TOPOLOGY);
+        LoadSweep linear =
+            LoadSweep.run(unlimited, rate -> workload(rate, (int) (rate * 20)), 4, 1, 2, 4, 8, 16, 32, 64, 128);
+        assertTrue(linear.getCollapseRate(0.1).isEmpty());
+        assertTrue(linear.getPeakGoodput() > overloaded.getPeakGoodput());
+    }
+
+    private static QueryStream workload(double rate, int queries) {
+        List<String> catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG; i++) {
+            catalog.add(RandomNetworks.catalogResource(i));
+        }
+        return WorkloadGenerator.builder(TOPOLOGY, catalog)
+            .interArrival(InterArrival.exponential(1 / rate))
+            .limit(queries)
+            .seed(3)
+            .build();
+    }
+}
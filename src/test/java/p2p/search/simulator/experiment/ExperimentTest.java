@@ -0,0 +1,116 @@
+package p2p.search.simulator.experiment;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.simulation.SimulationManager.SearchResult;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das varreduras de parâmetros com parada pelo intervalo de confiança.
+ */
+class ExperimentTest {
+
+    @Test
+    void testGridIsCartesianProduct() {
+        ParameterGrid grid = new ParameterGrid()
+            .axis(ParameterGrid.STRATEGY, "flooding", "random-walk")
+            .axis(ParameterGrid.TTL, 2, 4, 6);
+
+        List<ParameterGrid.Point> points = grid.points();
+        assertEquals(6, points.size());
+        assertEquals("flooding", points.get(0).getString(ParameterGrid.STRATEGY));
+        assertEquals(4, points.get(1).getInt(ParameterGrid.TTL));
+        assertEquals("random-walk", points.get(5).getString(ParameterGrid.STRATEGY));
+        assertEquals(7, points.get(0).getInt(ParameterGrid.DEGREE, 7));
+        assertThrows(IllegalArgumentException.class, () -> points.get(0).get(ParameterGrid.DEGREE));
+    }
+
+    @Test
+    void testConvergedCellsStopEarly() {
+        ParameterGrid grid = new ParameterGrid().axis("noise", 0, 50);
+        Trial trial = (point, seed) -> {
+            double noise = point.getInt("noise") * new Random(seed).nextGaussian();
+            return result(100 + (int) Math.round(noise));
+        };
+
+        List<CellResult> results = Experiment.builder(grid, trial)
+            .trials(5, 400)
+            .batchSize(5)
+            .parallelism(2)
+            .stopWhenRelativeHalfWidth(Metric.MESSAGES, 0.05)
+            .build()
+            .run();
+
+        CellResult constant = results.get(0);
+        assertTrue(constant.isConverged());
+        assertEquals(5, constant.getTrials(), "Célula sem variância para no mínimo de repetições");
+
+        CellResult noisy = results.get(1);
+        assertTrue(noisy.isConverged());
+        assertTrue(noisy.getTrials() > 5 && noisy.getTrials() < 400, String.valueOf(noisy.getTrials()));
+        MetricSummary messages = noisy.getSummary(Metric.MESSAGES);
+        assertTrue(messages.getConfidenceHalfWidth() <= 0.05 * messages.getMean());
+        assertEquals(100, messages.getMean(), 10);
+    }
+
+    @Test
+    void testResultsDoNotDependOnParallelism() {
+        ParameterGrid grid = new ParameterGrid()
+            .axis(ParameterGrid.STRATEGY, "flooding", "informed-flooding")
+            .axis(ParameterGrid.TTL, 2, 5)
+            .axis(ParameterGrid.NODES, 60)
+            .axis(ParameterGrid.REPLICATION, 2)
+            .axis(ParameterGrid.CACHE_SIZE, 4);
+        SearchTrial trial = new SearchTrial(5, 3);
+
+        List<CellResult> sequential = Experiment.builder(grid, trial)
+            .trials(4, 12).batchSize(4).parallelism(1).seed(9).build().run();
+        List<CellResult> parallel = Experiment.builder(grid, trial)
+            .trials(4, 12).batchSize(4).parallelism(3).seed(9).build().run();
+
+        assertEquals(4, sequential.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getTrials(), parallel.get(i).getTrials());
+            for (Metric metric : Metric.values()) {
+                assertEquals(sequential.get(i).getSummary(metric).getMean(),
+                    parallel.get(i).getSummary(metric).getMean(), metric.name());
+            }
+        }
+
+        String csv = Experiment.toCsv(sequential);
+        assertTrue(csv.startsWith("strategy,ttl,nodes,replication,cacheSize,trials,converged,success_mean"));
+        assertEquals(5, csv.lines().count());
+    }
+
+    @Test
+    void testWalkResultsAreReproducible() {
+        ParameterGrid grid = new ParameterGrid()
+            .axis(ParameterGrid.STRATEGY, "random-walk", "informed-random-walk")
+            .axis(ParameterGrid.TTL, 8)
+            .axis(ParameterGrid.NODES, 80)
+            .axis(ParameterGrid.REPLICATION, 1);
+        SearchTrial trial = new SearchTrial(8, 4);
+
+        List<CellResult> first = Experiment.builder(grid, trial)
+            .trials(6, 6).batchSize(6).parallelism(1).seed(3).build().run();
+        List<CellResult> again = Experiment.builder(grid, trial)
+            .trials(6, 6).batchSize(6).parallelism(1).seed(3).build().run();
+        List<CellResult> parallel = Experiment.builder(grid, trial)
+            .trials(6, 6).batchSize(6).parallelism(4).seed(3).build().run();
+
+        for (int i = 0; i < first.size(); i++) {
+            for (Metric metric : Metric.values()) {
+                double expected = first.get(i).getSummary(metric).getMean();
+                assertEquals(expected, again.get(i).getSummary(metric).getMean(), metric.name());
+                assertEquals(expected, parallel.get(i).getSummary(metric).getMean(), metric.name());
+            }
+        }
+    }
+
+    private static SearchResult result(int messages) {
+        return new SearchResult(true, 1, messages, messages, 0, "r0", "p0", List.of("p0", "p1"));
+    }
+}
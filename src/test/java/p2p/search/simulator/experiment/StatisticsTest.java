@@ -0,0 +1,91 @@
+package p2p.search.simulator.experiment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes dos estimadores online (Welford e P²).
+ */
+class StatisticsTest {
+
+    @Test
+    void testWelfordMatchesTwoPass() {
+        double[] values = new Random(3).doubles(10_000, 1e6, 1e6 + 10).toArray();
+        OnlineStatistics statistics = new OnlineStatistics();
+        for (double value : values) {
+            statistics.add(value);
+        }
+
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1);
+        assertEquals(mean, statistics.getMean(), 1e-6);
+        assertEquals(variance, statistics.getVariance(), 1e-6);
+        assertEquals(1.96 * Math.sqrt(variance / values.length), statistics.getConfidenceHalfWidth(), 1e-3);
+    }
+
+    @Test
+    void testMergeEqualsSingleStream() {
+        Random random = new Random(5);
+        OnlineStatistics all = new OnlineStatistics();
+        OnlineStatistics left = new OnlineStatistics();
+        OnlineStatistics right = new OnlineStatistics();
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextGaussian() * 3 + 10;
+            all.add(value);
+            (i < 300 ? left : right).add(value);
+        }
+        left.merge(right);
+
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMean(), left.getMean(), 1e-9);
+        assertEquals(all.getVariance(), left.getVariance(), 1e-9);
+        assertEquals(all.getMin(), left.getMin());
+        assertEquals(all.getMax(), left.getMax());
+    }
+
+    @Test
+    void testSmallSamplesUseStudentT() {
+        OnlineStatistics statistics = new OnlineStatistics();
+        assertTrue(Double.isNaN(statistics.getMean()));
+        statistics.add(1);
+        assertEquals(Double.POSITIVE_INFINITY, statistics.getConfidenceHalfWidth());
+        statistics.add(3);
+        // t(0,975; 1) = 12,706 e desvio padrão da média = 1
+        assertEquals(12.706, statistics.getConfidenceHalfWidth(), 1e-3);
+    }
+
+    @Test
+    void testP2QuantilesTrackExactQuantiles() {
+        Random random = new Random(11);
+        double[] values = new double[50_000];
+        P2Quantile median = new P2Quantile(0.5);
+        P2Quantile p90 = new P2Quantile(0.9);
+        P2Quantile p99 = new P2Quantile(0.99);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()) * 100;
+            median.add(values[i]);
+            p90.add(values[i]);
+            p99.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values[values.length / 2], median.getEstimate(), 3);
+        assertEquals(values[(int) (values.length * 0.9)], p90.getEstimate(), 5);
+        assertEquals(values[(int) (values.length * 0.99)], p99.getEstimate(), 20);
+    }
+
+    @Test
+    void testP2IsExactForFewSamples() {
+        P2Quantile median = new P2Quantile(0.5);
+        assertTrue(Double.isNaN(median.getEstimate()));
+        median.add(5);
+        median.add(1);
+        median.add(3);
+        assertEquals(3, median.getEstimate());
+        assertThrows(IllegalArgumentException.class, () -> new P2Quantile(1));
+    }
+}
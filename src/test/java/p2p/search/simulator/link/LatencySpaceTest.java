@@ -0,0 +1,107 @@
+package p2p.search.simulator.link;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import p2p.search.simulator.event.ConcurrentSearchSimulator;
+import p2p.search.simulator.event.Forwarding;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.WorkloadGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do espaço de coordenadas de latência e do walker que prefere vizinhos próximos.
+ */
+class LatencySpaceTest {
+
+    private static final NetworkTopology TOPOLOGY =
+        new NetworkTopology(RandomNetworks.generate(400, 8, 20, 3, 13));
+    private static final IndexedGraph GRAPH = TOPOLOGY.getIndexedGraph();
+
+    @Test
+    void testSyntheticSpaceIsMetricWithHeights() {
+        LatencySpace space = LatencySpace.synthetic(GRAPH, 5, 100, 2, 4);
+        assertEquals(5, space.getDimensions());
+        assertEquals(GRAPH.size(), space.size());
+
+        for (int a = 0; a < 50; a++) {
+            int b = (a * 7 + 3) % GRAPH.size();
+            int c = (a * 13 + 5) % GRAPH.size();
+            assertEquals(space.latency(a, b), space.latency(b, a), 1e-12);
+            assertTrue(space.distance(a, c) <= space.distance(a, b) + space.distance(b, c) + 1e-9);
+            assertTrue(space.height(a) >= 0);
+            if (a != b) {
+                assertEquals(space.distance(a, b) + space.height(a) + space.height(b), space.latency(a, b), 1e-9);
+            }
+        }
+        assertEquals(0, space.latency(3, 3));
+        assertEquals(space.coordinate(9, 4), LatencySpace.synthetic(GRAPH, 5, 100, 2, 4).coordinate(9, 4));
+    }
+
+    @Test
+    void testLoadsCoordinatesFromFile(@TempDir Path dir) throws IOException {
+        NetworkTopology topology = new NetworkTopology(RandomNetworks.generate(3, 2, 1, 1, 1));
+        IndexedGraph graph = topology.getIndexedGraph();
+        Path file = dir.resolve("coords.txt");
+        Files.writeString(file, "# id x y\np0 0 0\np1, 3, 4\n\np2 6 8\n");
+
+        LatencySpace space = LatencySpace.load(file, graph);
+        assertEquals(2, space.getDimensions());
+        assertEquals(5, space.latency(graph.indexOf("p0"), graph.indexOf("p1")), 1e-12);
+        assertEquals(10, space.latency(graph.indexOf("p0"), graph.indexOf("p2")), 1e-12);
+
+        Files.writeString(file, "p0 0 0\np1 3 4\n");
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, () -> LatencySpace.load(file, graph));
+        assertTrue(missing.getMessage().contains("p2"));
+
+        Files.writeString(file, "p0 0 0\np1 3 4 5\np2 6 8\n");
+        assertThrows(IllegalArgumentException.class, () -> LatencySpace.load(file, graph));
+    }
+
+    @Test
+    void testEdgeLatencyComesFromCoordinates() {
+        LatencySpace space = LatencySpace.synthetic(GRAPH, 2, 50, 1, 8);
+        LinkModel links = LinkModel.fromCoordinates(GRAPH, space, 1000);
+        for (int node = 0; node < GRAPH.size(); node++) {
+            for (int edge = GRAPH.edgeStart(node); edge < GRAPH.edgeEnd(node); edge++) {
+                assertEquals(space.latency(node, GRAPH.target(edge)), links.latency(edge));
+            }
+        }
+        LatencySpace other = LatencySpace.synthetic(new NetworkTopology(RandomNetworks.generate(10, 2, 1, 1, 1))
+            .getIndexedGraph(), 2, 50, 1, 8);
+        assertThrows(IllegalArgumentException.class, () -> LinkModel.fromCoordinates(GRAPH, other, 1000));
+    }
+
+    @Test
+    void testProximityWalkUsesShorterLinks() {
+        LinkModel links = LinkModel.fromCoordinates(GRAPH, LatencySpace.synthetic(GRAPH, 2, 100, 1, 2), 10_000);
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(TOPOLOGY);
+        simulator.setLinkModel(links);
+
+        simulator.setForwarding(Forwarding.RANDOM_WALK);
+        ConcurrentSearchSimulator.Report random = simulator.run(workload(), 200);
+        simulator.setForwarding(Forwarding.PROXIMITY_WALK);
+        ConcurrentSearchSimulator.Report proximity = simulator.run(workload(), 200);
+
+        assertTrue(proximity.getMeanHopDelay() < 0.8 * random.getMeanHopDelay(),
+            random.getMeanHopDelay() + " vs " + proximity.getMeanHopDelay());
+        assertTrue(proximity.getSuccessRate() > 0.5, proximity.toString());
+        assertTrue(random.getLatencyPercentile(99) > random.getLatencyPercentile(50));
+    }
+
+    private static WorkloadGenerator workload() {
+        List<String> catalog = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            catalog.add(RandomNetworks.catalogResource(i));
+        }
+        return WorkloadGenerator.builder(TOPOLOGY, catalog).limit(500).seed(6).build();
+    }
+}
@@ -0,0 +1,115 @@
+package p2p.search.simulator.link;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.event.ConcurrentSearchSimulator;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.LinkConfig;
+import p2p.search.simulator.model.Message;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.Query;
+import p2p.search.simulator.workload.QueryStream;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do modelo de enlaces, do tamanho das mensagens e dos bytes transferidos.
+ */
+class LinkModelTest {
+
+    @Test
+    void testMessageSizeGrowsWithPath() {
+        MessageSizeModel sizes = MessageSizeModel.DEFAULT;
+        assertEquals(23 + 6 + 6, sizes.sizeOf(Message.Type.QUERY, "fileA", 1));
+        assertEquals(sizes.sizeOf(Message.Type.QUERY, "fileA", 1) + 4 * 6, sizes.sizeOf(Message.Type.QUERY, "fileA", 5));
+        assertEquals(sizes.sizeOf(Message.Type.QUERY, "fileA", 2) + 6, sizes.sizeOf(Message.Type.RESPONSE, "fileA", 2));
+        assertEquals(23 + 6 + 1, sizes.sizeOf(Message.Type.CANCEL, "ação", 0), "Recurso medido em UTF-8");
+    }
+
+    @Test
+    void testSampledLinksAreSymmetricAndReproducible() {
+        IndexedGraph graph = new NetworkTopology(RandomNetworks.generate(200, 4, 5, 1, 3)).getIndexedGraph();
+        LinkModel first = LinkModel.sampled(graph, ValueDistribution.uniform(1, 3), ValueDistribution.logNormal(100, 0.5), 7);
+        LinkModel second = LinkModel.sampled(graph, ValueDistribution.uniform(1, 3), ValueDistribution.logNormal(100, 0.5), 7);
+
+        for (int edge = 0; edge < graph.edgeSlots(); edge++) {
+            int reverse = graph.reverseEdge(edge);
+            assertEquals(first.latency(edge), first.latency(reverse));
+            assertEquals(first.bandwidth(edge), first.bandwidth(reverse));
+            assertEquals(first.latency(edge), second.latency(edge));
+            assertTrue(first.latency(edge) >= 1 && first.latency(edge) <= 3);
+        }
+        assertEquals(first.latency(0) + 50 / first.bandwidth(0), first.delay(0, 50), 1e-9);
+    }
+
+    @Test
+    void testLinksFromConfigOverrideDefaults() throws IOException {
+        NetworkConfig config = new NetworkLoader().loadFromResource("config.json");
+        config.setLinks(List.of(new LinkConfig("n2", "n1", 5, 10)));
+        IndexedGraph graph = new NetworkTopology(config).getIndexedGraph();
+        LinkModel links = LinkModel.fromConfig(graph, config, 1, 1000);
+
+        int n1 = graph.indexOf("n1");
+        int n2 = graph.indexOf("n2");
+        assertEquals(5, links.latency(LinkModel.findEdge(graph, n1, n2)));
+        assertEquals(10, links.bandwidth(LinkModel.findEdge(graph, n2, n1)));
+        assertEquals(1, links.latency(LinkModel.findEdge(graph, n1, graph.indexOf("n3"))));
+
+        config.setLinks(List.of(new LinkConfig("n1", "n12", 5, 10)));
+        assertThrows(IllegalArgumentException.class, () -> LinkModel.fromConfig(graph, config, 1, 1000));
+    }
+
+    @Test
+    void testLinksSectionIsReadFromJson() throws IOException {
+        NetworkConfig config = new NetworkLoader().loadFromString("{\"num_nodes\": 2, \"resources\": {\"a\": [], \"b\": []},"
+            + " \"edges\": [[\"a\", \"b\"]], \"links\": [{\"from\": \"a\", \"to\": \"b\", \"latency\": 2.5, \"bandwidth\": 64}]}");
+        assertEquals(1, config.getLinks().size());
+        assertEquals(2.5, config.getLinks().get(0).getLatency());
+        assertEquals(64, config.getLinks().get(0).getBandwidth());
+    }
+
+    @Test
+    void testSerializationAndContentionDelayQueries() throws IOException {
+        NetworkConfig config = new NetworkLoader().loadFromResource("config.json");
+        config.setLinks(List.of(new LinkConfig("n1", "n2", 5, 10)));
+        NetworkTopology topology = new NetworkTopology(config);
+        ConcurrentSearchSimulator simulator = new ConcurrentSearchSimulator(topology);
+        simulator.setLinkModel(LinkModel.fromConfig(topology.getIndexedGraph(), config, 1, 1000));
+
+        // Consulta de 35 bytes e resposta de 47 bytes no enlace n2 <-> n1
+        ConcurrentSearchSimulator.Report single = simulator.run(QueryStream.of(new Query("n2", "fileA", 0)), 1);
+        assertEquals(5 + 3.5 + 5 + 4.7, single.getMeanLatency(), 0.01);
+        assertEquals(3 * 35 + 47, single.getTotalBytes());
+
+        // A segunda consulta espera a primeira ser serializada nos dois sentidos
+        ConcurrentSearchSimulator.Report pair =
+            simulator.run(QueryStream.of(new Query("n2", "fileA", 0), new Query("n2", "fileB", 0)), 1);
+        assertEquals((18.2 + 22.9) / 2, pair.getMeanLatency(), 0.01);
+    }
+
+    @Test
+    void testSearchResultCountsPathBytes() {
+        NetworkConfig config = RandomNetworks.generate(500, 4, 5, 1, 9);
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(config));
+        SimulationManager.SearchResult uncounted = simulationManager.runSearch("p0", "missing", 3, new FloodingStrategy());
+        assertEquals(0, uncounted.getBytesTransferred());
+
+        simulationManager.setMessageSizeModel(MessageSizeModel.DEFAULT);
+        simulationManager.setFrontierExpansion(true);
+        SimulationManager.SearchResult shallow = simulationManager.runSearch("p0", "missing", 2, new FloodingStrategy());
+        SimulationManager.SearchResult deep = simulationManager.runSearch("p0", "missing", 6, new FloodingStrategy());
+
+        double shallowPerMessage = (double) shallow.getBytesTransferred() / shallow.getTotalMessages();
+        double deepPerMessage = (double) deep.getBytesTransferred() / deep.getTotalMessages();
+        assertTrue(deepPerMessage > shallowPerMessage, "O pathHistory cresce a cada hop");
+        assertEquals(uncounted.getTotalMessages(),
+            simulationManager.runSearch("p0", "missing", 3, new FloodingStrategy()).getTotalMessages());
+    }
+}
@@ -0,0 +1,134 @@
+package p2p.search.simulator.metrics;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.RandomWalkStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do histograma log-linear e dos relatórios de percentis.
+ */
+class HistogramTest {
+
+    @Test
+    void testBucketsRoundTripAndBoundRelativeError() {
+        LogLinearHistogram histogram = new LogLinearHistogram(1L << 40, 8);
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (long) Math.exp(random.nextDouble() * 27);
+            int index = histogram.indexOf(value);
+            long low = histogram.lowestValueAt(index);
+            long high = histogram.highestValueAt(index);
+            assertTrue(low <= value && value <= high, value + " fora de [" + low + ", " + high + "]");
+            assertTrue(high - low <= Math.max(0, value / 128), "Bucket largo demais para " + value);
+        }
+        for (int value = 0; value < 256; value++) {
+            assertEquals(value, histogram.highestValueAt(histogram.indexOf(value)), "Valores pequenos são exatos");
+        }
+    }
+
+    @Test
+    void testPercentilesMatchSortedSample() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        Random random = new Random(2);
+        long[] values = new long[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (-Math.log(1 - random.nextDouble()) * 1_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(percentile);
+            assertEquals(exact, estimate, Math.max(1, exact / 100.0), "p" + percentile);
+        }
+        assertEquals(values[0], histogram.getMin());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals(Arrays.stream(values).average().orElseThrow(), histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentRecordingAndMerge() throws InterruptedException {
+        LogLinearHistogram shared = new LogLinearHistogram();
+        LogLinearHistogram[] perThread = new LogLinearHistogram[4];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            LogLinearHistogram local = perThread[t] = new LogLinearHistogram();
+            executor.execute(() -> {
+                for (int value = 0; value < 50_000; value++) {
+                    shared.record(value);
+                    local.record(value);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        LogLinearHistogram merged = new LogLinearHistogram();
+        for (LogLinearHistogram local : perThread) {
+            merged.add(local);
+        }
+        assertEquals(200_000, shared.getTotalCount());
+        assertEquals(shared.getTotalCount(), merged.getTotalCount());
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            assertEquals(shared.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.add(new LogLinearHistogram(1000, 4)));
+        assertThrows(IllegalArgumentException.class, () -> merged.record(-1));
+    }
+
+    @Test
+    void testPercentileExportFormat() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        List<String> lines = histogram.exportPercentiles().lines().toList();
+        assertTrue(lines.get(0).contains("Value") && lines.get(0).contains("1/(1-Percentile)"));
+        String median = lines.stream().filter(line -> line.contains(" 0.500000000000 ")).findFirst().orElseThrow();
+        assertEquals(500, Double.parseDouble(median.trim().split("\\s+")[0]), 5);
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("#[Max     =     1000.000, Total count    =")));
+        String last = lines.stream().filter(line -> !line.startsWith("#")).reduce((a, b) -> b).orElseThrow();
+        assertTrue(last.contains("1.000000000000") && last.trim().endsWith("1000"), last);
+    }
+
+    @Test
+    void testSearchHistogramsReport() throws IOException {
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        SimulationManager simulationManager = new SimulationManager(topology);
+        SearchHistograms histograms = new SearchHistograms();
+        for (int i = 0; i < 50; i++) {
+            histograms.record(simulationManager.runSearch("n1", "fileR", 20, new RandomWalkStrategy()));
+        }
+
+        assertEquals(50, histograms.getCount());
+        List<String> report = histograms.reportLines();
+        assertEquals(1 + SearchHistograms.Measure.values().length, report.size());
+        assertTrue(report.get(2).startsWith("Mensagens: média="), report.get(2));
+        assertTrue(report.get(2).contains("p99.9="), report.get(2));
+        assertTrue(report.get(4).startsWith("Latência (passos): média="), report.get(4));
+        LogLinearHistogram latency = histograms.get(SearchHistograms.Measure.LATENCY_STEPS);
+        assertEquals(Math.round(histograms.getSuccessRate() * 50), latency.getTotalCount());
+        assertTrue(latency.getMin() >= histograms.get(SearchHistograms.Measure.HOPS).getMin());
+
+        SearchHistograms other = new SearchHistograms();
+        other.add(histograms);
+        other.add(histograms);
+        assertEquals(100, other.getCount());
+        assertEquals(histograms.getSuccessRate(), other.getSuccessRate(), 1e-9);
+    }
+}
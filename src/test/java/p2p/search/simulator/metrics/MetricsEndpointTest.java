@@ -0,0 +1,114 @@
+package p2p.search.simulator.metrics;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do endpoint {@code /metrics} e dos contadores alimentados pelo simulador.
+ */
+class MetricsEndpointTest {
+
+    @Test
+    void testCountersFollowCompletedSearches() throws IOException {
+        SimulationMetrics metrics = new SimulationMetrics();
+        SimulationManager simulationManager = newManager(metrics);
+
+        SimulationManager.SearchResult first = simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+        SimulationManager.SearchResult second = simulationManager.runSearch("n1", "missing", 2, new FloodingStrategy());
+
+        assertEquals(2, metrics.getSearches());
+        assertEquals(first.getTotalMessages() + second.getTotalMessages(), metrics.getMessages());
+        assertEquals(0.5, metrics.getSuccessRate("Flooding"), 1e-9);
+        assertEquals(0, metrics.getQueueDepth());
+    }
+
+    @Test
+    void testFrontierModeFeedsSameCounters() throws IOException {
+        SimulationMetrics metrics = new SimulationMetrics();
+        SimulationManager simulationManager = newManager(metrics);
+        simulationManager.setFrontierExpansion(true);
+
+        SimulationManager.SearchResult result = simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        assertEquals(1, metrics.getSearches());
+        assertEquals(result.getTotalMessages(), metrics.getMessages());
+    }
+
+    @Test
+    void testInformedSearchesRecordCacheLookups() throws IOException {
+        SimulationMetrics metrics = new SimulationMetrics();
+        SimulationManager simulationManager = newManager(metrics);
+
+        simulationManager.runSearch("n1", "fileR", 10, new InformedFloodingStrategy());
+        double coldRate = metrics.getCacheHitRate();
+        simulationManager.runSearch("n1", "fileR", 10, new InformedFloodingStrategy());
+
+        assertTrue(metrics.getCacheHitRate() > coldRate, "A segunda busca deve aproveitar o cache");
+    }
+
+    @Test
+    void testEndpointServesPrometheusText() throws IOException {
+        SimulationMetrics metrics = new SimulationMetrics();
+        SimulationManager simulationManager = newManager(metrics);
+        simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+        simulationManager.runSearch("n1", "fileR", 10, new InformedFloodingStrategy());
+
+        try (MetricsServer server = MetricsServer.start(metrics, 0)) {
+            HttpURLConnection connection = open(server, "GET");
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            assertTrue(body.contains("# TYPE p2p_searches_completed_total counter"));
+            assertTrue(body.contains("p2p_searches_completed_total 2\n"));
+            assertTrue(body.contains("p2p_strategy_searches_total{strategy=\"Flooding\"} 1\n"));
+            assertTrue(body.contains("p2p_strategy_searches_total{strategy=\"Informed Flooding\"} 1\n"));
+            assertTrue(body.contains("p2p_cache_lookups_total{result=\"hit\"}"));
+            assertTrue(body.contains("p2p_heap_used_bytes "));
+        }
+    }
+
+    @Test
+    void testEndpointRejectsOtherMethods() throws IOException {
+        try (MetricsServer server = MetricsServer.start(new SimulationMetrics(), 0)) {
+            HttpURLConnection connection = open(server, "POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(1);
+            }
+            assertEquals(405, connection.getResponseCode());
+        }
+    }
+
+    private static SimulationManager newManager(SimulationMetrics metrics) throws IOException {
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        SimulationManager simulationManager = new SimulationManager(topology);
+        simulationManager.setMetrics(metrics);
+        return simulationManager;
+    }
+
+    private static HttpURLConnection open(MetricsServer server, String method) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + "/metrics");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+}
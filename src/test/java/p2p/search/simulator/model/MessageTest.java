@@ -0,0 +1,130 @@
+package p2p.search.simulator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da representação compacta de hops: cabeçalho e caminho compartilhados.
+ */
+class MessageTest {
+
+    private Message newQuery() {
+        return new Message.Builder()
+            .queryId(1)
+            .type(Message.Type.QUERY)
+            .source("n1")
+            .target("n1")
+            .resource("fileR")
+            .ttl(5)
+            .build();
+    }
+
+    @Test
+    void testForwardSharesHeaderAndPathPrefix() {
+        Message arrived = newQuery().addToPath("n1");
+        Message forward = arrived.forwardFrom("n1");
+        Message toN2 = forward.withTarget("n2");
+        Message toN3 = forward.withTarget("n3");
+
+        assertSame(arrived.getHeader(), toN2.getHeader(), "Header should be shared across hops");
+        assertSame(toN2.getHeader(), toN3.getHeader());
+        assertSame(forward.getPath(), toN2.getPath(), "Sibling hops should share the same path node");
+        assertSame(arrived.getPath(), forward.getPath().parent(), "Forward should only append to the path");
+
+        assertEquals(4, toN2.getTtl());
+        assertEquals("n2", toN2.getTarget());
+        assertEquals("n3", toN3.getTarget());
+    }
+
+    @Test
+    void testForwardFromMatchesDecrementAndAddToPath() {
+        Message arrived = newQuery().addToPath("n1");
+
+        Message compact = arrived.forwardFrom("n1").withTarget("n2");
+        Message legacy = arrived.decrementTTL().addToPath("n1").toBuilder().target("n2").build();
+
+        assertEquals(legacy.getTtl(), compact.getTtl());
+        assertEquals(legacy.getPathHistory(), compact.getPathHistory());
+        assertEquals(legacy.getHops(), compact.getHops());
+        assertEquals(legacy.getTarget(), compact.getTarget());
+        assertEquals(legacy, compact, "Hops of the same query should keep the same id");
+        assertSame(arrived.getHeader(), legacy.getHeader(), "Unchanged builder copy should reuse the header");
+    }
+
+    @Test
+    void testPathHistoryIsMaterializedInOrder() {
+        Message message = newQuery().addToPath("n1").addToPath("n2").addToPath("n6");
+
+        assertEquals(List.of("n1", "n1", "n2", "n6"), message.getPathHistory());
+        assertEquals(4, message.getHops());
+    }
+
+    @Test
+    void testBuilderChangingResourceCreatesNewHeader() {
+        Message original = newQuery();
+        Message changed = original.toBuilder().resource("fileA").build();
+
+        assertNotSame(original.getHeader(), changed.getHeader());
+        assertEquals("fileA", changed.getResource());
+        assertEquals("fileR", original.getResource());
+    }
+
+    @Test
+    void testResponseWalksBackOverSharedQueryPath() {
+        Message query = newQuery().addToPath("n1").forwardFrom("n1").withTarget("n2").addToPath("n2");
+        Message response = query.createResponse("n2", true);
+
+        assertEquals(Message.Type.RESPONSE, response.getType());
+        assertEquals("n2", response.getSource());
+        assertEquals("n2", response.getTarget(), "Response starts at the responder");
+        assertSame(query.getPath(), response.getPath(), "Response must reuse the query path");
+        assertTrue(response.isSuccess());
+
+        Message toSource = response.toPredecessor();
+        assertEquals("n1", toSource.getTarget(), "Duplicated path entries are skipped");
+        assertSame(response.getHeader(), toSource.getHeader());
+
+        assertNull(toSource.toPredecessor(), "Source has no predecessor");
+    }
+
+    @Test
+    void testExplicitQueryIdIsFormattedOnlyForDisplay() {
+        Message message = newQuery().toBuilder().queryId(42).build();
+
+        assertEquals(42, message.getQueryId());
+        assertEquals("q-42", message.getId());
+        assertTrue(message.toString().contains("q-42"));
+    }
+
+    @Test
+    void testBuilderRequiresQueryIdButCopiesKeepIt() {
+        assertThrows(IllegalStateException.class, () -> new Message.Builder()
+            .type(Message.Type.QUERY).source("n1").resource("fileR").build());
+
+        Message original = newQuery();
+        Message copy = original.toBuilder().target("n2").build();
+        Message hop = original.forwardFrom("n1").withTarget("n3");
+        assertEquals(original.getQueryId(), copy.getQueryId());
+        assertEquals(original.getQueryId(), hop.getQueryId());
+    }
+
+    @Test
+    void testBuilderRejectsNonPositiveIds() {
+        assertThrows(IllegalArgumentException.class, () -> new Message.Builder().queryId(0));
+        assertThrows(IllegalArgumentException.class, () -> new Message.Builder().queryId(-4));
+        assertEquals(7, new Message.Builder().queryId(7).type(Message.Type.QUERY)
+            .source("n1").resource("fileR").build().getQueryId());
+    }
+
+    @Test
+    void testAllocatorProducesSequentialIds() {
+        QueryIdAllocator allocator = new QueryIdAllocator();
+
+        assertEquals(1, allocator.next());
+        assertEquals(2, allocator.next());
+        assertEquals("q-3", QueryIdAllocator.format(allocator.next()));
+    }
+}
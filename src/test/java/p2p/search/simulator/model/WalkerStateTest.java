@@ -0,0 +1,88 @@
+package p2p.search.simulator.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da estrutura primitiva de arestas tentadas e da trilha do walker.
+ */
+class WalkerStateTest {
+
+    @Test
+    void testTriedEdgesAreTrackedWithoutDuplicates() {
+        WalkerState walker = new WalkerState();
+
+        assertFalse(walker.isTried(7));
+        walker.markTried(7);
+        walker.markTried(7);
+
+        assertTrue(walker.isTried(7));
+        assertFalse(walker.isTried(8));
+        assertEquals(1, walker.triedCount());
+    }
+
+    @Test
+    void testTriedSetGrowsForLongWalks() {
+        WalkerState walker = new WalkerState();
+        int steps = 100_000;
+
+        for (int edge = 0; edge < steps; edge++) {
+            walker.markTried(edge * 3);
+        }
+
+        assertEquals(steps, walker.triedCount());
+        for (int edge = 0; edge < steps; edge++) {
+            assertTrue(walker.isTried(edge * 3));
+            assertFalse(walker.isTried(edge * 3 + 1));
+        }
+    }
+
+    @Test
+    void testTrailSupportsBacktracking() {
+        WalkerState walker = new WalkerState();
+        walker.push(0);
+        walker.push(4);
+        walker.push(9);
+
+        assertEquals(3, walker.depth());
+        assertEquals(4, walker.parent());
+
+        assertEquals(4, walker.pop(), "Popping returns the previous node of the trail");
+        assertEquals(0, walker.parent());
+        assertEquals(0, walker.pop());
+        assertEquals(-1, walker.pop(), "Source has no previous node");
+    }
+
+    @Test
+    void testReturningFlag() {
+        WalkerState walker = new WalkerState();
+        walker.returnTo(3);
+
+        assertTrue(walker.isReturningTo(3));
+        assertFalse(walker.isReturningTo(2));
+
+        walker.arrived();
+        assertFalse(walker.isReturningTo(3));
+    }
+
+    @Test
+    void testWalkerIsSharedNotCopiedAcrossHops() {
+        WalkerState walker = new WalkerState();
+        Message message = new Message.Builder()
+            .queryId(1)
+            .type(Message.Type.QUERY)
+            .source("n1")
+            .target("n1")
+            .resource("fileR")
+            .ttl(5)
+            .build()
+            .withWalker(walker);
+
+        Message hop = message.forwardFrom("n1").withTarget("n2");
+        walker.markTried(1);
+
+        assertSame(walker, hop.getWalker());
+        assertTrue(hop.getWalker().isTried(1));
+    }
+}
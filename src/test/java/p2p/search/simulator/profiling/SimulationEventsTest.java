@@ -0,0 +1,126 @@
+package p2p.search.simulator.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes dos eventos JFR do simulador: desabilitados por padrão e completos quando habilitados.
+ */
+class SimulationEventsTest {
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+        TopologyLoadEvent.class, TopologyValidateEvent.class, SearchEvent.class,
+        FloodLevelEvent.class, CacheLookupEvent.class);
+
+    @Test
+    void testEventsAreDisabledInDefaultRecording() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            runSimulation();
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("p2p.search.")),
+            "Eventos do simulador não devem aparecer sem serem habilitados");
+    }
+
+    @Test
+    void testEnabledEventsCarrySimulationContext() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (Class<? extends jdk.jfr.Event> type : EVENTS) {
+                recording.enable(type).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            runSimulation();
+            recording.stop();
+            events = read(recording);
+        }
+
+        RecordedEvent load = single(events, "p2p.search.TopologyLoad");
+        assertEquals(12, load.getInt("nodes"));
+        assertEquals("NONE", load.getString("ordering"));
+        assertTrue(single(events, "p2p.search.TopologyValidate").getBoolean("valid"));
+
+        List<RecordedEvent> searches = named(events, "p2p.search.Search");
+        assertEquals(3, searches.size());
+        RecordedEvent frontier = searches.get(2);
+        assertEquals("FRONTIER", frontier.getString("executionMode"));
+        assertEquals("n1", frontier.getString("source"));
+        assertTrue(frontier.getBoolean("success"));
+        assertTrue(frontier.getInt("messages") > 0);
+
+        List<RecordedEvent> levels = named(events, "p2p.search.FloodLevel");
+        assertFalse(levels.isEmpty());
+        assertEquals(1, levels.get(0).getInt("level"));
+
+        List<RecordedEvent> lookups = named(events, "p2p.search.CacheLookup");
+        assertTrue(lookups.stream().anyMatch(e -> e.getBoolean("hit")), "Busca informada após a primeira deve achar cache");
+        assertTrue(lookups.stream().anyMatch(e -> !e.getBoolean("hit")));
+    }
+
+    @Test
+    void testSettingsFileEnablesSimulatorEvents() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/jfr/p2p.jfc")) {
+            assertNotNull(in);
+            Configuration configuration = Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+            assertEquals("true", configuration.getSettings().get("p2p.search.Search#enabled"));
+            assertEquals("false", configuration.getSettings().get("p2p.search.CacheLookup#enabled"));
+        }
+    }
+
+    private static void runSimulation() throws IOException {
+        NetworkConfig config = new NetworkLoader().loadFromResource("config.json");
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(config));
+        simulationManager.runSearch("n1", "fileR", 10, new InformedFloodingStrategy());
+        simulationManager.runSearch("n1", "fileR", 10, new InformedFloodingStrategy());
+        simulationManager.setFrontierExpansion(true);
+        simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws IOException {
+        Path file = Files.createTempFile("simulation", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,154 @@
+package p2p.search.simulator.replication;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.simulation.SimulationState;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.RandomWalkStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+import p2p.search.simulator.workload.WorkloadGenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das políticas de replicação e da redução de custo ao longo do tempo.
+ */
+class ReplicationPolicyTest {
+
+    private static final int NODES = 400;
+    private static final int CATALOG = 40;
+    private static final NetworkConfig CONFIG = RandomNetworks.generate(NODES, 4, CATALOG, 1, 17);
+    private static final NetworkTopology TOPOLOGY = new NetworkTopology(CONFIG);
+
+    @Test
+    void testOwnerReplicationServesRepeatedQueriesLocally() {
+        SimulationManager simulationManager = newManager(new OwnerReplication(0));
+        SimulationManager.SearchResult first = simulationManager.runSearch("p0", "r5", 10, new FloodingStrategy());
+        assertTrue(first.isSuccess());
+        assertTrue(simulationManager.getState().hasReplica("p0", "r5"));
+
+        SimulationManager.SearchResult second = simulationManager.runSearch("p0", "r5", 10, new FloodingStrategy());
+        assertTrue(second.getHops() < first.getHops());
+        SimulationManager.SearchResult walk = simulationManager.runSearch("p0", "r5", 10, new RandomWalkStrategy());
+        assertEquals(second.getHops(), walk.getHops());
+        assertFalse(TOPOLOGY.getNode("p0").orElseThrow().hasResource("r5"), "A topologia não recebe réplicas");
+    }
+
+    @Test
+    void testPathReplicationCopiesAlongPath() {
+        SimulationManager simulationManager = newManager(new PathReplication(0));
+        SimulationManager.SearchResult result = simulationManager.runSearch("p3", "r9", 10, new FloodingStrategy());
+        assertTrue(result.isSuccess());
+
+        SimulationState state = simulationManager.getState();
+        List<String> nodes = new ArrayList<>(new LinkedHashSet<>(result.getPath()));
+        String holder = nodes.get(nodes.size() - 1);
+        for (String nodeId : nodes) {
+            assertTrue(state.hasResource(nodeId, "r9"), nodeId);
+        }
+        assertFalse(state.hasReplica(holder, "r9"), "O dono original não recebe cópia");
+        assertEquals(nodes.size() - 1, state.replicaCount("r9"));
+    }
+
+    @Test
+    void testStorageCapEvictsOldestReplica() {
+        OwnerReplication policy = new OwnerReplication(1);
+        SimulationManager simulationManager = newManager(policy);
+        simulationManager.runSearch("p0", "r1", 10, new FloodingStrategy());
+        simulationManager.runSearch("p0", "r2", 10, new FloodingStrategy());
+
+        SimulationState state = simulationManager.getState();
+        assertFalse(state.hasReplica("p0", "r1"));
+        assertTrue(state.hasReplica("p0", "r2"));
+        assertEquals(0, state.replicaCount("r1"));
+        assertEquals(1, state.replicaCount("r2"));
+        assertEquals(2, policy.getReplicasCreated());
+    }
+
+    @Test
+    void testRandomReplicationPlacesUpToKCopies() {
+        SimulationManager simulationManager = newManager(new RandomReplication(5, 0, 1));
+        simulationManager.runSearch("p0", "r7", 10, new FloodingStrategy());
+        int copies = simulationManager.getState().replicaCount("r7");
+        assertTrue(copies > 0 && copies <= 5, String.valueOf(copies));
+        assertThrows(IllegalArgumentException.class, () -> new RandomReplication(0, 0, 1));
+    }
+
+    @Test
+    void testSquareRootAllocationFollowsPopularity() {
+        SquareRootReplication policy = new SquareRootReplication(400, 0, 2);
+        SimulationManager simulationManager = newManager(policy);
+        WorkloadGenerator queries = WorkloadGenerator.builder(TOPOLOGY, catalog()).zipf(1.0).limit(3000).seed(4).build();
+        ReplicationTimeline.run(simulationManager, queries, 3000, 10, new FloodingStrategy(), 500);
+
+        SimulationState state = simulationManager.getState();
+        int popular = state.replicaCount(RandomNetworks.catalogResource(0));
+        int rare = state.replicaCount(RandomNetworks.catalogResource(15));
+        assertTrue(popular > rare, popular + " vs " + rare);
+        // Zipf s=1: q0/q15 = 16, então as cotas devem estar perto de sqrt(16) = 4
+        double ratio = (double) policy.targetReplicas(RandomNetworks.catalogResource(0))
+            / policy.targetReplicas(RandomNetworks.catalogResource(15));
+        assertEquals(4.0, ratio, 1.5);
+        // Cópias criadas com cotas antigas não são recolhidas: tolera-se um pequeno excedente
+        assertTrue(state.replicaEntries() <= 500, "Total de réplicas: " + state.replicaEntries());
+    }
+
+    @Test
+    void testTimelineShowsMessageReduction() {
+        WorkloadGenerator replicated = WorkloadGenerator.builder(TOPOLOGY, catalog()).limit(2000).seed(8).build();
+        ReplicationTimeline withPolicy = ReplicationTimeline.run(newManager(new PathReplication(10)),
+            replicated, 2000, 200, new RandomWalkStrategy(), 400);
+
+        WorkloadGenerator baseline = WorkloadGenerator.builder(TOPOLOGY, catalog()).limit(2000).seed(8).build();
+        ReplicationTimeline withoutPolicy = ReplicationTimeline.run(newManager(null),
+            baseline, 2000, 200, new RandomWalkStrategy(), 400);
+
+        assertEquals(5, withPolicy.getWindows().size());
+        assertTrue(withPolicy.getMessageReduction() > 0.2, String.valueOf(withPolicy.getWindows()));
+        assertTrue(Math.abs(withoutPolicy.getMessageReduction()) < 0.2, String.valueOf(withoutPolicy.getWindows()));
+        assertTrue(withPolicy.getWindows().get(4).replicas() > withPolicy.getWindows().get(0).replicas());
+    }
+
+    @Test
+    void testReplicasFollowStateForks() {
+        SimulationState parent = SimulationState.create(TOPOLOGY);
+        parent.addReplica("p1", "r3", 0);
+        SimulationState child = parent.fork();
+        child.addReplica("p2", "r3", 0);
+
+        assertTrue(child.hasReplica("p1", "r3"));
+        assertFalse(parent.hasReplica("p2", "r3"));
+        assertEquals(1, parent.replicaCount("r3"));
+        assertEquals(2, child.replicaCount("r3"));
+
+        SimulationManager walker = new SimulationManager(TOPOLOGY, child);
+        assertTrue(walker.runSearch("p2", "r3", 1, new RandomWalkStrategy()).isSuccess(),
+            "Estratégias enxergam as réplicas do estado");
+    }
+
+    @Test
+    void testReplicationRequiresState() {
+        SimulationManager legacy = new SimulationManager(new NetworkTopology(CONFIG));
+        assertThrows(IllegalStateException.class, () -> legacy.setReplicationPolicy(new OwnerReplication(0)));
+    }
+
+    private static SimulationManager newManager(ReplicationPolicy policy) {
+        SimulationManager simulationManager = new SimulationManager(TOPOLOGY, SimulationState.create(TOPOLOGY));
+        simulationManager.setReplicationPolicy(policy);
+        return simulationManager;
+    }
+
+    private static List<String> catalog() {
+        List<String> catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG; i++) {
+            catalog.add(RandomNetworks.catalogResource(i));
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,119 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.Message;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.strategy.SearchStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do modo de execução com um ator por nó.
+ */
+class ActorExecutionTest {
+
+    private static final List<String> RESOURCES = List.of("fileA", "fileE", "fileI", "fileO", "fileR", "missing");
+
+    @Test
+    void testDeterministicActorsMatchQueue() throws IOException {
+        List<Supplier<SearchStrategy>> strategies = List.of(FloodingStrategy::new, InformedFloodingStrategy::new);
+        for (int maxHits : new int[] {1, SimulationManager.ALL_HITS}) {
+            for (Supplier<SearchStrategy> strategy : strategies) {
+                NetworkTopology queueTopology = loadTopology();
+                NetworkTopology actorTopology = loadTopology();
+                SimulationManager queue = new SimulationManager(queueTopology);
+                try (SimulationManager actors = new SimulationManager(actorTopology)) {
+                    actors.setExecutionMode(ExecutionMode.DETERMINISTIC_ACTORS);
+                    queue.setMaxHits(maxHits);
+                    actors.setMaxHits(maxHits);
+
+                    for (String source : queueTopology.getNodeIds()) {
+                        for (String resource : RESOURCES) {
+                            SimulationManager.SearchResult expected =
+                                queue.runSearch(source, resource, 5, strategy.get());
+                            SimulationManager.SearchResult actual =
+                                actors.runSearch(source, resource, 5, strategy.get());
+                            String context = source + " " + resource + " maxHits " + maxHits;
+                            assertEquals(expected.isSuccess(), actual.isSuccess(), context);
+                            assertEquals(expected.getTotalMessages(), actual.getTotalMessages(), context);
+                            assertEquals(expected.getVisitedNodes(), actual.getVisitedNodes(), context);
+                            assertEquals(expected.getPath(), actual.getPath(), context);
+                            assertEquals(expected.getHits(), actual.getHits(), context);
+                        }
+                    }
+                    for (Node node : queueTopology.getAllNodes()) {
+                        assertEquals(node.getCache(), actorTopology.getNode(node.getId()).orElseThrow().getCache());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentActorsFindReplicas() throws IOException {
+        NetworkTopology topology = loadTopology();
+        try (SimulationManager simulationManager = new SimulationManager(topology)) {
+            simulationManager.setExecutionMode(ExecutionMode.ACTORS);
+            simulationManager.setMaxHits(SimulationManager.ALL_HITS);
+
+            for (int run = 0; run < 20; run++) {
+                SimulationManager.SearchResult result =
+                    simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+                assertTrue(result.isSuccess());
+                assertFalse(result.getHits().isEmpty());
+                for (SimulationManager.SearchResult.Hit hit : result.getHits()) {
+                    assertTrue(topology.getNode(hit.nodeId()).orElseThrow().hasResource("fileR"), hit.nodeId());
+                }
+                assertTrue(result.getVisitedNodes() <= topology.getAllNodes().size());
+            }
+
+            simulationManager.setMaxHits(1);
+            SimulationManager.SearchResult single =
+                simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+            assertTrue(single.isSuccess());
+            assertEquals(1, single.getHits().size());
+            assertEquals("n1", single.getPath().get(0));
+            assertTrue(topology.getNode("n1").orElseThrow().getCachedLocation("fileR").isPresent(),
+                "A RESPONSE deve chegar à origem");
+        }
+    }
+
+    @Test
+    void testActorFailureIsReported() throws IOException {
+        try (SimulationManager simulationManager = new SimulationManager(loadTopology())) {
+            simulationManager.setExecutionMode(ExecutionMode.ACTORS);
+
+            SearchStrategy failing = new SearchStrategy() {
+                @Override
+                public void processQuery(Node currentNode, Message message, SimulationManager manager, String senderId) {
+                    throw new IllegalArgumentException("falha em " + currentNode.getId());
+                }
+
+                @Override
+                public String getName() {
+                    return "Failing";
+                }
+            };
+
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> simulationManager.runSearch("n1", "fileR", 5, failing));
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+
+            // A falha não deixa o runtime inutilizável
+            assertTrue(simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy()).isSuccess());
+        }
+    }
+
+    private static NetworkTopology loadTopology() throws IOException {
+        return new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+    }
+}
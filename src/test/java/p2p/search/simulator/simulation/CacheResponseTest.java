@@ -10,6 +10,8 @@ import p2p.search.simulator.strategy.InformedFloodingStrategy;
 import p2p.search.simulator.topology.NetworkTopology;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,4 +151,33 @@ class CacheResponseTest {
         assertNull(n1.getCachedLocation("fileR").orElse(null),
             "Cache deveria ser limpo após reset()");
     }
+
+    @Test
+    void verifyResponseTravelsHopByHopToSource() throws IOException {
+        // Linha n1 - n2 - n3 - n4: a resposta deve voltar um predecessor por vez
+        String json = "{"
+            + "\"num_nodes\": 4, \"min_neighbors\": 1, \"max_neighbors\": 2,"
+            + "\"resources\": {\"n1\": [\"fileA\"], \"n2\": [\"fileB\"], \"n3\": [\"fileC\"], \"n4\": [\"fileD\"]},"
+            + "\"edges\": [[\"n1\", \"n2\"], [\"n2\", \"n3\"], [\"n3\", \"n4\"]]"
+            + "}";
+        NetworkTopology line = new NetworkTopology(new NetworkLoader().loadFromString(json));
+        SimulationManager manager = new SimulationManager(line);
+        List<String> log = new ArrayList<>();
+        manager.setLogConsumer(log::add);
+
+        SimulationManager.SearchResult result = manager.runSearch("n1", "fileD", 10, new FloodingStrategy());
+
+        assertTrue(result.isSuccess());
+        // 4 QUERY (n1..n4) + 4 RESPONSE (n4, n3, n2, n1)
+        assertEquals(8, result.getTotalMessages());
+
+        List<String> responseHops = log.stream()
+            .filter(entry -> entry.contains("n4 -> n3") || entry.contains("n3 -> n2") || entry.contains("n2 -> n1"))
+            .toList();
+        assertEquals(3, responseHops.size(), "Each reverse hop should be delivered exactly once");
+
+        for (String nodeId : List.of("n1", "n2", "n3", "n4")) {
+            assertEquals("n4", line.getNode(nodeId).orElseThrow().getCachedLocation("fileD").orElse(null));
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.GraphOrdering;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do flooding em massa por nível: deve ser equivalente à simulação mensagem a mensagem.
+ */
+class FrontierFloodingEngineTest {
+
+    @Test
+    void testMatchesMessageByMessageFloodingOnConfigTopology() throws IOException {
+        NetworkLoader loader = new NetworkLoader();
+        NetworkTopology messageTopology = new NetworkTopology(loader.loadFromResource("config.json"));
+        NetworkTopology frontierTopology = new NetworkTopology(loader.loadFromResource("config.json"));
+
+        SimulationManager messageMode = new SimulationManager(messageTopology);
+        SimulationManager frontierMode = new SimulationManager(frontierTopology);
+        frontierMode.setFrontierExpansion(true);
+
+        List<String> resources = new ArrayList<>(List.of("fileA", "fileE", "fileI", "fileO", "fileR", "missing"));
+        for (String source : messageTopology.getNodeIds()) {
+            for (String resource : resources) {
+                for (int ttl = 0; ttl <= 7; ttl++) {
+                    assertSameSearch(
+                        messageMode.runSearch(source, resource, ttl, new FloodingStrategy()),
+                        frontierMode.runSearch(source, resource, ttl, new FloodingStrategy()));
+                }
+            }
+        }
+        assertSameCaches(messageTopology, frontierTopology);
+    }
+
+    @Test
+    void testMatchesMessageByMessageFloodingOnLargeRandomTopology() {
+        NetworkConfig config = randomConfig(20_000, 3, 42);
+        NetworkTopology messageTopology = new NetworkTopology(config);
+        NetworkTopology frontierTopology = new NetworkTopology(config);
+
+        SimulationManager messageMode = new SimulationManager(messageTopology);
+        SimulationManager frontierMode = new SimulationManager(frontierTopology);
+        frontierMode.setFrontierExpansion(true);
+
+        for (int ttl : new int[] {3, 6, 9}) {
+            for (String resource : List.of("hot", "rare", "missing")) {
+                assertSameSearch(
+                    messageMode.runSearch("p0", resource, ttl, new FloodingStrategy()),
+                    frontierMode.runSearch("p0", resource, ttl, new FloodingStrategy()));
+            }
+        }
+        assertSameCaches(messageTopology, frontierTopology);
+    }
+
+    @Test
+    void testParallelExpansionMatchesSequential() {
+        IndexedGraph graph = new NetworkTopology(randomConfig(50_000, 4, 7)).getIndexedGraph();
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            FrontierFloodingEngine sequential = new FrontierFloodingEngine(graph, sequentialPool);
+            FrontierFloodingEngine parallel = new FrontierFloodingEngine(graph, parallelPool);
+            int holder = graph.indexOf("p49000");
+
+            for (int ttl = 1; ttl <= 12; ttl++) {
+                FrontierFloodingEngine.Result expected = sequential.run(0, ttl, node -> node == holder);
+                FrontierFloodingEngine.Result actual = parallel.run(0, ttl, node -> node == holder);
+
+                assertEquals(expected.messages(), actual.messages(), "TTL " + ttl);
+                assertEquals(expected.visitedNodes(), actual.visitedNodes(), "TTL " + ttl);
+                assertEquals(expected.hitNode(), actual.hitNode(), "TTL " + ttl);
+                assertEquals(expected.messagesAtHit(), actual.messagesAtHit(), "TTL " + ttl);
+                assertArrayEquals(expected.hitChain(), actual.hitChain(), "TTL " + ttl);
+            }
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+
+    @Test
+    void testDirectionOptimizingMatchesTopDown() {
+        IndexedGraph graph = new NetworkTopology(randomConfig(50_000, 4, 11)).getIndexedGraph();
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            FrontierFloodingEngine topDown = new FrontierFloodingEngine(graph, sequentialPool);
+            topDown.setDirectionOptimizing(false);
+            FrontierFloodingEngine sequential = new FrontierFloodingEngine(graph, sequentialPool);
+            FrontierFloodingEngine parallel = new FrontierFloodingEngine(graph, parallelPool);
+
+            int bottomUpLevels = 0;
+            for (int holder : new int[] {graph.indexOf("p25000"), graph.indexOf("p3"), -1}) {
+                for (int ttl = 1; ttl <= 12; ttl++) {
+                    FrontierFloodingEngine.Result expected = topDown.run(0, ttl, node -> node == holder);
+                    assertEquals(0, expected.bottomUpLevels());
+                    for (FrontierFloodingEngine engine : List.of(sequential, parallel)) {
+                        FrontierFloodingEngine.Result actual = engine.run(0, ttl, node -> node == holder);
+                        String context = "holder " + holder + ", TTL " + ttl;
+                        assertEquals(expected.messages(), actual.messages(), context);
+                        assertEquals(expected.visitedNodes(), actual.visitedNodes(), context);
+                        assertEquals(expected.messagesAtHit(), actual.messagesAtHit(), context);
+                        assertArrayEquals(expected.hitChain(), actual.hitChain(), context);
+                        bottomUpLevels += actual.bottomUpLevels();
+                    }
+                }
+            }
+            assertTrue(bottomUpLevels > 0, "Floodings com TTL alto devem passar para bottom-up");
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+
+    @Test
+    void testReorderedGraphGivesSameFloods() {
+        NetworkConfig config = randomConfig(5_000, 3, 5);
+        SimulationManager original = new SimulationManager(new NetworkTopology(config));
+        original.setFrontierExpansion(true);
+
+        for (GraphOrdering ordering : List.of(GraphOrdering.BFS, GraphOrdering.RCM, GraphOrdering.DEGREE)) {
+            SimulationManager reordered = new SimulationManager(new NetworkTopology(config, ordering));
+            reordered.setFrontierExpansion(true);
+            for (int ttl : new int[] {2, 5, 8}) {
+                for (String resource : List.of("hot", "rare", "missing")) {
+                    assertSameSearch(
+                        original.runSearch("p10", resource, ttl, new FloodingStrategy()),
+                        reordered.runSearch("p10", resource, ttl, new FloodingStrategy()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFallsBackToMessagesWithMultipleHits() throws IOException {
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        SimulationManager simulationManager = new SimulationManager(topology);
+        simulationManager.setFrontierExpansion(true);
+        simulationManager.setMaxHits(SimulationManager.ALL_HITS);
+
+        List<String> log = new ArrayList<>();
+        simulationManager.setLogConsumer(log::add);
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        assertTrue(result.isSuccess());
+        assertTrue(log.stream().anyMatch(line -> line.startsWith("[Step")),
+            "Modo multi-hit deve usar a simulação mensagem a mensagem");
+    }
+
+    private static void assertSameSearch(SimulationManager.SearchResult expected,
+                                         SimulationManager.SearchResult actual) {
+        String context = expected.getSourceNode() + " " + expected.getResource();
+        assertEquals(expected.isSuccess(), actual.isSuccess(), context);
+        assertEquals(expected.getTotalMessages(), actual.getTotalMessages(), context);
+        assertEquals(expected.getVisitedNodes(), actual.getVisitedNodes(), context);
+        assertEquals(expected.getHops(), actual.getHops(), context);
+        assertEquals(expected.getPath(), actual.getPath(), context);
+        assertEquals(expected.getHits(), actual.getHits(), context);
+    }
+
+    private static void assertSameCaches(NetworkTopology expected, NetworkTopology actual) {
+        for (Node node : expected.getAllNodes()) {
+            assertEquals(node.getCache(), actual.getNode(node.getId()).orElseThrow().getCache(), node.getId());
+        }
+    }
+
+    /**
+     * Anel com cordas aleatórias: conexo, sem self-loops e com réplicas de "hot" espalhadas.
+     */
+    private static NetworkConfig randomConfig(int nodes, int chordsPerNode, long seed) {
+        Random random = new Random(seed);
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (int i = 0; i < nodes; i++) {
+            List<String> owned = new ArrayList<>(List.of("f" + i));
+            if (random.nextInt(500) == 0) {
+                owned.add("hot");
+            }
+            resources.put("p" + i, owned);
+        }
+        resources.get("p" + (nodes - 1)).add("rare");
+
+        Map<String, List<String>> seen = new HashMap<>();
+        List<List<String>> edges = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            addEdge(edges, seen, i, (i + 1) % nodes);
+            for (int c = 0; c < chordsPerNode; c++) {
+                int j = random.nextInt(nodes);
+                if (j != i) {
+                    addEdge(edges, seen, i, j);
+                }
+            }
+        }
+
+        NetworkConfig config = new NetworkConfig();
+        config.setNumNodes(nodes);
+        config.setMinNeighbors(1);
+        config.setMaxNeighbors(nodes);
+        config.setResources(resources);
+        config.setEdges(edges);
+        return config;
+    }
+
+    private static void addEdge(List<List<String>> edges, Map<String, List<String>> seen, int a, int b) {
+        String from = "p" + Math.min(a, b);
+        String to = "p" + Math.max(a, b);
+        List<String> adjacent = seen.computeIfAbsent(from, key -> new ArrayList<>());
+        if (!adjacent.contains(to)) {
+            adjacent.add(to);
+            edges.add(List.of(from, to));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do modo de busca com múltiplos hits (réplicas do mesmo recurso).
+ */
+class MultipleHitsTest {
+
+    private SimulationManager simulationManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        NetworkLoader loader = new NetworkLoader();
+        NetworkConfig config = loader.loadFromResource("config.json");
+        // Réplicas de fileR em n8 e n10, além do dono original n12
+        config.getResources().get("n8").add("fileR");
+        config.getResources().get("n10").add("fileR");
+        simulationManager = new SimulationManager(new NetworkTopology(config));
+    }
+
+    @Test
+    void testDefaultModeStopsAtFirstHit() {
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getHits().size());
+        assertTrue(Double.isNaN(result.getMessagesPerAdditionalHit()));
+    }
+
+    @Test
+    void testAllHitsCollectsEveryReplica() {
+        simulationManager.setMaxHits(SimulationManager.ALL_HITS);
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        Set<String> holders = result.getHits().stream()
+            .map(SimulationManager.SearchResult.Hit::nodeId)
+            .collect(Collectors.toSet());
+        assertEquals(Set.of("n8", "n10", "n12"), holders);
+        assertTrue(result.getMessagesPerAdditionalHit() > 0);
+    }
+
+    @Test
+    void testMaxHitsLimitsCollectedReplicas() {
+        simulationManager.setMaxHits(2);
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        List<SimulationManager.SearchResult.Hit> hits = result.getHits();
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(0).arrivalStep() < hits.get(1).arrivalStep());
+        assertTrue(hits.get(0).messagesSpent() <= hits.get(1).messagesSpent());
+    }
+
+    @Test
+    void testFirstHitMatchesResultPath() {
+        simulationManager.setMaxHits(SimulationManager.ALL_HITS);
+        SimulationManager.SearchResult result =
+            simulationManager.runSearch("n1", "fileR", 10, new FloodingStrategy());
+
+        SimulationManager.SearchResult.Hit first = result.getHits().get(0);
+        assertEquals(result.getHops(), first.hops());
+        assertEquals(first.nodeId(), result.getPath().get(result.getPath().size() - 1));
+    }
+
+    @Test
+    void testInvalidMaxHitsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.setMaxHits(-1));
+    }
+}
@@ -0,0 +1,95 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.RandomWalkStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da estratégia resolvida por busca e das estratégias por nó.
+ */
+class NodeStrategyTest {
+
+    @Test
+    void testSearchDoesNotTouchNodeStrategy() {
+        NetworkTopology topology = new NetworkTopology(RandomNetworks.generate(100, 4, 10, 1, 1));
+        new SimulationManager(topology).runSearch("p0", "r3", 6, new FloodingStrategy());
+
+        for (Node node : topology.getAllNodes()) {
+            assertNull(node.getSearchStrategy(), node.getId());
+        }
+    }
+
+    @Test
+    void testConcurrentSearchesWithDifferentStrategiesOnSharedTopology() throws Exception {
+        NetworkTopology topology = new NetworkTopology(RandomNetworks.generate(300, 4, 10, 1, 2));
+        SimulationManager.SearchResult expected =
+            new SimulationManager(topology).runSearch("p0", "missing", 6, new FloodingStrategy());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Integer>> flooding = executor.submit(() -> {
+                SimulationManager simulationManager = new SimulationManager(topology);
+                List<Integer> messages = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    messages.add(simulationManager.runSearch("p0", "missing", 6, new FloodingStrategy())
+                        .getTotalMessages());
+                }
+                return messages;
+            });
+            Future<?> walking = executor.submit(() -> {
+                SimulationManager simulationManager = new SimulationManager(topology);
+                for (int i = 0; i < 200; i++) {
+                    simulationManager.runSearch("p1", "missing", 20, new RandomWalkStrategy());
+                }
+            });
+
+            walking.get();
+            for (int messages : flooding.get()) {
+                assertEquals(expected.getTotalMessages(), messages,
+                    "Uma busca em paralelo não pode trocar a estratégia da outra");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testMixedDeploymentUsesNodeStrategies() {
+        NetworkTopology topology = new NetworkTopology(RandomNetworks.generate(300, 4, 10, 1, 3));
+        int degree = topology.getNode("p0").orElseThrow().getNeighbors().size();
+        SimulationManager simulationManager = new SimulationManager(topology);
+        simulationManager.setFrontierExpansion(true);
+        simulationManager.setNodeStrategy("p0", new FloodingStrategy());
+
+        // A origem inunda os vizinhos e cada um segue como walker: 1 + grau mensagens no primeiro
+        // hop e no máximo mais dois hops por walker (TTL 3, 2 e 1)
+        SimulationManager.SearchResult mixed =
+            simulationManager.runSearch("p0", "missing", 4, new RandomWalkStrategy());
+        assertTrue(mixed.getTotalMessages() >= 1 + degree, String.valueOf(mixed.getTotalMessages()));
+        assertTrue(mixed.getTotalMessages() <= 1 + 3 * degree, String.valueOf(mixed.getTotalMessages()));
+
+        simulationManager.clearNodeStrategies();
+        SimulationManager.SearchResult walk =
+            simulationManager.runSearch("p0", "missing", 4, new RandomWalkStrategy());
+        assertTrue(walk.getTotalMessages() <= 4, "Um único walker gasta no máximo uma mensagem por TTL");
+    }
+
+    @Test
+    void testUnknownNodeRejected() {
+        SimulationManager simulationManager =
+            new SimulationManager(new NetworkTopology(RandomNetworks.generate(10, 2, 2, 1, 4)));
+        assertThrows(IllegalArgumentException.class,
+            () -> simulationManager.setNodeStrategy("nope", new FloodingStrategy()));
+    }
+}
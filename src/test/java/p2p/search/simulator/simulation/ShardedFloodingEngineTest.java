@@ -0,0 +1,176 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.GraphPartition;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do flooding particionado: deve dar o mesmo resultado do flooding por nível em uma thread.
+ */
+class ShardedFloodingEngineTest {
+
+    @Test
+    void testMatchesFrontierEngineForAnyShardCount() {
+        IndexedGraph graph = new NetworkTopology(randomConfig(20_000, 3, 17)).getIndexedGraph();
+        FrontierFloodingEngine frontier = new FrontierFloodingEngine(graph);
+        int[] holders = {graph.indexOf("p15000"), graph.indexOf("p2"), graph.indexOf("p0"), -1};
+
+        for (int shards : new int[] {1, 2, 4}) {
+            // Mailboxes pequenas forçam o caminho de contrapressão entre shards
+            try (ShardedFloodingEngine sharded = new ShardedFloodingEngine(graph,
+                    GraphPartition.labelPropagation(graph, shards, 5), 64)) {
+                for (int holder : holders) {
+                    for (int ttl = 0; ttl <= 10; ttl++) {
+                        FrontierFloodingEngine.Result expected = frontier.run(0, ttl, node -> node == holder);
+                        FrontierFloodingEngine.Result actual = sharded.run(0, ttl, node -> node == holder);
+                        String context = shards + " shards, holder " + holder + ", TTL " + ttl;
+                        assertEquals(expected.messages(), actual.messages(), context);
+                        assertEquals(expected.visitedNodes(), actual.visitedNodes(), context);
+                        assertEquals(expected.hitNode(), actual.hitNode(), context);
+                        assertEquals(expected.hitLevel(), actual.hitLevel(), context);
+                        assertEquals(expected.messagesAtHit(), actual.messagesAtHit(), context);
+                        assertArrayEquals(expected.hitChain(), actual.hitChain(), context);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFailingShardDoesNotWedgeOthers() {
+        IndexedGraph graph = new NetworkTopology(randomConfig(5_000, 3, 23)).getIndexedGraph();
+        FrontierFloodingEngine frontier = new FrontierFloodingEngine(graph);
+        int target = graph.indexOf("p4000");
+        try (ShardedFloodingEngine sharded = new ShardedFloodingEngine(graph,
+                GraphPartition.labelPropagation(graph, 4, 5), 64)) {
+            for (int failing : new int[] {graph.indexOf("p2500"), graph.indexOf("p10")}) {
+                IllegalStateException error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(IllegalStateException.class, () -> sharded.run(0, 12, node -> {
+                        if (node == failing) {
+                            throw new IllegalArgumentException("falha em " + node);
+                        }
+                        return false;
+                    })));
+                assertInstanceOf(IllegalArgumentException.class, error.getCause());
+
+                // Depois da falha o motor continua utilizável e com o mesmo resultado
+                FrontierFloodingEngine.Result expected = frontier.run(0, 8, node -> node == target);
+                FrontierFloodingEngine.Result actual = sharded.run(0, 8, node -> node == target);
+                assertEquals(expected.messages(), actual.messages());
+                assertEquals(expected.visitedNodes(), actual.visitedNodes());
+                assertArrayEquals(expected.hitChain(), actual.hitChain());
+            }
+        }
+    }
+
+    @Test
+    void testManagerWithShardsMatchesMessageByMessage() {
+        NetworkConfig config = randomConfig(3_000, 2, 3);
+        NetworkTopology messageTopology = new NetworkTopology(config);
+        NetworkTopology shardedTopology = new NetworkTopology(config);
+
+        SimulationManager messageMode = new SimulationManager(messageTopology);
+        try (SimulationManager shardedMode = new SimulationManager(shardedTopology)) {
+            shardedMode.setFrontierExpansion(true);
+            shardedMode.setFrontierShards(3);
+
+            for (int ttl : new int[] {1, 4, 8}) {
+                for (String resource : List.of("hot", "rare", "missing")) {
+                    SimulationManager.SearchResult expected =
+                        messageMode.runSearch("p7", resource, ttl, new FloodingStrategy());
+                    SimulationManager.SearchResult actual =
+                        shardedMode.runSearch("p7", resource, ttl, new FloodingStrategy());
+                    String context = resource + " TTL " + ttl;
+                    assertEquals(expected.isSuccess(), actual.isSuccess(), context);
+                    assertEquals(expected.getTotalMessages(), actual.getTotalMessages(), context);
+                    assertEquals(expected.getVisitedNodes(), actual.getVisitedNodes(), context);
+                    assertEquals(expected.getPath(), actual.getPath(), context);
+                }
+            }
+            for (Node node : messageTopology.getAllNodes()) {
+                assertEquals(node.getCache(), shardedTopology.getNode(node.getId()).orElseThrow().getCache());
+            }
+            assertThrows(IllegalArgumentException.class, () -> shardedMode.setFrontierShards(0));
+        }
+    }
+
+    @Test
+    void testClosedManagerRecreatesShardsOnNextSearch() {
+        NetworkConfig config = randomConfig(500, 2, 5);
+        // try/finally em vez de try-with-resources: o teste fecha o gerenciador explicitamente
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(config));
+        try {
+            simulationManager.setFrontierExpansion(true);
+            simulationManager.setFrontierShards(2);
+            SimulationManager.SearchResult before = simulationManager.runSearch("p3", "rare", 6, new FloodingStrategy());
+            simulationManager.close();
+            simulationManager.close();
+            simulationManager.reset();
+            SimulationManager.SearchResult after = simulationManager.runSearch("p3", "rare", 6, new FloodingStrategy());
+            assertEquals(before.getTotalMessages(), after.getTotalMessages());
+            assertEquals(before.getVisitedNodes(), after.getVisitedNodes());
+        } finally {
+            simulationManager.close();
+        }
+    }
+
+    /**
+     * Anel com cordas aleatórias, como no teste do {@link FrontierFloodingEngine}.
+     */
+    private static NetworkConfig randomConfig(int nodes, int chordsPerNode, long seed) {
+        Random random = new Random(seed);
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (int i = 0; i < nodes; i++) {
+            List<String> owned = new ArrayList<>(List.of("f" + i));
+            if (random.nextInt(500) == 0) {
+                owned.add("hot");
+            }
+            resources.put("p" + i, owned);
+        }
+        resources.get("p" + (nodes - 1)).add("rare");
+
+        Map<String, List<String>> seen = new HashMap<>();
+        List<List<String>> edges = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            addEdge(edges, seen, i, (i + 1) % nodes);
+            for (int c = 0; c < chordsPerNode; c++) {
+                int j = random.nextInt(nodes);
+                if (j != i) {
+                    addEdge(edges, seen, i, j);
+                }
+            }
+        }
+
+        NetworkConfig config = new NetworkConfig();
+        config.setNumNodes(nodes);
+        config.setMinNeighbors(1);
+        config.setMaxNeighbors(nodes);
+        config.setResources(resources);
+        config.setEdges(edges);
+        return config;
+    }
+
+    private static void addEdge(List<List<String>> edges, Map<String, List<String>> seen, int a, int b) {
+        String from = "p" + Math.min(a, b);
+        String to = "p" + Math.max(a, b);
+        List<String> adjacent = seen.computeIfAbsent(from, key -> new ArrayList<>());
+        if (!adjacent.contains(to)) {
+            adjacent.add(to);
+            edges.add(List.of(from, to));
+        }
+    }
+}
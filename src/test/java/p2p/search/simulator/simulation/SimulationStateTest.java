@@ -0,0 +1,132 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do estado por simulação sobre uma topologia compartilhada.
+ */
+class SimulationStateTest {
+
+    private static final NetworkConfig CONFIG = RandomNetworks.generate(300, 4, 20, 2, 9);
+
+    @Test
+    void testOverlayMatchesNodeCaches() {
+        NetworkTopology legacyTopology = new NetworkTopology(CONFIG);
+        NetworkTopology sharedTopology = new NetworkTopology(CONFIG);
+        SimulationManager legacy = new SimulationManager(legacyTopology);
+        SimulationState state = SimulationState.create(sharedTopology);
+        SimulationManager overlay = new SimulationManager(sharedTopology, state);
+
+        for (int i = 0; i < 20; i++) {
+            String source = "p" + (i * 13 % 300);
+            String resource = RandomNetworks.catalogResource(i % 20);
+            SimulationManager.SearchResult expected =
+                legacy.runSearch(source, resource, 6, new InformedFloodingStrategy());
+            SimulationManager.SearchResult actual =
+                overlay.runSearch(source, resource, 6, new InformedFloodingStrategy());
+            assertEquals(expected.getTotalMessages(), actual.getTotalMessages(), source + " " + resource);
+            assertEquals(expected.getPath(), actual.getPath(), source + " " + resource);
+        }
+
+        for (Node node : sharedTopology.getAllNodes()) {
+            assertTrue(node.getCache().isEmpty(), "A topologia compartilhada não pode ser alterada");
+            assertEquals(legacyTopology.getNode(node.getId()).orElseThrow().getCache(), state.getCache(node.getId()));
+        }
+        assertTrue(state.cachedEntries() > 0);
+
+        overlay.reset();
+        assertEquals(0, state.cachedEntries());
+    }
+
+    @Test
+    void testForkIsCopyOnWrite() {
+        NetworkTopology topology = new NetworkTopology(CONFIG);
+        SimulationState warm = SimulationState.create(topology);
+        SimulationManager warmup = new SimulationManager(topology, warm);
+        for (int i = 0; i < 10; i++) {
+            warmup.runSearch("p" + i, RandomNetworks.catalogResource(i), 6, new FloodingStrategy());
+        }
+        Map<String, String> before = warm.getCache("p0");
+        long entries = warm.cachedEntries();
+
+        SimulationState first = warm.fork();
+        SimulationState second = warm.fork();
+        SimulationManager.SearchResult a = new SimulationManager(topology, first)
+            .runSearch("p0", RandomNetworks.catalogResource(15), 6, new FloodingStrategy());
+        SimulationManager.SearchResult b = new SimulationManager(topology, second)
+            .runSearch("p0", RandomNetworks.catalogResource(15), 6, new FloodingStrategy());
+
+        assertEquals(a.getTotalMessages(), b.getTotalMessages());
+        assertEquals(first.getCache("p0"), second.getCache("p0"));
+        assertEquals(before, warm.getCache("p0"), "O fork não pode alterar o estado original");
+        assertEquals(entries, warm.cachedEntries());
+        assertTrue(first.getCache("p0").entrySet().containsAll(before.entrySet()));
+
+        // Escritas no original depois do fork também não vazam para os filhos
+        warm.addToCache("p0", "extra", "p1");
+        assertFalse(first.getCache("p0").containsKey("extra"));
+        first.clear();
+        assertTrue(warm.getCache("p0").containsKey("extra"));
+    }
+
+    @Test
+    void testParallelSimulationsShareTopology() throws Exception {
+        NetworkTopology topology = new NetworkTopology(CONFIG);
+        List<Integer> expected = runWorkload(new SimulationManager(topology, SimulationState.create(topology)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> runs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                runs.add(executor.submit(() ->
+                    runWorkload(new SimulationManager(topology, SimulationState.create(topology)))));
+            }
+            for (Future<List<Integer>> run : runs) {
+                assertEquals(expected, run.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCapacityAndValidation() {
+        NetworkTopology topology = new NetworkTopology(CONFIG);
+        SimulationState state = SimulationState.create(topology);
+        state.setCacheCapacity(2);
+        state.addToCache("p1", "a", "p2");
+        state.addToCache("p1", "b", "p3");
+        state.addToCache("p1", "a", "p4");
+        state.addToCache("p1", "c", "p5");
+
+        assertEquals(Map.of("b", "p3", "c", "p5"), state.getCache("p1"));
+        assertThrows(IllegalArgumentException.class, () -> state.setCacheCapacity(-1));
+        assertThrows(IllegalArgumentException.class, () -> state.addToCache("nope", "a", "p1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SimulationManager(new NetworkTopology(CONFIG), state));
+    }
+
+    private static List<Integer> runWorkload(SimulationManager simulationManager) {
+        List<Integer> messages = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            messages.add(simulationManager.runSearch("p" + (i * 7 % 300), RandomNetworks.catalogResource(i % 20),
+                6, new InformedFloodingStrategy()).getTotalMessages());
+        }
+        return messages;
+    }
+}
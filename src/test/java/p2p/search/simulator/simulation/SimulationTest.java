@@ -79,8 +79,10 @@ class SimulationTest {
 
     @Test
     void testMessageNotDuplicated() {
-        assertFalse(simulationManager.hasSeenMessage("msg-1", "n1"));
-        assertTrue(simulationManager.hasSeenMessage("msg-1", "n1"));
+        assertFalse(simulationManager.hasSeenMessage(1, "n1"));
+        assertTrue(simulationManager.hasSeenMessage(1, "n1"));
+        assertFalse(simulationManager.hasSeenMessage(1, "n2"));
+        assertFalse(simulationManager.hasSeenMessage(2, "n1"));
     }
 
     @Test
@@ -106,6 +108,7 @@ class SimulationTest {
         Node node = new Node("test", java.util.List.of("fileX"));
 
         Message query = new Message.Builder()
+            .queryId(1)
             .type(Message.Type.QUERY)
             .source("test")
             .target("test")
@@ -0,0 +1,180 @@
+package p2p.search.simulator.simulation;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes dos modos de terminação do flooding depois do primeiro hit.
+ */
+class TerminationModeTest {
+
+    private static final NetworkConfig CONFIG = RandomNetworks.generate(400, 4, 20, 1, 3);
+    private static final int TTL = 9;
+
+    @Test
+    void testAllModesFindSameFirstHit() {
+        Map<TerminationMode, SimulationManager.SearchResult> results = runAllModes("p0", "r7");
+        SimulationManager.SearchResult oracle = results.get(TerminationMode.ORACLE);
+        assertTrue(oracle.isSuccess());
+        for (SimulationManager.SearchResult result : results.values()) {
+            assertTrue(result.isSuccess());
+            assertEquals(oracle.getPath(), result.getPath());
+            SimulationManager.SearchResult.Hit hit = result.getHits().get(0);
+            assertEquals(oracle.getHits().get(0).nodeId(), hit.nodeId());
+            assertEquals(oracle.getHits().get(0).arrivalStep(), hit.arrivalStep());
+        }
+    }
+
+    @Test
+    void testMessageAccountingPerMode() {
+        Map<TerminationMode, SimulationManager.SearchResult> results = runAllModes("p0", "r7");
+        SimulationManager.SearchResult oracle = results.get(TerminationMode.ORACLE);
+        SimulationManager.SearchResult cancel = results.get(TerminationMode.CANCEL_WAVE);
+        SimulationManager.SearchResult checkBack = results.get(TerminationMode.CHECK_BACK);
+        SimulationManager.SearchResult none = results.get(TerminationMode.NONE);
+
+        assertEquals(0, oracle.getControlMessages());
+        assertEquals(0, none.getControlMessages());
+        assertTrue(cancel.getControlMessages() > 0, "A onda de CANCEL deve custar mensagens");
+        assertTrue(checkBack.getControlMessages() > 0);
+        assertEquals(0, checkBack.getControlMessages() % 2, "Cada consulta à origem é ida e volta");
+
+        // Sem terminação a consulta inunda tudo até o TTL: o mesmo de um recurso inexistente,
+        // mais a resposta
+        SimulationManager.SearchResult missing = newManager(TerminationMode.NONE)
+            .runSearch("p0", "missing", TTL, new FloodingStrategy());
+        assertTrue(none.getTotalMessages() > missing.getTotalMessages());
+        assertTrue(none.getTotalMessages() <= missing.getTotalMessages() + none.getHops() + 1);
+
+        assertTrue(oracle.getTotalMessages() < none.getTotalMessages());
+        assertTrue(cancel.getTotalMessages() - cancel.getControlMessages() < none.getTotalMessages(),
+            "Nós cancelados deixam de encaminhar a consulta");
+        assertTrue(checkBack.getTotalMessages() - checkBack.getControlMessages() < none.getTotalMessages());
+        assertTrue(oracle.getTotalMessages() <= cancel.getTotalMessages() - cancel.getControlMessages(),
+            "O oráculo é o limite inferior de qualquer terminação realista");
+    }
+
+    @Test
+    void testOracleIsLowerBoundOnLineAndStar() {
+        // Linha n1-n2-n3-n4 com o recurso em n2: no oráculo o dono não encaminha
+        NetworkConfig line = smallConfig("n2", List.of(List.of("n1", "n2"), List.of("n2", "n3"), List.of("n3", "n4")));
+        Map<TerminationMode, SimulationManager.SearchResult> lineResults = runAllModes(line, "n1", "x");
+        assertEquals(4, lineResults.get(TerminationMode.ORACLE).getTotalMessages(), "Consulta e resposta em n1 e n2");
+        assertEquals(2, lineResults.get(TerminationMode.ORACLE).getVisitedNodes());
+        assertOracleIsLowerBound(lineResults);
+
+        // Estrela com o recurso no centro: no oráculo as folhas restantes nunca recebem a consulta
+        List<List<String>> star = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            star.add(List.of("hub", "leaf" + i));
+        }
+        Map<TerminationMode, SimulationManager.SearchResult> starResults =
+            runAllModes(smallConfig("hub", star), "leaf1", "x");
+        assertEquals(4, starResults.get(TerminationMode.ORACLE).getTotalMessages());
+        assertOracleIsLowerBound(starResults);
+    }
+
+    @Test
+    void testCheckBackIntervalTradesControlForQueries() {
+        SimulationManager frequent = newManager(TerminationMode.CHECK_BACK);
+        frequent.setCheckBackInterval(1);
+        SimulationManager rare = newManager(TerminationMode.CHECK_BACK);
+        rare.setCheckBackInterval(4);
+
+        SimulationManager.SearchResult frequentResult = frequent.runSearch("p0", "r7", TTL, new FloodingStrategy());
+        SimulationManager.SearchResult rareResult = rare.runSearch("p0", "r7", TTL, new FloodingStrategy());
+
+        assertTrue(frequentResult.getControlMessages() > rareResult.getControlMessages());
+        assertThrows(IllegalArgumentException.class, () -> frequent.setCheckBackInterval(0));
+    }
+
+    @Test
+    void testCancelWaveMatchesInDeterministicActors() {
+        SimulationManager queue = newManager(TerminationMode.CANCEL_WAVE);
+        try (SimulationManager actors = newManager(TerminationMode.CANCEL_WAVE)) {
+            actors.setExecutionMode(ExecutionMode.DETERMINISTIC_ACTORS);
+
+            for (String resource : new String[] {"r3", "r7", "r11"}) {
+                SimulationManager.SearchResult expected = queue.runSearch("p5", resource, TTL, new FloodingStrategy());
+                SimulationManager.SearchResult actual = actors.runSearch("p5", resource, TTL, new FloodingStrategy());
+                assertEquals(expected.getTotalMessages(), actual.getTotalMessages(), resource);
+                assertEquals(expected.getControlMessages(), actual.getControlMessages(), resource);
+                assertEquals(expected.getPath(), actual.getPath(), resource);
+            }
+        }
+    }
+
+    @Test
+    void testFrontierExpansionOnlyForOracle() {
+        SimulationManager frontier = newManager(TerminationMode.CANCEL_WAVE);
+        frontier.setFrontierExpansion(true);
+        SimulationManager.SearchResult result = frontier.runSearch("p0", "r7", TTL, new FloodingStrategy());
+        assertTrue(result.getControlMessages() > 0, "CANCEL_WAVE deve usar a simulação mensagem a mensagem");
+    }
+
+    private static void assertOracleIsLowerBound(Map<TerminationMode, SimulationManager.SearchResult> results) {
+        SimulationManager.SearchResult oracle = results.get(TerminationMode.ORACLE);
+        assertTrue(oracle.isSuccess());
+        for (Map.Entry<TerminationMode, SimulationManager.SearchResult> entry : results.entrySet()) {
+            SimulationManager.SearchResult result = entry.getValue();
+            String mode = entry.getKey().name();
+            assertTrue(oracle.getTotalMessages() <= result.getTotalMessages() - result.getControlMessages(), mode);
+            assertTrue(oracle.getVisitedNodes() <= result.getVisitedNodes(), mode);
+        }
+        assertTrue(oracle.getTotalMessages() < results.get(TerminationMode.NONE).getTotalMessages());
+    }
+
+    private static Map<TerminationMode, SimulationManager.SearchResult> runAllModes(String source, String resource) {
+        return runAllModes(CONFIG, source, resource);
+    }
+
+    private static Map<TerminationMode, SimulationManager.SearchResult> runAllModes(NetworkConfig config,
+                                                                                 String source, String resource) {
+        Map<TerminationMode, SimulationManager.SearchResult> results = new EnumMap<>(TerminationMode.class);
+        for (TerminationMode mode : TerminationMode.values()) {
+            results.put(mode, newManager(config, mode).runSearch(source, resource, TTL, new FloodingStrategy()));
+        }
+        return results;
+    }
+
+    private static SimulationManager newManager(TerminationMode mode) {
+        return newManager(CONFIG, mode);
+    }
+
+    private static SimulationManager newManager(NetworkConfig config, TerminationMode mode) {
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(config));
+        simulationManager.setTerminationMode(mode);
+        return simulationManager;
+    }
+
+    /**
+     * Rede com os nós das arestas dadas, cada um com um arquivo próprio; só {@code holder} tem "x".
+     */
+    private static NetworkConfig smallConfig(String holder, List<List<String>> edges) {
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        for (List<String> edge : edges) {
+            for (String node : edge) {
+                resources.computeIfAbsent(node, id -> new ArrayList<>(List.of("f-" + id)));
+            }
+        }
+        resources.get(holder).add("x");
+        NetworkConfig config = new NetworkConfig();
+        config.setNumNodes(resources.size());
+        config.setMinNeighbors(1);
+        config.setMaxNeighbors(resources.size());
+        config.setResources(resources);
+        config.setEdges(edges);
+        return config;
+    }
+}
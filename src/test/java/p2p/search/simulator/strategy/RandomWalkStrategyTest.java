@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import p2p.search.simulator.loader.NetworkLoader;
 import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.model.Node;
 import p2p.search.simulator.simulation.SimulationManager;
 import p2p.search.simulator.topology.NetworkTopology;
 
@@ -215,4 +216,30 @@ class RandomWalkStrategyTest {
         assertEquals("Random Walk", strategy.getName());
         assertFalse(strategy.isInformed(), "Random Walk is not informed");
     }
+
+    @Test
+    void testRandomWalkBacktracksOutOfDeadEnds() throws IOException {
+        // n2 é um beco sem saída: o walker que entrar nele precisa voltar por n1 para chegar a n4
+        String json = "{"
+            + "\"num_nodes\": 4, \"min_neighbors\": 1, \"max_neighbors\": 3,"
+            + "\"resources\": {\"n1\": [\"fileA\"], \"n2\": [\"fileB\"], \"n3\": [\"fileC\"], \"n4\": [\"fileD\"]},"
+            + "\"edges\": [[\"n1\", \"n2\"], [\"n1\", \"n3\"], [\"n3\", \"n4\"]]"
+            + "}";
+        NetworkTopology deadEndTopology = new NetworkTopology(new NetworkLoader().loadFromString(json));
+        SimulationManager manager = new SimulationManager(deadEndTopology);
+
+        boolean backtracked = false;
+        for (int i = 0; i < 30; i++) {
+            manager.reset();
+            SimulationManager.SearchResult result = manager.runSearch("n1", "fileD", 10, strategy);
+
+            assertTrue(result.isSuccess(), "Backtracking should always reach n4 with enough TTL");
+            assertEquals("n4", result.getPath().get(result.getPath().size() - 1));
+            backtracked |= result.getPath().contains("n2");
+        }
+
+        Node n2 = deadEndTopology.getNode("n2").orElseThrow();
+        assertEquals(1, n2.getDegree());
+        assertTrue(backtracked, "At least one walk should have entered the dead end and come back");
+    }
 }
@@ -0,0 +1,78 @@
+package p2p.search.simulator.topology;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do particionamento do grafo em shards.
+ */
+class GraphPartitionTest {
+
+    private static final int CLIQUES = 32;
+    private static final int CLIQUE_SIZE = 8;
+
+    @Test
+    void testBlocksCoverAllNodes() {
+        OffHeapTopology graph = ringOfCliques(new Random(1));
+        GraphPartition partition = GraphPartition.blocks(graph, 3);
+
+        int total = 0;
+        for (int shard = 0; shard < partition.shards(); shard++) {
+            for (int node : partition.nodesOf(shard)) {
+                assertEquals(shard, partition.ownerOf(node));
+            }
+            total += partition.sizeOf(shard);
+        }
+        assertEquals(graph.size(), total);
+        assertThrows(IllegalArgumentException.class, () -> GraphPartition.blocks(graph, 0));
+    }
+
+    @Test
+    void testLabelPropagationIsBalancedAndCutsFewerEdges() {
+        // Ids embaralhados: os blocos contíguos cortam quase todas as cliques
+        OffHeapTopology graph = ringOfCliques(new Random(7));
+        int shards = 4;
+
+        GraphPartition blocks = GraphPartition.blocks(graph, shards);
+        GraphPartition propagated = GraphPartition.labelPropagation(graph, shards, 20);
+
+        int capacity = (int) Math.ceil((double) graph.size() / shards * GraphPartition.IMBALANCE);
+        for (int shard = 0; shard < shards; shard++) {
+            assertTrue(propagated.sizeOf(shard) <= capacity, propagated.toString());
+        }
+        assertTrue(propagated.cutEdges(graph) < blocks.cutEdges(graph) / 2,
+            propagated.cutEdges(graph) + " vs " + blocks.cutEdges(graph));
+    }
+
+    /**
+     * Anel de cliques ligadas por uma aresta, com os nós inseridos em ordem aleatória.
+     */
+    private static OffHeapTopology ringOfCliques(Random random) {
+        int n = CLIQUES * CLIQUE_SIZE;
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+
+        OffHeapTopology.Builder builder = OffHeapTopology.builder(OffHeapStorage.DIRECT);
+        for (int member : order) {
+            builder.addNode("c" + member / CLIQUE_SIZE + "-" + member % CLIQUE_SIZE, List.of());
+        }
+        for (int clique = 0; clique < CLIQUES; clique++) {
+            for (int a = 0; a < CLIQUE_SIZE; a++) {
+                for (int b = a + 1; b < CLIQUE_SIZE; b++) {
+                    builder.addEdge("c" + clique + "-" + a, "c" + clique + "-" + b);
+                }
+            }
+            builder.addEdge("c" + clique + "-0", "c" + (clique + 1) % CLIQUES + "-1");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,144 @@
+package p2p.search.simulator.topology;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.loader.NetworkLoader;
+import p2p.search.simulator.model.Node;
+import p2p.search.simulator.simulation.FrontierFloodingEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da topologia fora do heap.
+ */
+class OffHeapTopologyTest {
+
+    @Test
+    void testCopyPreservesGraphAndResources() throws IOException {
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        IndexedGraph graph = topology.getIndexedGraph();
+
+        for (OffHeapStorage storage : OffHeapStorage.values()) {
+            OffHeapTopology offHeap = OffHeapTopology.copyOf(topology, storage);
+            assertEquals(graph.size(), offHeap.size());
+            assertEquals(graph.edgeSlots(), offHeap.edgeSlots());
+            assertTrue(offHeap.isSymmetric());
+
+            for (Node node : topology.getAllNodes()) {
+                NodeView view = offHeap.node(node.getId());
+                assertEquals(graph.indexOf(node.getId()), view.getIndex());
+                assertEquals(new ArrayList<>(node.getNeighbors()), view.getNeighbors());
+                assertEquals(node.getResources(), new HashSet<>(view.getResources()));
+                for (String resource : node.getResources()) {
+                    assertTrue(view.hasResource(resource));
+                }
+                assertFalse(view.hasResource("missing"));
+            }
+            assertArrayEquals(new int[] {graph.indexOf("n12")}, offHeap.holders("fileR"));
+            assertEquals(-1, offHeap.indexOf("nX"));
+        }
+    }
+
+    @Test
+    void testFloodingOnOffHeapCopyMatchesIndexedGraph() throws IOException {
+        NetworkTopology topology = new NetworkTopology(new NetworkLoader().loadFromResource("config.json"));
+        IndexedGraph graph = topology.getIndexedGraph();
+        OffHeapTopology offHeap = OffHeapTopology.copyOf(topology, OffHeapStorage.DIRECT);
+
+        FrontierFloodingEngine onHeap = new FrontierFloodingEngine(graph);
+        FrontierFloodingEngine offHeapEngine = new FrontierFloodingEngine(offHeap);
+        for (int source = 0; source < graph.size(); source++) {
+            for (String resource : List.of("fileA", "fileR", "missing")) {
+                for (int ttl = 1; ttl <= 6; ttl++) {
+                    String holderId = resource;
+                    FrontierFloodingEngine.Result expected = onHeap.run(source, ttl,
+                        node -> topology.getNode(graph.idOf(node)).orElseThrow().hasResource(holderId));
+                    FrontierFloodingEngine.Result actual = offHeapEngine.run(source, ttl,
+                        offHeap.holderPredicate(resource));
+
+                    assertEquals(expected.messages(), actual.messages());
+                    assertEquals(expected.visitedNodes(), actual.visitedNodes());
+                    assertEquals(expected.messagesAtHit(), actual.messagesAtHit());
+                    assertArrayEquals(expected.hitChain(), actual.hitChain());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBuilderStreamsNodesAndEdges() {
+        OffHeapTopology.Builder builder = OffHeapTopology.builder(OffHeapStorage.DIRECT).counters(2);
+        for (int i = 0; i < 1_000; i++) {
+            builder.addNode("p" + i, i % 10 == 0 ? List.of("f" + i, "hot") : List.of("f" + i));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            builder.addEdge(i, (i + 1) % 1_000);
+        }
+        builder.addEdge("p0", "p500");
+        OffHeapTopology topology = builder.build();
+
+        assertEquals(1_000, topology.size());
+        assertEquals(2 * 1_001, topology.edgeSlots());
+        // Vizinhança na ordem de inserção das arestas
+        assertEquals(List.of("p1", "p999", "p500"), topology.node("p0").getNeighbors());
+        for (int edge = 0; edge < topology.edgeSlots(); edge++) {
+            assertEquals(edge, topology.reverseEdge(topology.reverseEdge(edge)));
+        }
+        assertEquals(100, topology.holders("hot").length);
+        assertTrue(topology.node("p990").hasResource("hot"));
+        assertFalse(topology.node("p991").hasResource("hot"));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addNode("p1", List.of("x")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge("p1", "nX"));
+    }
+
+    @Test
+    void testCountersAreAtomic() throws InterruptedException {
+        OffHeapTopology.Builder builder = OffHeapTopology.builder(OffHeapStorage.DIRECT).counters(1);
+        builder.addNode("a", List.of("r"));
+        builder.addNode("b", List.of("r"));
+        builder.addEdge("a", "b");
+        OffHeapTopology topology = builder.build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    topology.addToCounter(1, 0, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, topology.node("b").getCounter(0));
+        assertEquals(0, topology.node("a").getCounter(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> topology.counter(0, 1));
+    }
+
+    @Test
+    void testStringTableGrowsPastInitialSlots() {
+        OffHeapTopology.Builder builder = OffHeapTopology.builder(OffHeapStorage.MAPPED);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            String id = "nó-" + i;
+            ids.add(id);
+            builder.addNode(id, List.of("r" + (i % 7)));
+        }
+        OffHeapTopology topology = builder.build();
+
+        for (String id : ids) {
+            assertEquals(id, topology.idOf(topology.indexOf(id)));
+        }
+        assertEquals(5_000 / 7 + 1, topology.holders("r0").length);
+    }
+}
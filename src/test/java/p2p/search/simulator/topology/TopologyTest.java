@@ -216,4 +216,98 @@ class TopologyTest {
                 "Graph should not contain self-loop for node " + nodeId);
         }
     }
+    
+    @Test
+    void testIndexedGraphMatchesNodeNeighbors() throws IOException {
+        NetworkLoader loader = new NetworkLoader();
+        NetworkConfig config = loader.loadFromResource("config.json");
+        NetworkTopology topology = new NetworkTopology(config);
+        IndexedGraph graph = topology.getIndexedGraph();
+        
+        assertEquals(topology.getNodeCount(), graph.size());
+        assertEquals(topology.getEdgeCount() * 2, graph.edgeSlots());
+        assertEquals(-1, graph.indexOf("nX"));
+        
+        // A ordem das vizinhanças deve ser a mesma de Node.getNeighbors()
+        for (Node node : topology.getAllNodes()) {
+            int index = graph.indexOf(node.getId());
+            assertEquals(node.getId(), graph.idOf(index));
+            assertEquals(node.getDegree(), graph.degree(index));
+            
+            List<String> neighbors = new ArrayList<>();
+            for (int edge = graph.edgeStart(index); edge < graph.edgeEnd(index); edge++) {
+                neighbors.add(graph.idOf(graph.target(edge)));
+            }
+            assertEquals(new ArrayList<>(node.getNeighbors()), neighbors);
+        }
+    }
+    
+    @Test
+    void testIndexedGraphReverseEdges() throws IOException {
+        NetworkLoader loader = new NetworkLoader();
+        IndexedGraph graph = new NetworkTopology(loader.loadFromResource("config.json")).getIndexedGraph();
+        int[] reverse = graph.reverseEdges();
+        
+        assertTrue(graph.isSymmetric());
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                int back = reverse[edge];
+                assertEquals(node, graph.target(back));
+                assertEquals(edge, reverse[back]);
+            }
+        }
+        
+        // Aresta sem reversa em um grafo direcionado
+        IndexedGraph directed = IndexedGraph.fromAdjacency(List.of("a", "b", "c"),
+            Map.of("a", List.of("b", "c"), "b", List.of("a"), "c", List.of()));
+        assertFalse(directed.isSymmetric());
+        assertEquals(-1, directed.reverseEdges()[directed.edgeStart(directed.indexOf("a")) + 1]);
+    }
+    
+    @Test
+    void testGraphOrderingsPreserveNeighborhoods() throws IOException {
+        NetworkLoader loader = new NetworkLoader();
+        NetworkConfig config = loader.loadFromResource("config.json");
+        IndexedGraph original = new NetworkTopology(config).getIndexedGraph();
+        
+        for (GraphOrdering ordering : GraphOrdering.values()) {
+            IndexedGraph reordered = new NetworkTopology(config, ordering).getIndexedGraph();
+            assertEquals(original.size(), reordered.size(), ordering.name());
+            for (int node = 0; node < original.size(); node++) {
+                String id = original.idOf(node);
+                int index = reordered.indexOf(id);
+                assertEquals(id, reordered.idOf(index), ordering.name());
+                assertEquals(neighborIds(original, node), neighborIds(reordered, index), ordering.name());
+            }
+        }
+    }
+    
+    @Test
+    void testReverseCuthillMcKeeReducesBandwidth() {
+        // Anel com rótulos embaralhados: a numeração original espalha vizinhos pelo array
+        int size = 200;
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ids.add("r" + i);
+        }
+        Collections.shuffle(ids, new Random(3));
+        Map<String, List<String>> adjacency = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            adjacency.put("r" + i, List.of("r" + ((i + 1) % size), "r" + ((i + size - 1) % size)));
+        }
+        IndexedGraph graph = IndexedGraph.fromAdjacency(ids, adjacency);
+        
+        assertTrue(graph.bandwidth() > size / 2);
+        assertTrue(graph.reorder(GraphOrdering.RCM).bandwidth() <= 2);
+        assertTrue(graph.reorder(GraphOrdering.BFS).bandwidth() <= 2);
+        assertThrows(IllegalArgumentException.class, () -> graph.relabel(new int[size]));
+    }
+    
+    private static List<String> neighborIds(IndexedGraph graph, int node) {
+        List<String> neighbors = new ArrayList<>();
+        for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+            neighbors.add(graph.idOf(graph.target(edge)));
+        }
+        return neighbors;
+    }
 }
@@ -0,0 +1,104 @@
+package p2p.search.simulator.workload;
+
+import org.junit.jupiter.api.Test;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.metrics.SearchHistograms;
+import p2p.search.simulator.metrics.SimulationMetrics;
+import p2p.search.simulator.model.NetworkConfig;
+import p2p.search.simulator.simulation.SimulationManager;
+import p2p.search.simulator.strategy.FloodingStrategy;
+import p2p.search.simulator.strategy.InformedFloodingStrategy;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das fases de aquecimento, transiente e medição.
+ */
+class WarmupControllerTest {
+
+    private static final int NODES = 300;
+    private static final int CATALOG = 20;
+    private static final NetworkConfig CONFIG = RandomNetworks.generate(NODES, 4, CATALOG, 1, 21);
+
+    private final WarmupController controller = WarmupController.builder()
+        .warmupQueries(50)
+        .steadyState(40, 0.05, 3)
+        .maxTransientQueries(2000)
+        .measurementQueries(200)
+        .build();
+
+    @Test
+    void testInformedStrategyReachesSteadyStateWithWarmCache() {
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(CONFIG));
+        WarmupController.Report report =
+            controller.run(simulationManager, skewedQueries(1), 6, new InformedFloodingStrategy());
+
+        assertEquals(50, report.getWarmupQueries());
+        assertTrue(report.isSteadyState());
+        assertEquals(report.getWindowHitRates().size() * 40, report.getTransientQueries());
+        assertEquals(200, report.getMeasurement().getCount());
+        assertTrue(report.getMeasurementCacheHitRate() > 0, "Depois do aquecimento o cache deve acertar");
+    }
+
+    @Test
+    void testBlindStrategyGetsSameTransientLength() {
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(CONFIG));
+        WarmupController.Report report =
+            controller.run(simulationManager, skewedQueries(1), 6, new FloodingStrategy());
+
+        assertTrue(report.isSteadyState());
+        assertEquals(4 * 40, report.getTransientQueries(), "Sem consultas ao cache, estável após 3 comparações");
+        assertTrue(report.getWindowHitRates().stream().allMatch(rate -> rate.isNaN()));
+        assertTrue(Double.isNaN(report.getMeasurementCacheHitRate()));
+    }
+
+    @Test
+    void testWarmInformedBeatsBlindOnSameWorkload() {
+        WarmupController.Report informed = controller.run(new SimulationManager(new NetworkTopology(CONFIG)),
+            skewedQueries(2), 6, new InformedFloodingStrategy());
+        WarmupController.Report blind = controller.run(new SimulationManager(new NetworkTopology(CONFIG)),
+            skewedQueries(2), 6, new FloodingStrategy());
+
+        double informedMessages = informed.getMeasurement().get(SearchHistograms.Measure.MESSAGES).getMean();
+        double blindMessages = blind.getMeasurement().get(SearchHistograms.Measure.MESSAGES).getMean();
+        assertTrue(informedMessages < blindMessages, informedMessages + " vs " + blindMessages);
+    }
+
+    @Test
+    void testExhaustedStreamSkipsMeasurementAndRestoresMetrics() {
+        SimulationManager simulationManager = new SimulationManager(new NetworkTopology(CONFIG));
+        SimulationMetrics metrics = new SimulationMetrics();
+        simulationManager.setMetrics(metrics);
+        List<Query> trace = List.of(new Query("p0", "r1"), new Query("p1", "r2"), new Query("p2", "r3"));
+        int[] next = {0};
+
+        WarmupController.Report report = controller.run(simulationManager,
+            () -> next[0] < trace.size() ? trace.get(next[0]++) : null, 6, new FloodingStrategy());
+
+        assertEquals(3, report.getWarmupQueries());
+        assertFalse(report.isSteadyState());
+        assertEquals(0, report.getMeasurement().getCount());
+        assertSame(metrics, simulationManager.getMetrics());
+        assertEquals(0, metrics.getSearches(), "Buscas do controlador não entram nos contadores do usuário");
+    }
+
+    @Test
+    void testBuilderValidation() {
+        assertThrows(IllegalArgumentException.class, () -> WarmupController.builder().warmupQueries(-1));
+        assertThrows(IllegalArgumentException.class, () -> WarmupController.builder().steadyState(0, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> WarmupController.builder().measurementQueries(0));
+    }
+
+    /**
+     * Origens uniformes e recursos concentrados nos primeiros do catálogo.
+     */
+    private static QueryStream skewedQueries(long seed) {
+        Random random = new Random(seed);
+        return () -> new Query("p" + random.nextInt(NODES),
+            RandomNetworks.catalogResource((int) (CATALOG * Math.pow(random.nextDouble(), 3))));
+    }
+}
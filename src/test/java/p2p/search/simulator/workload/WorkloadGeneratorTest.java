@@ -0,0 +1,161 @@
+package p2p.search.simulator.workload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import p2p.search.simulator.experiment.RandomNetworks;
+import p2p.search.simulator.topology.IndexedGraph;
+import p2p.search.simulator.topology.NetworkTopology;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes do gerador de carga Zipf e do replay de traces.
+ */
+class WorkloadGeneratorTest {
+
+    private static final NetworkTopology TOPOLOGY = new NetworkTopology(RandomNetworks.generate(500, 6, 50, 1, 4));
+    private static final List<String> CATALOG = catalog(50);
+
+    @Test
+    void testZipfFrequenciesMatchProbabilities() {
+        ZipfDistribution zipf = new ZipfDistribution(50, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 200_000;
+        int[] counts = new int[50];
+        for (int i = 0; i < samples; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        for (int rank : new int[] {0, 1, 4, 49}) {
+            assertEquals(zipf.probability(rank), (double) counts[rank] / samples, 0.005, "rank " + rank);
+        }
+        assertEquals(1.0 / 50, new ZipfDistribution(50, 0).probability(10), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1));
+    }
+
+    @Test
+    void testDegreeWeightedSources() {
+        WorkloadGenerator generator = WorkloadGenerator.builder(TOPOLOGY, CATALOG)
+            .sources(SourceSelection.DEGREE_WEIGHTED).limit(200_000).seed(3).build();
+        Map<String, Integer> counts = new HashMap<>();
+        Query query;
+        while ((query = generator.next()) != null) {
+            counts.merge(query.source(), 1, Integer::sum);
+        }
+
+        IndexedGraph graph = TOPOLOGY.getIndexedGraph();
+        double edgeSlots = graph.edgeSlots();
+        for (int node = 0; node < graph.size(); node += 50) {
+            double expected = 200_000 * graph.degree(node) / edgeSlots;
+            assertEquals(expected, counts.getOrDefault(graph.idOf(node), 0), 5 * Math.sqrt(expected) + 5,
+                graph.idOf(node));
+        }
+    }
+
+    @Test
+    void testInterArrivalsAndDeterminism() {
+        WorkloadGenerator first = WorkloadGenerator.builder(TOPOLOGY, CATALOG)
+            .interArrival(InterArrival.exponential(2.0)).limit(50_000).seed(11).build();
+        WorkloadGenerator second = WorkloadGenerator.builder(TOPOLOGY, CATALOG)
+            .interArrival(InterArrival.exponential(2.0)).limit(50_000).seed(11).build();
+
+        double previous = 0;
+        Query query;
+        int count = 0;
+        while ((query = first.next()) != null) {
+            assertEquals(query, second.next());
+            assertTrue(query.time() >= previous);
+            previous = query.time();
+            count++;
+        }
+        assertEquals(50_000, count);
+        assertNull(second.next());
+        assertEquals(2.0, previous / count, 0.1, "Intervalo médio do processo de Poisson");
+
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(3.0, InterArrival.constant(3.0).next(random));
+        assertTrue(InterArrival.pareto(1.5, 2.0).next(random) >= 2.0);
+    }
+
+    @Test
+    void testTraceRoundTrip(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("trace.csv");
+        List<Query> generated = new ArrayList<>();
+        WorkloadGenerator generator = WorkloadGenerator.builder(TOPOLOGY, CATALOG).limit(1000).seed(5).build();
+        try (TraceWriter writer = TraceWriter.create(file)) {
+            Query query;
+            while ((query = generator.next()) != null) {
+                generated.add(query);
+                writer.write(query);
+            }
+        }
+
+        List<Query> replayed = new ArrayList<>();
+        try (TraceReader reader = TraceReader.open(file)) {
+            Query query;
+            while ((query = reader.next()) != null) {
+                replayed.add(query);
+            }
+        }
+        assertEquals(generated, replayed);
+    }
+
+    @Test
+    void testTraceFormats() throws IOException {
+        String trace = "# comentário\n\np1,r2\n p3 , r4 \n10.5,p5,r6\n";
+        try (TraceReader reader = new TraceReader(new StringReader(trace))) {
+            assertEquals(new Query("p1", "r2", 1), reader.next());
+            assertEquals(new Query("p3", "r4", 2), reader.next());
+            assertEquals(new Query("p5", "r6", 10.5), reader.next());
+            assertNull(reader.next());
+        }
+
+        try (TraceReader reader = new TraceReader(new StringReader("p1,r1\nbad\n"))) {
+            reader.next();
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(error.getMessage().contains("Linha 2"));
+        }
+    }
+
+    @Test
+    void testGenerationIsAllocationLight() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        WorkloadGenerator generator = WorkloadGenerator.builder(TOPOLOGY, CATALOG)
+            .sources(SourceSelection.DEGREE_WEIGHTED).seed(9).build();
+        for (int i = 0; i < 100_000; i++) {
+            generator.next();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        int queries = 1_000_000;
+        long checksum = 0;
+        for (int i = 0; i < queries; i++) {
+            checksum += generator.next().resource().length();
+        }
+        long perQuery = (threads.getThreadAllocatedBytes(thread) - before) / queries;
+
+        assertTrue(checksum > 0);
+        assertTrue(perQuery <= 64, "Cada consulta deve alocar no máximo o próprio Query: " + perQuery + " bytes");
+    }
+
+    private static List<String> catalog(int size) {
+        List<String> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(RandomNetworks.catalogResource(i));
+        }
+        return catalog;
+    }
+}